@@ -0,0 +1,19 @@
+package com.ebooking.backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches de lecture du catalogue public (Caffeine, voir {@code spring.cache.*}).
+ * Les noms doivent figurer dans {@code spring.cache.cache-names} pour être exposés
+ * dans les métriques actuator dès le démarrage.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String SERVICES = "services";
+    public static final String PRESTATAIRES = "prestataires";
+    public static final String PRESTATAIRES_PAR_SERVICE = "prestatairesParService";
+    public static final String PRESTATAIRE = "prestataire";
+}
@@ -0,0 +1,58 @@
+package com.ebooking.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Borne le nombre de demandes de connexion en cours sur le pool JDBC. Avec des threads de
+ * plateforme, les 200 threads Tomcat plafonnaient d'eux-mêmes la file d'attente de Hikari ;
+ * avec des threads virtuels, des milliers de requêtes attendraient une connexion jusqu'à
+ * {@code connection-timeout}. Au-delà de {@code maxWaiting}, la demande échoue tout de suite
+ * comme un délai Hikari dépassé, et la requête répond 503.
+ */
+class PoolWaitGuard extends DelegatingDataSource {
+
+    private final int maxWaiting;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    PoolWaitGuard(DataSource pool, int maxWaiting) {
+        super(pool);
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        try {
+            return super.getConnection();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    int waiting() {
+        return waiting.get();
+    }
+
+    private void admit() throws SQLTransientConnectionException {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw new SQLTransientConnectionException("Pool JDBC saturé : " + maxWaiting + " demandes déjà en attente");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ebooking.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index que {@code @Index} ne sait pas décrire (index sur expression…), posés au démarrage
+ * après la mise à jour Hibernate, ainsi que les retouches de schéma qu'elle ne fait pas.
+ * Idempotent ; ignoré hors PostgreSQL (H2 en test), un échec n'empêche pas le démarrage.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostgresIndexes implements SmartInitializingSingleton {
+
+    private static final String[] DDL = {
+            // findWithRolesByEmailIgnoreCase / existsByEmailIgnoreCase filtrent sur lower(email)
+            "CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email))",
+            // recherche admin : LIKE '%q%' sur prénom, nom, email (trigrammes, requiert pg_trgm)
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_users_prenom_trgm ON users USING gin (lower(prenom) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_nom_trgm ON users USING gin (lower(nom) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops)",
+            // OutboxDispatcher : seules les lignes non diffusées sont lues, par id et par prestataire
+            "CREATE INDEX IF NOT EXISTS idx_outbox_en_attente ON outbox_events (id) WHERE publie_le IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_outbox_en_attente_prestataire ON outbox_events (prestataire_id, id) WHERE publie_le IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_outbox_publie_le ON outbox_events (publie_le) WHERE publie_le IS NOT NULL",
+            // ReminderScheduler : rendez-vous confirmés des prochains jours
+            "CREATE INDEX IF NOT EXISTS idx_rdv_confirme_date ON rendez_vous (date_rdv) WHERE statut = 'CONFIRME'",
+            // PendingReaper : demandes en attente les plus anciennes, datées par pending_since ;
+            // les demandes antérieures à la colonne partent de leur création
+            "DROP INDEX IF EXISTS idx_rdv_en_attente_created",
+            "UPDATE rendez_vous SET pending_since = created_at WHERE statut = 'EN_ATTENTE' AND pending_since IS NULL AND serie_id IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_rdv_en_attente_pending_since ON rendez_vous (pending_since) WHERE statut = 'EN_ATTENTE'",
+            // CHECK posés par Hibernate à la création des tables et jamais élargis par ddl-auto=update :
+            // ils rejetteraient les valeurs d'enum ajoutées depuis (EXPIRE) ; le mapping @Enumerated suffit
+            "ALTER TABLE rendez_vous DROP CONSTRAINT IF EXISTS rendez_vous_statut_check",
+            "ALTER TABLE daily_stats DROP CONSTRAINT IF EXISTS daily_stats_statut_check",
+            "ALTER TABLE outbox_events DROP CONSTRAINT IF EXISTS outbox_events_type_check"
+    };
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isPostgres()) return;
+        for (String sql : DDL) {
+            try {
+                jdbc.execute(sql);
+            } catch (RuntimeException e) {
+                log.warn("DDL non appliqué : {}", sql, e);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ebooking.backend.config;
+
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Contraintes d'exclusion PostgreSQL sur les plages horaires.
+ * <ul>
+ *   <li>{@code rendez_vous.creneau} ({@code tsrange}) : deux RDV bloquants d'un même
+ *   prestataire ne peuvent pas se chevaucher ;</li>
+ *   <li>{@code disponibilites.plage} ({@code int4range}, minutes) et {@code portee}
+ *   ({@code int8range} : tout l'espace pour une plage générale, le seul service sinon) :
+ *   une plage générale ne chevauche aucune autre, une plage spécifique ne chevauche ni une
+ *   générale ni une plage du même service.</li>
+ * </ul>
+ * Le schéma est posé au démarrage (idempotent) après la mise à jour Hibernate. Sur une autre
+ * base (H2 en test) ou si la pose échoue, {@link #enforces} renvoie {@code false} et les
+ * services gardent leurs vérifications applicatives.
+ */
+@Slf4j
+@Component
+public class RangeExclusionSchema implements SmartInitializingSingleton {
+
+    public enum Rule { RENDEZ_VOUS, DISPONIBILITE }
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    /**
+     * Durées manquantes des lignes anciennes, comme {@code blockingDurationOf} côté Java : durée
+     * du service, sinon 60 min. Toute écriture renseigne désormais la durée : le
+     * {@code coalesce} de {@code creneau} ne sert plus qu'en filet.
+     */
+    private static final String RDV_BACKFILL = """
+            UPDATE rendez_vous r SET duree_minutes = coalesce(
+                (SELECT s.duree_min FROM services s WHERE s.id = r.service_id AND s.duree_min > 0), 60)
+            WHERE r.duree_minutes IS NULL OR r.duree_minutes <= 0
+            """;
+
+    private static final String[] RDV_DDL = {
+            """
+            ALTER TABLE rendez_vous ADD COLUMN IF NOT EXISTS creneau tsrange
+                GENERATED ALWAYS AS (tsrange(date_rdv + heure_rdv,
+                    date_rdv + heure_rdv + coalesce(duree_minutes, 60) * interval '1 minute', '[)')) STORED
+            """,
+            """
+            ALTER TABLE rendez_vous ADD CONSTRAINT ex_rdv_chevauchement
+                EXCLUDE USING gist (prestataire_id WITH =, creneau WITH &&)
+                WHERE (statut IN ('EN_ATTENTE', 'CONFIRME'))
+            """
+    };
+
+    private static final String[] DISPO_DDL = {
+            """
+            ALTER TABLE disponibilites ADD COLUMN IF NOT EXISTS plage int4range
+                GENERATED ALWAYS AS (int4range((extract(epoch from heure_debut) / 60)::int,
+                    (extract(epoch from heure_fin) / 60)::int, '[)')) STORED
+            """,
+            """
+            ALTER TABLE disponibilites ADD COLUMN IF NOT EXISTS portee int8range
+                GENERATED ALWAYS AS (CASE WHEN service_id IS NULL THEN int8range(NULL, NULL)
+                    ELSE int8range(service_id, service_id, '[]') END) STORED
+            """,
+            """
+            ALTER TABLE disponibilites ADD CONSTRAINT ex_dispo_chevauchement
+                EXCLUDE USING gist (prestataire_id WITH =, jour_semaine WITH =, portee WITH &&, plage WITH &&)
+            """
+    };
+
+    private final JdbcTemplate jdbc;
+    private final EntityManager em;
+    private final boolean enabled;
+    private final Set<Rule> enforced = EnumSet.noneOf(Rule.class);
+
+    @Autowired
+    public RangeExclusionSchema(JdbcTemplate jdbc, EntityManager em,
+                                @Value("${booking.overlap.db-constraints:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.em = em;
+        this.enabled = enabled;
+    }
+
+    /** Mode applicatif pur (tests unitaires). */
+    public static RangeExclusionSchema disabled() {
+        return new RangeExclusionSchema(null, null, false);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled || jdbc == null || !isPostgres()) {
+            log.info("Contraintes d'exclusion non posées : vérification des chevauchements côté application");
+            return;
+        }
+        try {
+            jdbc.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+        } catch (RuntimeException e) {
+            log.warn("Extension btree_gist indisponible : vérification des chevauchements côté application", e);
+            return;
+        }
+        try {
+            int filled = jdbc.update(RDV_BACKFILL);
+            if (filled > 0) log.info("{} rendez-vous sans durée complétés", filled);
+        } catch (RuntimeException e) {
+            log.warn("Durées des rendez-vous non complétées : la contrainte peut diverger du contrôle applicatif", e);
+        }
+        install(Rule.RENDEZ_VOUS, "ex_rdv_chevauchement", RDV_DDL);
+        install(Rule.DISPONIBILITE, "ex_dispo_chevauchement", DISPO_DDL);
+    }
+
+    public boolean enforces(Rule rule) {
+        return enforced.contains(rule);
+    }
+
+    /**
+     * Exécute l'écriture ; si la base porte la règle, force le flush pour que la violation
+     * éventuelle remonte ici et la traduit en 422 avec {@code message}.
+     */
+    public <T> T write(Rule rule, Supplier<T> write, String message) {
+        try {
+            T result = write.get();
+            if (enforces(rule)) em.flush();
+            return result;
+        } catch (RuntimeException e) {
+            if (isExclusionViolation(e)) throw new UnprocessableEntityException(message);
+            throw e;
+        }
+    }
+
+    static boolean isExclusionViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) return true;
+        }
+        return false;
+    }
+
+    private void install(Rule rule, String constraint, String[] ddl) {
+        Integer present = jdbc.queryForObject("select count(*) from pg_constraint where conname = ?", Integer.class, constraint);
+        try {
+            if (present == null || present == 0) {
+                for (String sql : ddl) jdbc.execute(sql);
+            }
+            enforced.add(rule);
+            log.info("Contrainte {} active", constraint);
+        } catch (RuntimeException e) {
+            log.warn("Impossible de poser {} (données existantes en conflit ?) : vérification côté application", constraint, e);
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
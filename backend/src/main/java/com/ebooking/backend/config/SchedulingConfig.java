@@ -0,0 +1,10 @@
+package com.ebooking.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Tâches planifiées (réconciliation nocturne de {@code daily_stats}, voir {@code stats.rollup.*}). */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,55 @@
+package com.ebooking.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Passage des identifiants {@code IDENTITY} aux séquences allouées par blocs : sur une base
+ * existante, {@code ddl-auto=update} crée les séquences à 1 alors que les tables contiennent
+ * déjà des lignes. Au démarrage, chaque séquence est avancée au-delà du plus grand id de sa
+ * table (jamais reculée). PostgreSQL uniquement ; un échec est journalisé sans bloquer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SequenceAlignment implements SmartInitializingSingleton {
+
+    /** Table et séquence de chaque entité (voir les {@code @SequenceGenerator}). */
+    private static final String[][] SEQUENCES = {
+            {"users", "users_seq"},
+            {"user_roles", "user_roles_seq"},
+            {"services", "services_seq"},
+            {"prestataires", "prestataires_seq"},
+            {"prestataire_services", "prestataire_services_seq"},
+            {"disponibilites", "disponibilites_seq"},
+            {"rendez_vous", "rendez_vous_seq"},
+            {"rendez_vous_series", "rendez_vous_series_seq"},
+            {"outbox_events", "outbox_events_seq"}
+    };
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isPostgres()) return;
+        for (String[] s : SEQUENCES) {
+            try {
+                // optimiseur « pooled » : le prochain nextval (max + 50) couvre les ids max+1 .. max+50 ;
+                // allocationSize 1 (outbox) : le prochain nextval donne max+1
+                jdbc.queryForObject("SELECT setval('" + s[1] + "', GREATEST((SELECT COALESCE(MAX(id), 1) FROM " + s[0]
+                        + "), (SELECT last_value FROM " + s[1] + ")))", Long.class);
+            } catch (RuntimeException e) {
+                log.warn("Séquence {} non alignée sur {}", s[1], s[0], e);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ebooking.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Mode threads virtuels ({@code spring.threads.virtual.enabled=true}). Spring Boot bascule
+ * lui-même Tomcat, l'exécuteur applicatif ({@code @Async}, requêtes MVC asynchrones) et le
+ * planificateur ; on n'ajoute ici que {@link PoolWaitGuard} devant le pool JDBC.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    static BeanPostProcessor poolWaitGuard(@Value("${db.pool.max-waiting:200}") int maxWaiting) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource ds) || bean instanceof PoolWaitGuard) return bean;
+                if (ds instanceof HikariDataSource hikari) {
+                    log.info("Threads virtuels : pool JDBC de {} connexions, au plus {} demandes en attente",
+                            hikari.getMaximumPoolSize(), maxWaiting);
+                }
+                return new PoolWaitGuard(ds, maxWaiting);
+            }
+        };
+    }
+}
@@ -7,13 +7,16 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ebooking.backend.dto.admin.RollupRebuildResponse;
 import com.ebooking.backend.dto.admin.SeriesPointResponse;
 import com.ebooking.backend.dto.admin.StatsSummaryResponse;
 import com.ebooking.backend.service.AdminStatsService;
+import com.ebooking.backend.service.stats.DailyStatsRollup;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,6 +27,7 @@ import lombok.RequiredArgsConstructor;
 public class AdminStatsController {
 
     private final AdminStatsService service;
+    private final DailyStatsRollup rollup;
 
     @GetMapping("/summary")
     public ResponseEntity<StatsSummaryResponse> summary(
@@ -42,4 +46,15 @@ public class AdminStatsController {
     ) {
         return ResponseEntity.ok(service.series(metric, from, to, period));
     }
+
+    /** Reconstruit {@code daily_stats} sur la période (toute la table sans bornes), pour les reprises. */
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<RollupRebuildResponse> rebuild(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        int rows = rollup.rebuild(from, to);
+        return ResponseEntity.ok(new RollupRebuildResponse(from == null ? null : from.toString(),
+                to == null ? null : to.toString(), rows));
+    }
 }
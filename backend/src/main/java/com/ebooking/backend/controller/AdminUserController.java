@@ -1,9 +1,11 @@
 package com.ebooking.backend.controller;
 
 import com.ebooking.backend.dto.admin.*;
+import com.ebooking.backend.dto.common.CursorPage;
 import com.ebooking.backend.service.AdminUserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,13 +24,34 @@ public class AdminUserController {
                                   @RequestParam(defaultValue = "ALL") String role,
                                   @RequestParam(defaultValue = "0") int page,
                                   @RequestParam(defaultValue = "20") int size,
-                                  @RequestParam(defaultValue = "createdAt,DESC") String sort) {
+                                  @RequestParam(defaultValue = "createdAt,DESC") String sort,
+                                  @RequestParam(defaultValue = "true") boolean withTotal) {
+        if (!withTotal) {
+            Slice<AdminUserItemResponse> s = service.listSlice(query, status, role, "ADMIN", page, size, sort);
+            return ResponseEntity.ok(
+                    java.util.Map.of("items", s.getContent(), "hasNext", s.hasNext())
+            );
+        }
         Page<AdminUserItemResponse> p = service.list(query, status, role, "ADMIN", page, size, sort);
         return ResponseEntity.ok(
                 java.util.Map.of("items", p.getContent(), "total", p.getTotalElements())
         );
     }
 
+    /**
+     * Liste paginée par curseur : {@code items} + {@code nextCursor} (null en fin de liste),
+     * sans OFFSET ni comptage. Ordre de création uniquement.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<AdminUserItemResponse>> listPage(@RequestParam(required = false) String query,
+                                                                      @RequestParam(defaultValue = "ALL") String status,
+                                                                      @RequestParam(defaultValue = "ALL") String role,
+                                                                      @RequestParam Integer limit,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "createdAt,DESC") String sort) {
+        return ResponseEntity.ok(service.listPage(query, status, role, "ADMIN", cursor, limit, sort));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AdminUserDetailResponse> get(@PathVariable Long id) {
         return ResponseEntity.ok(service.get(id));
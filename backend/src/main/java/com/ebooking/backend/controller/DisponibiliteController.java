@@ -3,8 +3,10 @@ package com.ebooking.backend.controller;
 import com.ebooking.backend.dto.dispo.DisponibiliteRequest;
 import com.ebooking.backend.dto.dispo.DisponibiliteResponse;
 import com.ebooking.backend.dto.dispo.DisponibiliteUpdateRequest;
+import com.ebooking.backend.dto.dispo.SlotSuggestionResponse;
 import com.ebooking.backend.security.CurrentUser;
 import com.ebooking.backend.service.DisponibiliteService;
+import com.ebooking.backend.service.availability.SlotStreamHub;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -12,8 +14,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,6 +25,21 @@ import java.util.List;
 public class DisponibiliteController {
 
     private final DisponibiliteService dispoService;
+    private final SlotStreamHub slotStream;
+
+
+    /** Premiers créneaux libres pour un service, tous prestataires confondus. */
+    @GetMapping("/search")
+    public ResponseEntity<List<SlotSuggestionResponse>> search(
+            @RequestParam Long serviceId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer step,
+            @RequestParam(required = false) Integer dureeMin,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(dispoService.firstAvailable(serviceId, from, to, step, dureeMin, limit));
+    }
 
 
     @GetMapping("/{prestataireId}")
@@ -68,4 +87,36 @@ public class DisponibiliteController {
         }
         return ResponseEntity.ok(dispoService.slotsForDate(prestataireId, serviceId, date, step, dureeMin));
     }
+
+
+    /** Flux SSE : événement {@code snapshot}, puis {@code slot-added} / {@code slot-removed} à chaque changement. */
+    @GetMapping("/{prestataireId}/slots/stream")
+    public SseEmitter slotsStream(
+            @PathVariable Long prestataireId,
+            @RequestParam String date,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer step,
+            @RequestParam(required = false) Integer dureeMin
+    ) {
+        if (date.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Paramètre 'date' requis (YYYY-MM-DD)");
+        }
+        return slotStream.subscribe(prestataireId, serviceId, date, step, dureeMin);
+    }
+
+
+    @GetMapping("/{prestataireId}/slots/range")
+    public ResponseEntity<Map<String, List<String>>> slotsRange(
+            @PathVariable Long prestataireId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer step,
+            @RequestParam(required = false) Integer dureeMin
+    ) {
+        if (from.isBlank() || to.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Paramètres 'from' et 'to' requis (YYYY-MM-DD)");
+        }
+        return ResponseEntity.ok(dispoService.slotsForRange(prestataireId, serviceId, from, to, step, dureeMin));
+    }
 }
@@ -1,10 +1,13 @@
 package com.ebooking.backend.controller;
 
+import com.ebooking.backend.exception.TooManyRequestsException;
 import com.ebooking.backend.exception.UnprocessableEntityException;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.*;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -38,6 +41,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(err(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage()));
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> handle429(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(err(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    /** Pas de connexion JDBC obtenue (pool saturé ou base injoignable). */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<?> handle503(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(err(HttpStatus.SERVICE_UNAVAILABLE, "Service momentanément saturé, veuillez réessayer"));
+    }
+
     private Map<String, Object> err(HttpStatus status, String message) {
         return Map.of(
                 "status", status.value(),
@@ -1,5 +1,6 @@
 package com.ebooking.backend.controller;
 
+import com.ebooking.backend.dto.prestataire.PrestataireNearbyResponse;
 import com.ebooking.backend.dto.prestataire.PrestataireOnboardingRequest;
 import com.ebooking.backend.dto.prestataire.PrestataireResponse;
 import com.ebooking.backend.security.CurrentUser;
@@ -10,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/prestataires")
@@ -50,6 +53,14 @@ public class PrestataireController {
         return ResponseEntity.ok(prestataireService.listAll());
     }
 
+    /**
+     * Liste paginée par curseur : {@code items} + {@code nextCursor} (null en fin de liste).
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> listPage(@RequestParam Integer limit, @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(prestataireService.listPage(cursor, limit));
+    }
+
     /**
      * ✅ Liste filtrée par serviceId (désambiguïsation via params="serviceId")
      */
@@ -58,6 +69,31 @@ public class PrestataireController {
         return ResponseEntity.ok(prestataireService.listByService(serviceId));
     }
 
+    /**
+     * Recherche plein texte (spécialité, adresse, nom, services) classée par pertinence :
+     * {@code items} + {@code nextCursor} (null en fin de liste).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(prestataireService.search(q, cursor, limit));
+    }
+
+    /**
+     * Prestataires proches d'un point, par distance croissante ; {@code serviceId} restreint à
+     * ceux qui proposent le service, {@code firstSlot=true} ajoute leur premier créneau libre.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<PrestataireNearbyResponse>> nearby(@RequestParam double lat,
+                                                                  @RequestParam double lon,
+                                                                  @RequestParam(required = false) Long serviceId,
+                                                                  @RequestParam(required = false) Double radiusKm,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  @RequestParam(defaultValue = "false") boolean firstSlot) {
+        return ResponseEntity.ok(prestataireService.nearby(lat, lon, serviceId, radiusKm, limit, firstSlot));
+    }
+
     /**
      * Détail public
      */
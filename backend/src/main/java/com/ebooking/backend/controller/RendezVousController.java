@@ -1,7 +1,11 @@
 package com.ebooking.backend.controller;
 
+import com.ebooking.backend.dto.rdv.BatchRendezVousRequest;
+import com.ebooking.backend.dto.rdv.BatchRendezVousResponse;
 import com.ebooking.backend.dto.rdv.RendezVousRequest;
 import com.ebooking.backend.dto.rdv.RendezVousResponse;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesRequest;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesResponse;
 import com.ebooking.backend.dto.rdv.RendezVousUpdateRequest;
 import com.ebooking.backend.security.CurrentUser;
 import com.ebooking.backend.service.RendezVousService;
@@ -26,6 +30,27 @@ public class RendezVousController {
         return ResponseEntity.ok(rdvService.create(uid, req));
     }
 
+    /** 422 (avec le détail par élément) si rien n'a été enregistré. */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchRendezVousResponse> createBatch(@Valid @RequestBody BatchRendezVousRequest req) {
+        Long uid = CurrentUser.id();
+        BatchRendezVousResponse resp = rdvService.createBatch(uid, req);
+        if (resp.crees() == 0) return ResponseEntity.unprocessableEntity().body(resp);
+        return ResponseEntity.ok(resp);
+    }
+
+    @PostMapping("/series")
+    public ResponseEntity<RendezVousSeriesResponse> createSeries(@Valid @RequestBody RendezVousSeriesRequest req) {
+        Long uid = CurrentUser.id();
+        return ResponseEntity.ok(rdvService.createSeries(uid, req));
+    }
+
+    @PatchMapping("/series/{id}/annuler")
+    public ResponseEntity<RendezVousSeriesResponse> annulerSeries(@PathVariable Long id) {
+        Long uid = CurrentUser.id();
+        return ResponseEntity.ok(rdvService.annulerSeries(uid, id));
+    }
+
      @GetMapping("/client/{clientId}")
     public ResponseEntity<List<RendezVousResponse>> listByClient(@PathVariable Long clientId) {
         Long uid = CurrentUser.id();
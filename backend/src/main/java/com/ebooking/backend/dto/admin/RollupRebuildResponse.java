@@ -0,0 +1,3 @@
+package com.ebooking.backend.dto.admin;
+
+public record RollupRebuildResponse(String from, String to, int rows) {}
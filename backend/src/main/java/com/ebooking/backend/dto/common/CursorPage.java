@@ -0,0 +1,46 @@
+package com.ebooking.backend.dto.common;
+
+import com.ebooking.backend.exception.UnprocessableEntityException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Page d'une pagination par curseur (keyset). {@code nextCursor} est opaque pour le client
+ * et vaut {@code null} sur la dernière page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    private static final String SEPARATOR = "|";
+
+    /** Encode les composantes de la clé de tri du dernier élément servi. */
+    public static String encode(Object... keys) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) sb.append(SEPARATOR);
+            sb.append(keys[i] == null ? "" : keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Décode un curseur en {@code expectedParts} composantes ; 422 si le curseur est altéré. */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) throw new IllegalArgumentException();
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new UnprocessableEntityException("Curseur invalide");
+        }
+    }
+
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.valueOf(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new UnprocessableEntityException("Curseur invalide");
+        }
+    }
+}
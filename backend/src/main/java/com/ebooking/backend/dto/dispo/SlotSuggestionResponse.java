@@ -0,0 +1,7 @@
+package com.ebooking.backend.dto.dispo;
+
+public record SlotSuggestionResponse(
+        Long prestataireId,
+        String date,
+        String heure
+) {}
@@ -0,0 +1,10 @@
+package com.ebooking.backend.dto.prestataire;
+
+import com.ebooking.backend.dto.dispo.SlotSuggestionResponse;
+
+/** Prestataire proche, sa distance et, si demandé, son premier créneau libre ({@code null} sinon ou s'il n'en a pas). */
+public record PrestataireNearbyResponse(
+        PrestataireResponse prestataire,
+        double distanceKm,
+        SlotSuggestionResponse firstSlot
+) {}
@@ -1,10 +1,14 @@
 package com.ebooking.backend.dto.prestataire;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
 import java.util.List;
 
 public record PrestataireOnboardingRequest(
         @Size(max = 100) String specialite,
         String adresse,
-        List<Long> serviceIds
+        List<Long> serviceIds,
+        @DecimalMin("-90") @DecimalMax("90") Double latitude,
+        @DecimalMin("-180") @DecimalMax("180") Double longitude
 ) {}
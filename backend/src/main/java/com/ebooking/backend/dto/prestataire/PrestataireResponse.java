@@ -11,5 +11,7 @@ public record PrestataireResponse(
         String nom,
         String specialite,
         String adresse,
+        Double latitude,
+        Double longitude,
         List<ServiceResponse> services
 ) {}
@@ -0,0 +1,22 @@
+package com.ebooking.backend.dto.rdv;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Réservation groupée. {@code TOUT_OU_RIEN} (par défaut) n'enregistre rien dès qu'un élément
+ * est refusé ; {@code AU_MIEUX} enregistre les éléments valides.
+ */
+public record BatchRendezVousRequest(
+        @NotEmpty @Size(max = 100) List<@Valid RendezVousRequest> items,
+        Mode mode)
+{
+    public enum Mode { TOUT_OU_RIEN, AU_MIEUX }
+
+    public Mode modeOrDefault() {
+        return mode == null ? Mode.TOUT_OU_RIEN : mode;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ebooking.backend.dto.rdv;
+
+import java.util.List;
+
+/** Résultat par élément, dans l'ordre de la demande. */
+public record BatchRendezVousResponse(int crees, int refuses, List<Item> items) {
+
+    public enum Statut { CREE, REFUSE, NON_ENREGISTRE }
+
+    /** {@code rendezVous} pour un élément créé, {@code erreur} pour un élément refusé. */
+    public record Item(int index, Statut statut, RendezVousResponse rendezVous, String erreur) {}
+}
@@ -8,5 +8,6 @@ public record RendezVousResponse(
         String date, 
         String heure, 
         String statut, 
-        Integer dureeMin 
+        Integer dureeMin,
+        Long serieId
 ) { }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.ebooking.backend.dto.rdv;
+
+import com.ebooking.backend.model.enums.RecurrenceSerie;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/** Série bornée soit par {@code nombreOccurrences}, soit par {@code dateFin} (incluse). */
+public record RendezVousSeriesRequest(
+        @NotNull Long serviceId,
+        @NotNull Long prestataireId,
+        @NotNull String dateDebut,
+        @NotNull String heure,
+        Integer dureeMin,
+        @NotNull RecurrenceSerie recurrence,
+        @Positive Integer nombreOccurrences,
+        String dateFin)
+{ }
@@ -0,0 +1,20 @@
+package com.ebooking.backend.dto.rdv;
+
+import java.util.List;
+
+/** {@code rendezVous} : occurrences écrites par cet appel (les suivantes le seront au fil de l'eau). */
+public record RendezVousSeriesResponse(
+        Long id,
+        Long serviceId,
+        Long prestataireId,
+        Long clientId,
+        String recurrence,
+        String dateDebut,
+        String dateFin,
+        String heure,
+        Integer dureeMin,
+        int nombreOccurrences,
+        String statut,
+        String materialiseeJusquAu,
+        List<RendezVousResponse> rendezVous
+) { }
@@ -1,9 +1,13 @@
 package com.ebooking.backend.dto.service;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
+/** {@code dureeMin} : facultative ; absente d'une mise à jour, la durée existante est conservée. */
 public record ServiceRequest(
         @NotBlank @Size(max = 100) String nom,
-        @Size(max = 10_000) String description
+        @Size(max = 10_000) String description,
+        @Positive @Max(1440) Integer dureeMin
 ) {}
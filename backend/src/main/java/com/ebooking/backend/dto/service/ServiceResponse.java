@@ -3,5 +3,6 @@ package com.ebooking.backend.dto.service;
 public record ServiceResponse(
         Long id,
         String nom,
-        String description
+        String description,
+        Integer dureeMin
 ) {}
@@ -0,0 +1,5 @@
+package com.ebooking.backend.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) { super(message); }
+}
@@ -0,0 +1,44 @@
+package com.ebooking.backend.model;
+
+import com.ebooking.backend.model.enums.StatutRdv;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Agrégat journalier des rendez-vous par (jour, prestataire, service, statut), tenu à jour
+ * par {@code DailyStatsRollup}. Pas de clé étrangère : c'est une projection reconstructible.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_stats_cle", columnNames = {"jour", "prestataire_id", "service_id", "statut"}),
+        indexes = @Index(name = "idx_daily_stats_jour", columnList = "jour"))
+public class DailyStat {
+
+    @Id
+    // lignes écrites uniquement en SQL par DailyStatsRollup : identifiant attribué par la base
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate jour;
+
+    @Column(name = "prestataire_id", nullable = false)
+    private Long prestataireId;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StatutRdv statut;
+
+    @Column(name = "nb_rdv", nullable = false)
+    private long nbRdv;
+
+    @Column(name = "minutes_reservees", nullable = false)
+    private long minutesReservees;
+}
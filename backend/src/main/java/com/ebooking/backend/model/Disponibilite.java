@@ -16,7 +16,8 @@ import java.time.LocalTime;
 public class Disponibilite {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disponibilites_seq")
+    @SequenceGenerator(name = "disponibilites_seq", sequenceName = "disponibilites_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
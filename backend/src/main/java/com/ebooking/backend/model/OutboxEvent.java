@@ -0,0 +1,57 @@
+package com.ebooking.backend.model;
+
+import com.ebooking.backend.model.enums.TypeEvenementRdv;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Événement du cycle de vie d'un rendez-vous, écrit dans la transaction qui le produit et
+ * diffusé ensuite par {@code OutboxDispatcher}. Pas de clé étrangère : la ligne doit survivre
+ * à la suppression du rendez-vous.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    // allocationSize 1, id pris au commit sous le verrou du prestataire (OutboxWriter) :
+    // pour un même prestataire, l'ordre des ids est celui des commits, même entre instances,
+    // et le dispatcher s'en sert pour l'ordre par prestataire
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TypeEvenementRdv type;
+
+    @Column(name = "rdv_id", nullable = false)
+    private Long rdvId;
+
+    @Column(name = "prestataire_id", nullable = false)
+    private Long prestataireId;
+
+    /** États avant / après du rendez-vous, en JSON. */
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "cree_le", nullable = false)
+    private Instant creeLe;
+
+    /** Prochain essai de diffusion ; repoussé après chaque échec. */
+    @Column(name = "disponible_le", nullable = false)
+    private Instant disponibleLe;
+
+    @Column(name = "publie_le")
+    private Instant publieLe;
+
+    @Column(nullable = false)
+    private int tentatives;
+
+    @Column(name = "derniere_erreur", length = 500)
+    private String derniereErreur;
+}
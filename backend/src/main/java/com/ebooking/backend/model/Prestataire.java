@@ -13,7 +13,8 @@ import lombok.*;
 public class Prestataire {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prestataires_seq")
+    @SequenceGenerator(name = "prestataires_seq", sequenceName = "prestataires_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(optional = false, fetch = FetchType.LAZY)
@@ -26,4 +27,9 @@ public class Prestataire {
 
     @Column(columnDefinition = "text")
     private String adresse;
+
+    /** Position WGS84 en degrés, fournie par le prestataire ou géocodée depuis l'adresse ; null si inconnue. */
+    private Double latitude;
+
+    private Double longitude;
 }
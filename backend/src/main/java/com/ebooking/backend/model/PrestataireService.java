@@ -13,7 +13,8 @@ import lombok.*;
 public class PrestataireService {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prestataire_services_seq")
+    @SequenceGenerator(name = "prestataire_services_seq", sequenceName = "prestataire_services_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -18,7 +18,8 @@ import java.time.LocalTime;
 @Table(name = "rendez_vous", indexes = {@Index(name = "idx_rdv_prestataire_date", columnList = "prestataire_id,date_rdv"), @Index(name = "idx_rdv_client_date", columnList = "client_id,date_rdv")})
 public class RendezVous {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rendez_vous_seq")
+    @SequenceGenerator(name = "rendez_vous_seq", sequenceName = "rendez_vous_seq", allocationSize = 50)
     private Long id; 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "service_id", nullable = false, foreignKey = @ForeignKey(name = "fk_rdv_service"))
@@ -43,4 +44,16 @@ public class RendezVous {
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
+    /**
+     * Dernière entrée en {@code EN_ATTENTE} : création, ou déplacement d'un rendez-vous confirmé.
+     * Nul pour les occurrences matérialisées d'une série, dont l'attente court avec la série.
+     */
+    @Column(name = "pending_since")
+    private LocalDateTime pendingSince;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "serie_id", foreignKey = @ForeignKey(name = "fk_rdv_serie"))
+    private RendezVousSeries serie;
+    /** Créneau (date et heure) pour lequel le rappel est parti ; un déplacement rouvre le droit à un rappel. */
+    @Column(name = "rappel_envoye_pour")
+    private LocalDateTime rappelEnvoyePour;
 }
@@ -0,0 +1,79 @@
+package com.ebooking.backend.model;
+
+import com.ebooking.backend.model.enums.RecurrenceSerie;
+import com.ebooking.backend.model.enums.StatutSerie;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Série de rendez-vous récurrents (même jour de la semaine, même heure). Seules les
+ * occurrences jusqu'à {@code materialiseeJusquAu} existent dans {@code rendez_vous} ; les
+ * suivantes sont créées au fil de l'eau par {@code SeriesMaterializer} et, d'ici là, bloquent
+ * le créneau comme un rendez-vous (voir {@code SeriesCalendar}).
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Entity
+@Table(name = "rendez_vous_series",
+        indexes = {
+                @Index(name = "idx_series_prestataire_fin", columnList = "prestataire_id,date_fin"),
+                @Index(name = "idx_series_statut_materialisee", columnList = "statut,materialisee_jusqu_au")
+        })
+public class RendezVousSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rendez_vous_series_seq")
+    @SequenceGenerator(name = "rendez_vous_series_seq", sequenceName = "rendez_vous_series_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "service_id", nullable = false, foreignKey = @ForeignKey(name = "fk_serie_service"))
+    private ServiceCatalog service;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "prestataire_id", nullable = false, foreignKey = @ForeignKey(name = "fk_serie_prestataire"))
+    private Prestataire prestataire;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", nullable = false, foreignKey = @ForeignKey(name = "fk_serie_client"))
+    private User client;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RecurrenceSerie recurrence;
+
+    /** Première occurrence. */
+    @Column(name = "date_debut", nullable = false)
+    private LocalDate dateDebut;
+
+    /** Dernière occurrence (calculée à la création, que la série soit bornée par un nombre ou une date). */
+    @Column(name = "date_fin", nullable = false)
+    private LocalDate dateFin;
+
+    @Column(name = "nombre_occurrences", nullable = false)
+    private int nombreOccurrences;
+
+    @Column(nullable = false)
+    private LocalTime heure;
+
+    @Column(name = "duree_minutes", nullable = false)
+    private int dureeMinutes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private StatutSerie statut = StatutSerie.ACTIVE;
+
+    /** Dernière date dont l'occurrence a été écrite dans {@code rendez_vous}. */
+    @Column(name = "materialisee_jusqu_au", nullable = false)
+    private LocalDate materialiseeJusquAu;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
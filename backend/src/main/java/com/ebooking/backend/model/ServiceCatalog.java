@@ -13,7 +13,8 @@ import lombok.*;
 public class ServiceCatalog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "services_seq")
+    @SequenceGenerator(name = "services_seq", sequenceName = "services_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 100, nullable = false)
@@ -21,4 +22,8 @@ public class ServiceCatalog {
 
     @Column(columnDefinition = "text")
     private String description;
+
+    /** Durée par défaut d'une prestation, en minutes (facultative). */
+    @Column(name = "duree_min")
+    private Integer dureeMin;
 }
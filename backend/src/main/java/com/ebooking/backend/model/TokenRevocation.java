@@ -0,0 +1,25 @@
+package com.ebooking.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Jetons d'un utilisateur émis avant {@code revoquesAvant} refusés (réactivation, suppression
+ * du compte), relus au démarrage par {@code TokenRevocationRegistry}. Pas de clé étrangère :
+ * la ligne doit survivre à la suppression de l'utilisateur.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Entity
+@Table(name = "token_revocations")
+public class TokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoques_avant", nullable = false)
+    private Instant revoquesAvant;
+}
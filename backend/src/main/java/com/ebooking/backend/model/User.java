@@ -15,7 +15,8 @@ import java.util.List;
 @Table(name = "users",
         indexes = {
                 @Index(name = "idx_users_email", columnList = "email"),
-                @Index(name = "idx_users_telephone", columnList = "telephone")
+                @Index(name = "idx_users_telephone", columnList = "telephone"),
+                @Index(name = "idx_users_created_at_id", columnList = "created_at,id")
         },
         uniqueConstraints = {
                 @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
@@ -24,7 +25,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 50, nullable = false)
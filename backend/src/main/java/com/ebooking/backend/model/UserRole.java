@@ -14,7 +14,8 @@ import lombok.*;
 public class UserRole {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_roles_seq")
+    @SequenceGenerator(name = "user_roles_seq", sequenceName = "user_roles_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -36,7 +37,9 @@ public class UserRole {
     public static class ServiceCatalog {
 
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        // même séquence que com.ebooking.backend.model.ServiceCatalog (même table)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "services_legacy_seq")
+        @SequenceGenerator(name = "services_legacy_seq", sequenceName = "services_seq", allocationSize = 50)
         private Long id;
 
         @Column(length = 100, nullable = false)
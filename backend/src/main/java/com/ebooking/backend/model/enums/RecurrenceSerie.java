@@ -0,0 +1,17 @@
+package com.ebooking.backend.model.enums;
+
+public enum RecurrenceSerie {
+    HEBDOMADAIRE(1),
+    QUINZOMADAIRE(2);
+
+    private final int semaines;
+
+    RecurrenceSerie(int semaines) {
+        this.semaines = semaines;
+    }
+
+    /** Écart entre deux occurrences, en semaines. */
+    public int semaines() {
+        return semaines;
+    }
+}
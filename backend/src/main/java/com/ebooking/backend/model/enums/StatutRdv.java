@@ -4,5 +4,7 @@ public enum StatutRdv {
     EN_ATTENTE,
     CONFIRME,
     ANNULE,
-    REFUSE
+    REFUSE,
+    /** Demande restée en attente au-delà de {@code booking.pending.ttl}. */
+    EXPIRE
 }
@@ -0,0 +1,6 @@
+package com.ebooking.backend.model.enums;
+
+public enum StatutSerie {
+    ACTIVE,
+    ANNULEE
+}
@@ -0,0 +1,10 @@
+package com.ebooking.backend.model.enums;
+
+public enum TypeEvenementRdv {
+    CREE,
+    CONFIRME,
+    ANNULE,
+    REFUSE,
+    EXPIRE,
+    MODIFIE
+}
@@ -0,0 +1,26 @@
+package com.ebooking.backend.repository;
+
+import com.ebooking.backend.model.DailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyStatRepository extends JpaRepository<DailyStat, Long> {
+
+    @Query("SELECT COALESCE(SUM(s.nbRdv), 0) FROM DailyStat s WHERE s.jour BETWEEN :from AND :to")
+    long sumRdvBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT s.jour, SUM(s.nbRdv) FROM DailyStat s
+            WHERE s.jour BETWEEN :from AND :to
+            GROUP BY s.jour
+            HAVING SUM(s.nbRdv) > 0
+            ORDER BY s.jour ASC
+            """)
+    List<Object[]> sumRdvGroupedByJour(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    List<DailyStat> findByPrestataireIdOrderByJourAscServiceIdAscStatutAsc(Long prestataireId);
+}
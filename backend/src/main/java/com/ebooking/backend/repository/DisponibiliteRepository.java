@@ -6,12 +6,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DisponibiliteRepository extends JpaRepository<Disponibilite, Long> {
 
     List<Disponibilite> findByPrestataireId(Long prestataireId);
 
+    List<Disponibilite> findByPrestataireIdIn(Collection<Long> prestataireIds);
+
     List<Disponibilite> findByPrestataireIdAndJourSemaine(Long prestataireId, JourSemaine jour);
 
     List<Disponibilite> findByJourSemaine(JourSemaine jour);
@@ -59,4 +62,11 @@ public interface DisponibiliteRepository extends JpaRepository<Disponibilite, Lo
            """)
     List<Disponibilite> findOverlapsWithAnySpecific(Long prestataireId, JourSemaine jour,
                                                     LocalTime heureDebut, LocalTime heureFin);
+
+    /** Plages distinctes par jour : [jourSemaine, heureDebut, heureFin, nombre]. */
+    @Query("""
+           select d.jourSemaine, d.heureDebut, d.heureFin, count(d) from Disponibilite d
+           group by d.jourSemaine, d.heureDebut, d.heureFin
+           """)
+    List<Object[]> countGroupedByJourAndPlage();
 }
@@ -0,0 +1,53 @@
+package com.ebooking.backend.repository;
+
+import com.ebooking.backend.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Événements à diffuser, par id croissant. Un prestataire dont un événement plus ancien
+     * attend son prochain essai est écarté en entier, pour garder l'ordre. Les événements
+     * ayant épuisé leurs tentatives ne bloquent plus rien.
+     */
+    @Query("""
+           select o from OutboxEvent o
+           where o.publieLe is null and o.tentatives < :maxTentatives and o.disponibleLe <= :now
+             and not exists (select 1 from OutboxEvent p
+                             where p.prestataireId = o.prestataireId and p.id < o.id
+                               and p.publieLe is null and p.tentatives < :maxTentatives
+                               and p.disponibleLe > :now)
+           order by o.id
+           """)
+    List<OutboxEvent> findDispatchable(int maxTentatives, Instant now, Limit limit);
+
+    @Query("select min(o.creeLe) from OutboxEvent o where o.publieLe is null and o.tentatives < :maxTentatives")
+    Instant findOldestPending(int maxTentatives);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent o set o.publieLe = :at where o.id in :ids")
+    int markPublished(Collection<Long> ids, Instant at);
+
+    @Transactional
+    @Modifying
+    @Query("""
+           update OutboxEvent o
+           set o.tentatives = o.tentatives + 1, o.derniereErreur = :erreur, o.disponibleLe = :prochainEssai
+           where o.id = :id
+           """)
+    int recordFailure(Long id, String erreur, Instant prochainEssai);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent o where o.publieLe < :before")
+    int deletePublishedBefore(Instant before);
+}
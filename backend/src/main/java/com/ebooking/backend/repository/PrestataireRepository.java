@@ -1,9 +1,12 @@
 package com.ebooking.backend.repository;
 
 import com.ebooking.backend.model.Prestataire;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +19,41 @@ public interface PrestataireRepository extends JpaRepository<Prestataire, Long>
     @Query("""
            select p
            from Prestataire p
+           join fetch p.user
            join com.ebooking.backend.model.PrestataireService ps on ps.prestataire.id = p.id
            where ps.service.id = :serviceId
+           order by p.id
            """)
     List<Prestataire> findByServiceId(Long serviceId);
+
+    @Query("select p from Prestataire p join fetch p.user order by p.id")
+    List<Prestataire> findAllWithUser();
+
+    /** Page keyset : prestataires d'id strictement supérieur à {@code afterId}, utilisateur chargé. */
+    @EntityGraph(attributePaths = "user")
+    List<Prestataire> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    List<Prestataire> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Verrouille les prestataires de {@code ids}, par id croissant, jusqu'à la fin de la
+     * transaction : sérialise l'écriture des événements outbox d'un même prestataire.
+     */
+    @Query(value = "SELECT id FROM prestataires WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(Collection<Long> ids);
+
+    /** Lignes [id, spécialité, adresse, prénom, nom] de l'index de recherche. */
+    @Query("select p.id, p.specialite, p.adresse, u.prenom, u.nom from Prestataire p join p.user u")
+    List<Object[]> findSearchRows();
+
+    @Query("select p.id, p.specialite, p.adresse, u.prenom, u.nom from Prestataire p join p.user u where p.id in :ids")
+    List<Object[]> findSearchRowsByIdIn(Collection<Long> ids);
+
+    /** Lignes [id, latitude, longitude, adresse] de l'index géographique. */
+    @Query("select p.id, p.latitude, p.longitude, p.adresse from Prestataire p")
+    List<Object[]> findGeoRows();
+
+    @Query("select p.id, p.latitude, p.longitude, p.adresse from Prestataire p where p.id in :ids")
+    List<Object[]> findGeoRowsByIdIn(Collection<Long> ids);
 }
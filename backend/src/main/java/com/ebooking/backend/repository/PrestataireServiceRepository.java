@@ -2,7 +2,9 @@ package com.ebooking.backend.repository;
 
 import com.ebooking.backend.model.PrestataireService;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PrestataireServiceRepository extends JpaRepository<PrestataireService, Long> {
@@ -11,4 +13,25 @@ public interface PrestataireServiceRepository extends JpaRepository<PrestataireS
     void deleteByPrestataireIdAndServiceId(Long prestataireId, Long serviceId);
 
     List<PrestataireService> findByPrestataireId(Long prestataireId);
-}
\ No newline at end of file
+
+    @Query("select ps.service.id from PrestataireService ps where ps.prestataire.id = :prestataireId")
+    List<Long> findServiceIdsByPrestataireId(Long prestataireId);
+
+    @Query("select ps.prestataire.id from PrestataireService ps where ps.service.id = :serviceId")
+    List<Long> findPrestataireIdsByServiceId(Long serviceId);
+
+    /** Liens d'un lot de prestataires, service chargé, dans l'ordre de création. */
+    @Query("select ps from PrestataireService ps join fetch ps.service where ps.prestataire.id in :prestataireIds order by ps.id")
+    List<PrestataireService> findWithServiceByPrestataireIdIn(Collection<Long> prestataireIds);
+
+    /** Couples [prestataireId, serviceId]. */
+    @Query("select ps.prestataire.id, ps.service.id from PrestataireService ps where ps.prestataire.id in :prestataireIds")
+    List<Object[]> findLinksByPrestataireIdIn(Collection<Long> prestataireIds);
+
+    /** Couples [prestataireId, nom du service]. */
+    @Query("select ps.prestataire.id, ps.service.nom from PrestataireService ps")
+    List<Object[]> findServiceNames();
+
+    @Query("select ps.prestataire.id, ps.service.nom from PrestataireService ps where ps.prestataire.id in :prestataireIds")
+    List<Object[]> findServiceNamesByPrestataireIdIn(Collection<Long> prestataireIds);
+}
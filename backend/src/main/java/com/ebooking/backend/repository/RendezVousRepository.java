@@ -2,13 +2,20 @@ package com.ebooking.backend.repository;
 
 import com.ebooking.backend.model.RendezVous;
 import com.ebooking.backend.model.enums.StatutRdv;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
     boolean existsByPrestataireIdAndDateAndHeure(Long prestataireId, LocalDate date, LocalTime heure);
@@ -24,8 +31,51 @@ public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
      */
     List<RendezVous> findByPrestataireIdAndDateAndStatutIn(Long prestataireId, LocalDate date, List<StatutRdv> statuts);
 
+    List<RendezVous> findByPrestataireIdAndDateBetweenAndStatutIn(Long prestataireId, LocalDate from, LocalDate to, List<StatutRdv> statuts);
+
+    List<RendezVous> findBySerieIdAndDateGreaterThanEqualAndStatutIn(Long serieId, LocalDate from, List<StatutRdv> statuts);
+
+    List<RendezVous> findByPrestataireIdInAndDateInAndStatutIn(Collection<Long> prestataireIds, Collection<LocalDate> dates, List<StatutRdv> statuts);
+
+    List<RendezVous> findByPrestataireIdInAndDateBetweenAndStatutIn(Collection<Long> prestataireIds, LocalDate from, LocalDate to, List<StatutRdv> statuts);
+
     long countByDateBetween(LocalDate from, LocalDate to);
 
+    List<RendezVous> findByStatutAndDateBetween(StatutRdv statut, LocalDate from, LocalDate to);
+
+    /**
+     * Réserve l'envoi du rappel de ce créneau : 0 si le rendez-vous n'est plus confirmé ou si le
+     * rappel est déjà parti (ici ou depuis une autre instance).
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE RendezVous r SET r.rappelEnvoyePour = :creneau
+            WHERE r.id = :id AND r.statut = com.ebooking.backend.model.enums.StatutRdv.CONFIRME
+              AND (r.rappelEnvoyePour IS NULL OR r.rappelEnvoyePour <> :creneau)
+            """)
+    int claimReminder(@Param("id") Long id, @Param("creneau") LocalDateTime creneau);
+
+    /** Pour les changements de statut : sérialisés avec {@link #lockStalePending}. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RendezVous r WHERE r.id = :id")
+    Optional<RendezVous> findLockedById(@Param("id") Long id);
+
+    /**
+     * Demandes en attente depuis avant {@code cutoff} ({@code pending_since}), les plus anciennes
+     * d'abord, verrouillées : les lignes qu'une autre transaction tient déjà sont sautées plutôt
+     * qu'attendues. Les occurrences de série ({@code pending_since} nul) ne sont pas lues. En SQL
+     * natif, le dialecte H2 de Hibernate ignorant SKIP LOCKED (PostgreSQL et H2 2.x le lisent).
+     */
+    @Query(value = """
+            SELECT * FROM rendez_vous
+            WHERE statut = 'EN_ATTENTE' AND pending_since < :cutoff
+            ORDER BY pending_since, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RendezVous> lockStalePending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
     long countByDate(LocalDate day);
 
     @Query(""" 
@@ -0,0 +1,43 @@
+package com.ebooking.backend.repository;
+
+import com.ebooking.backend.model.RendezVousSeries;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RendezVousSeriesRepository extends JpaRepository<RendezVousSeries, Long> {
+
+    /** Séries actives ayant encore des occurrences non matérialisées dans {@code [from, to]}. */
+    @Query("""
+           select s from RendezVousSeries s
+           where s.prestataire.id in :prestataireIds
+             and s.statut = com.ebooking.backend.model.enums.StatutSerie.ACTIVE
+             and s.dateDebut <= :to and s.dateFin >= :from
+             and s.materialiseeJusquAu < :to
+             and s.materialiseeJusquAu < s.dateFin
+           """)
+    List<RendezVousSeries> findPendingBetween(Collection<Long> prestataireIds, LocalDate from, LocalDate to);
+
+    /** Séries actives d'id supérieur à {@code afterId} dont la matérialisation n'a pas atteint {@code horizon}. */
+    @Query("""
+           select s.id from RendezVousSeries s
+           where s.statut = com.ebooking.backend.model.enums.StatutSerie.ACTIVE
+             and s.materialiseeJusquAu < s.dateFin
+             and s.materialiseeJusquAu < :horizon
+             and s.id > :afterId
+           order by s.id
+           """)
+    List<Long> findToMaterialize(LocalDate horizon, Long afterId, Limit limit);
+
+    /** Verrou de ligne : matérialisation et annulation d'une même série sont sérialisées. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from RendezVousSeries s where s.id = :id")
+    Optional<RendezVousSeries> findLockedById(Long id);
+}
@@ -2,6 +2,7 @@ package com.ebooking.backend.repository;
 
 import com.ebooking.backend.model.ServiceCatalog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
@@ -12,4 +13,7 @@ public interface ServiceRepository extends JpaRepository<ServiceCatalog, Long> {
     Optional<ServiceCatalog> findByNomIgnoreCase(String nom);
 
     boolean existsByNomIgnoreCaseAndIdNot(String nom, Long id);
+
+    @Query("select s.dureeMin from ServiceCatalog s where s.id = :id")
+    Optional<Integer> findDureeMinById(Long id);
 }
@@ -0,0 +1,21 @@
+package com.ebooking.backend.repository;
+
+import com.ebooking.backend.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByRevoquesAvantAfter(Instant after);
+
+    /** Révocations dont tous les jetons visés ont expiré. */
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation t where t.revoquesAvant <= :before")
+    int deleteExpired(Instant before);
+}
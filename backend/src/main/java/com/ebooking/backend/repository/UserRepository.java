@@ -1,42 +1,130 @@
 package com.ebooking.backend.repository;
 
 import com.ebooking.backend.model.User;
-import com.ebooking.backend.model.UserRole;
 import com.ebooking.backend.model.enums.Role;
 import com.ebooking.backend.model.enums.UserStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    Optional<User> findByEmailIgnoreCase(String email);
+    /** {@code lower(email)} : servi par l'index d'expression {@code idx_users_email_lower} (voir PostgresIndexes). */
+    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
 
-    boolean existsByEmailIgnoreCase(String email);
+    /** Utilisateur et rôles en un aller-retour (connexion). */
+    @EntityGraph(attributePaths = "roles")
+    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    Optional<User> findWithRolesByEmailIgnoreCase(@Param("email") String email);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
 
     boolean existsByTelephone(String telephone);
 
+    /** Couples [statut, nombre d'utilisateurs]. */
+    @Query("SELECT u.statut, COUNT(u) FROM User u GROUP BY u.statut")
+    List<Object[]> countGroupedByStatut();
+
+    /** Compare-and-set : sans effet si le mot de passe a changé depuis la lecture de {@code previousHash}. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.motDePasseHash = :hash WHERE u.id = :id AND u.motDePasseHash = :previousHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("previousHash") String previousHash, @Param("hash") String hash);
 
-    @Query("""
-       SELECT DISTINCT u FROM User u
-       LEFT JOIN u.roles ur
-       WHERE (:q IS NULL OR :q = '' OR
-              LOWER(u.prenom) LIKE LOWER(CONCAT('%', :q, '%')) OR
-              LOWER(u.nom)    LIKE LOWER(CONCAT('%', :q, '%')) OR
-              LOWER(u.email)  LIKE LOWER(CONCAT('%', :q, '%')))
+    @Query("SELECT u.id FROM User u WHERE u.statut = :statut")
+    List<Long> findIdsByStatut(@Param("statut") UserStatus statut);
+
+
+    /**
+     * Filtres de la recherche admin. {@code :pattern} est déjà en minuscules, échappé et entouré
+     * de {@code %} (voir AdminUserServiceImpl) ; sur PostgreSQL chaque {@code LIKE} est servi par
+     * un index trigramme ({@code idx_users_*_trgm}). Rôles filtrés par sous-requête : pas de
+     * jointure, donc pas de {@code DISTINCT}.
+     */
+    String ADMIN_SEARCH = """
+       SELECT u FROM User u
+       WHERE (:pattern IS NULL OR
+              LOWER(u.prenom) LIKE :pattern ESCAPE '!' OR
+              LOWER(u.nom)    LIKE :pattern ESCAPE '!' OR
+              LOWER(u.email)  LIKE :pattern ESCAPE '!')
          AND (:statut IS NULL OR u.statut = :statut)
-         AND (:role IS NULL OR ur.role = :role)
+         AND (:role IS NULL OR EXISTS (
+                SELECT 1 FROM UserRole ur WHERE ur.user = u AND ur.role = :role
+             ))
          AND (:excludeRole IS NULL OR NOT EXISTS (
                 SELECT 1 FROM UserRole ur2 WHERE ur2.user = u AND ur2.role = :excludeRole
              ))
-    """)
-    Page<User> searchAdmin(@Param("q") String q,
+    """;
+
+    @Query(ADMIN_SEARCH)
+    Page<User> searchAdmin(@Param("pattern") String pattern,
                            @Param("statut") UserStatus statut,
                            @Param("role") Role role,
                            @Param("excludeRole") Role excludeRole,
                            Pageable pageable);
+
+    /** Même recherche sans requête de comptage. */
+    @Query(ADMIN_SEARCH)
+    Slice<User> searchAdminSlice(@Param("pattern") String pattern,
+                                 @Param("statut") UserStatus statut,
+                                 @Param("role") Role role,
+                                 @Param("excludeRole") Role excludeRole,
+                                 Pageable pageable);
+
+    /** Keyset descendant sur la clé primaire (tri {@code id}, pas d'OFFSET). */
+    @Query(ADMIN_SEARCH + " AND u.id < :beforeId ORDER BY u.id DESC")
+    List<User> searchAdminBefore(@Param("pattern") String pattern,
+                                 @Param("statut") UserStatus statut,
+                                 @Param("role") Role role,
+                                 @Param("excludeRole") Role excludeRole,
+                                 @Param("beforeId") Long beforeId,
+                                 Limit limit);
+
+    @Query(ADMIN_SEARCH + " AND u.id > :afterId ORDER BY u.id ASC")
+    List<User> searchAdminAfter(@Param("pattern") String pattern,
+                                @Param("statut") UserStatus statut,
+                                @Param("role") Role role,
+                                @Param("excludeRole") Role excludeRole,
+                                @Param("afterId") Long afterId,
+                                Limit limit);
+
+    /**
+     * Keyset descendant sur la date de création, départagée par l'id : avec des séquences
+     * allouées par blocs, l'id ne suit pas l'ordre de création d'une instance à l'autre.
+     */
+    @Query(ADMIN_SEARCH + " AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id))"
+            + " ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> searchAdminCreatedBefore(@Param("pattern") String pattern,
+                                        @Param("statut") UserStatus statut,
+                                        @Param("role") Role role,
+                                        @Param("excludeRole") Role excludeRole,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    @Query(ADMIN_SEARCH + " AND (u.createdAt > :createdAt OR (u.createdAt = :createdAt AND u.id > :id))"
+            + " ORDER BY u.createdAt ASC, u.id ASC")
+    List<User> searchAdminCreatedAfter(@Param("pattern") String pattern,
+                                       @Param("statut") UserStatus statut,
+                                       @Param("role") Role role,
+                                       @Param("excludeRole") Role excludeRole,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
 }
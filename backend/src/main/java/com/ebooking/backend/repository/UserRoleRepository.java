@@ -3,12 +3,19 @@ package com.ebooking.backend.repository;
 import com.ebooking.backend.model.UserRole;
 import com.ebooking.backend.model.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
 
     List<UserRole> findByUserId(Long userId);
 
+    /** Couples [userId, rôle] pour tout un lot d'utilisateurs (listes admin). */
+    @Query("SELECT ur.user.id, ur.role FROM UserRole ur WHERE ur.user.id IN :userIds")
+    List<Object[]> findRolesByUserIds(@Param("userIds") Collection<Long> userIds);
+
     boolean existsByUserIdAndRole(Long userId, Role role);
 }
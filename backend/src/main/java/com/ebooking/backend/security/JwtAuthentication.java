@@ -0,0 +1,47 @@
+package com.ebooking.backend.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Authentification issue d'un JWT vérifié. Construite une fois par jeton puis partagée entre
+ * les requêtes via {@link VerifiedTokenCache} : elle ne porte donc aucun détail propre à une requête.
+ */
+public final class JwtAuthentication extends AbstractAuthenticationToken {
+
+    private final Long userId;
+    private final String token;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    JwtAuthentication(Long userId, String token, Collection<? extends GrantedAuthority> authorities,
+                      Instant issuedAt, Instant expiresAt) {
+        super(authorities);
+        this.userId = userId;
+        this.token = token;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        super.setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return userId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -18,6 +18,7 @@ import java.util.List;
 public class JwtTokenService {
 
     private final Algorithm algorithm;
+    private final JWTVerifier verifier;
     private final String issuer;
     private final long expiresInSeconds;
 
@@ -27,6 +28,7 @@ public class JwtTokenService {
             @Value("${jwt.expires-in-seconds}") long expiresInSeconds
     ) {
         this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).withIssuer(issuer).build();
         this.issuer = issuer;
         this.expiresInSeconds = expiresInSeconds;
     }
@@ -49,8 +51,8 @@ public class JwtTokenService {
                 .sign(algorithm);
     }
 
+    /** Le vérifieur est immuable et thread-safe : construit une seule fois. */
     public DecodedJWT verify(String token) {
-        JWTVerifier verifier = JWT.require(algorithm).withIssuer(issuer).build();
         return verifier.verify(token);
     }
 
@@ -0,0 +1,107 @@
+package com.ebooking.backend.security;
+
+import java.util.Arrays;
+
+/**
+ * Table de hachage long → long immuable, à adressage ouvert (sondage linéaire, charge ≤ 1/2).
+ * Les écritures produisent une copie : les lectures se font sans verrou ni boxing sur la
+ * référence publiée. La clé 0 est réservée (case vide).
+ */
+final class LongLongTable {
+
+    @FunctionalInterface
+    interface EntryPredicate {
+        boolean test(long key, long value);
+    }
+
+    private static final LongLongTable EMPTY = new LongLongTable(new long[8], new long[8], 0);
+
+    private final long[] keys;
+    private final long[] values;
+    private final int size;
+
+    private LongLongTable(long[] keys, long[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    static LongLongTable empty() {
+        return EMPTY;
+    }
+
+    /** Toutes les clés associées à la même valeur (chargement initial). */
+    static LongLongTable of(long[] keys, long value) {
+        long[] values = new long[keys.length];
+        Arrays.fill(values, value);
+        return of(keys, values);
+    }
+
+    /** {@code keys[i] → values[i]} ; pour une clé répétée, la dernière valeur l'emporte. */
+    static LongLongTable of(long[] keys, long[] values) {
+        int capacity = capacityFor(keys.length);
+        long[] k = new long[capacity];
+        long[] v = new long[capacity];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (insert(k, v, keys[i], values[i])) size++;
+        }
+        return new LongLongTable(k, v, size);
+    }
+
+    long get(long key, long missing) {
+        if (key == 0) return missing;
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == 0) return missing;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Copie avec {@code key → value}, limitée aux entrées existantes qui satisfont {@code keep}. */
+    LongLongTable with(long key, long value, EntryPredicate keep) {
+        if (key == 0) throw new IllegalArgumentException("Clé 0 réservée");
+        int capacity = capacityFor(size + 1);
+        long[] k = new long[capacity];
+        long[] v = new long[capacity];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && keys[i] != key && keep.test(keys[i], values[i])) {
+                insert(k, v, keys[i], values[i]);
+                n++;
+            }
+        }
+        insert(k, v, key, value);
+        return new LongLongTable(k, v, n + 1);
+    }
+
+    private static boolean insert(long[] k, long[] v, long key, long value) {
+        int mask = k.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (k[i] == 0) {
+                k[i] = key;
+                v[i] = value;
+                return true;
+            }
+            if (k[i] == key) {
+                v[i] = value;
+                return false;
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = 8;
+        while (capacity < entries * 2) capacity <<= 1;
+        return capacity;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ebooking.backend.security;
+
+import com.ebooking.backend.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hachages BCrypt hors des threads Tomcat, sur un pool borné (un thread par cœur par défaut)
+ * avec une file bornée : au-delà, la demande est refusée immédiatement en 429 au lieu d'occuper
+ * un thread de requête pendant des centaines de millisecondes.
+ */
+@Slf4j
+@Component
+public class PasswordHashing implements DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder encoder;
+    private final int cost;
+    private final ThreadPoolExecutor pool;
+
+    @Autowired
+    public PasswordHashing(PasswordEncoder encoder,
+                           @Value("${auth.bcrypt.cost:10}") int cost,
+                           @Value("${auth.hashing.threads:0}") int threads,
+                           @Value("${auth.hashing.queue-capacity:64}") int queueCapacity) {
+        this.encoder = encoder;
+        this.cost = cost;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Hachage des mots de passe : BCrypt coût {}, {} thread(s), file de {}", cost, size, queueCapacity);
+    }
+
+    /** @throws TooManyRequestsException si le pool et sa file sont pleins */
+    public CompletableFuture<String> encode(CharSequence raw) {
+        return submit(() -> encoder.encode(raw));
+    }
+
+    /** @throws TooManyRequestsException si le pool et sa file sont pleins */
+    public CompletableFuture<Boolean> matches(CharSequence raw, String hash) {
+        return submit(() -> encoder.matches(raw, hash));
+    }
+
+    /**
+     * Re-hachage au coût courant, en tâche de fond et seulement si le pool a de la place :
+     * une connexion ne doit jamais échouer à cause de la mise à niveau.
+     */
+    public CompletableFuture<String> encodeIfIdle(CharSequence raw) {
+        try {
+            return encode(raw);
+        } catch (TooManyRequestsException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /** Vrai si le hash a été produit avec un autre coût que {@code auth.bcrypt.cost} (hausse ou baisse). */
+    public boolean needsRehash(String hash) {
+        if (hash == null) return false;
+        Matcher m = BCRYPT_COST.matcher(hash);
+        return m.find() && Integer.parseInt(m.group(1)) != cost;
+    }
+
+    int queued() {
+        return pool.getQueue().size();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, pool);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Service momentanément saturé, veuillez réessayer");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -40,8 +40,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/services").permitAll()
                         .requestMatchers(HttpMethod.GET, "/prestataires/*").permitAll()            
                         .requestMatchers(HttpMethod.GET, "/disponibilites/*/slots").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/disponibilites/*/slots/range").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/disponibilites/*/slots/stream").permitAll()
                         .requestMatchers(HttpMethod.GET, "/disponibilites/*").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -49,9 +52,10 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /** Coût BCrypt : à calibrer avec {@code PasswordHashBenchmark} (voir {@code auth.bcrypt.cost}). */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
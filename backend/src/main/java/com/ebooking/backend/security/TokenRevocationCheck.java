@@ -0,0 +1,14 @@
+package com.ebooking.backend.security;
+
+import java.time.Instant;
+
+/**
+ * Point d'extension consulté à chaque requête authentifiée, y compris quand le jeton vient du
+ * cache de vérification : un jeton révoqué (utilisateur bloqué…) doit être refusé sans attendre
+ * son expiration. Doit répondre en mémoire, sans requête.
+ */
+@FunctionalInterface
+public interface TokenRevocationCheck {
+
+    boolean isRevoked(long userId, Instant issuedAt);
+}
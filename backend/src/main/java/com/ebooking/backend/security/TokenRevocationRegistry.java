@@ -0,0 +1,121 @@
+package com.ebooking.backend.security;
+
+import com.ebooking.backend.model.TokenRevocation;
+import com.ebooking.backend.model.enums.UserStatus;
+import com.ebooking.backend.repository.TokenRevocationRepository;
+import com.ebooking.backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Révocation des JWT en mémoire : utilisateur → « jetons émis avant cet instant refusés »
+ * (secondes epoch, {@link Long#MAX_VALUE} = tous). Alimentée par le blocage, la réactivation
+ * et la suppression d'un compte (après commit), et rechargée au démarrage depuis les comptes
+ * {@code BLOQUE} et la table {@code token_revocations}, où la réactivation et la suppression
+ * inscrivent leur instant : le filtre JWT répond en O(1) sans requête. Les entrées bornées dans
+ * le temps sont purgées (en mémoire, et en base au démarrage) une fois la durée de vie d'un
+ * jeton écoulée.
+ * <p>
+ * État local à l'instance : avec plusieurs instances, un blocage n'est vu des autres qu'à leur
+ * redémarrage (ou à l'expiration des jetons).
+ */
+@Slf4j
+@Component
+public class TokenRevocationRegistry implements TokenRevocationCheck, SmartInitializingSingleton {
+
+    private static final long ALL = Long.MAX_VALUE;
+
+    private final UserRepository userRepo;
+    private final TokenRevocationRepository revocationRepo;
+    private final long tokenLifetimeSeconds;
+    private final Clock clock;
+    private volatile LongLongTable revokedBefore = LongLongTable.empty();
+
+    @Autowired
+    public TokenRevocationRegistry(UserRepository userRepo, TokenRevocationRepository revocationRepo,
+                                   @Value("${jwt.expires-in-seconds}") long tokenLifetimeSeconds) {
+        this(userRepo, revocationRepo, tokenLifetimeSeconds, Clock.systemUTC());
+    }
+
+    TokenRevocationRegistry(UserRepository userRepo, TokenRevocationRepository revocationRepo,
+                            long tokenLifetimeSeconds, Clock clock) {
+        this.userRepo = userRepo;
+        this.revocationRepo = revocationRepo;
+        this.tokenLifetimeSeconds = tokenLifetimeSeconds;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Instant horizon = clock.instant().minusSeconds(tokenLifetimeSeconds);
+        revocationRepo.deleteExpired(horizon);
+        List<TokenRevocation> bounded = revocationRepo.findByRevoquesAvantAfter(horizon);
+        List<Long> blocked = userRepo.findIdsByStatut(UserStatus.BLOQUE);
+        // un compte bloqué après sa réactivation : « tous » l'emporte, chargé en dernier
+        int n = bounded.size() + blocked.size();
+        long[] ids = new long[n];
+        long[] before = new long[n];
+        for (int i = 0; i < bounded.size(); i++) {
+            ids[i] = bounded.get(i).getUserId();
+            before[i] = bounded.get(i).getRevoquesAvant().getEpochSecond();
+        }
+        for (int i = 0; i < blocked.size(); i++) {
+            ids[bounded.size() + i] = blocked.get(i);
+            before[bounded.size() + i] = ALL;
+        }
+        revokedBefore = LongLongTable.of(ids, before);
+        log.info("{} compte(s) bloqué(s) et {} révocation(s) récente(s) chargés dans la liste de révocation",
+                blocked.size(), bounded.size());
+    }
+
+    @Override
+    public boolean isRevoked(long userId, Instant issuedAt) {
+        return issuedAt.getEpochSecond() < revokedBefore.get(userId, Long.MIN_VALUE);
+    }
+
+    /** Compte bloqué : tout jeton, passé ou futur, est refusé jusqu'à nouvel ordre. */
+    public void revokeAll(long userId) {
+        afterCommit(() -> put(userId, ALL));
+    }
+
+    /**
+     * Jetons émis avant maintenant refusés (réactivation, suppression) ; les nouveaux passent.
+     * L'instant est inscrit dans la transaction de l'appelant pour survivre à un redémarrage.
+     */
+    public void revokeIssuedBeforeNow(long userId) {
+        long now = clock.instant().getEpochSecond();
+        revocationRepo.save(new TokenRevocation(userId, Instant.ofEpochSecond(now)));
+        afterCommit(() -> put(userId, now));
+    }
+
+    int size() {
+        return revokedBefore.size();
+    }
+
+    private synchronized void put(long userId, long value) {
+        long horizon = clock.instant().getEpochSecond() - tokenLifetimeSeconds;
+        revokedBefore = revokedBefore.with(userId, value, (id, before) -> before == ALL || before > horizon);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
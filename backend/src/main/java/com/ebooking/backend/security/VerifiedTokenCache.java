@@ -0,0 +1,135 @@
+package com.ebooking.backend.security;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache borné des jetons déjà vérifiés : clé = SHA-256 du jeton, valeur = {@link JwtAuthentication}
+ * prête à l'emploi, entrée expirée à l'{@code exp} du jeton. Un succès de cache évite HMAC,
+ * décodage des claims et reconstruction des autorités. La révocation
+ * ({@link TokenRevocationCheck}) est consultée à chaque appel, succès de cache compris.
+ * Statistiques exposées sous {@code cache.*{cache="jwtVerified"}}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String METRICS_NAME = "jwtVerified";
+
+    private final JwtTokenService jwtTokenService;
+    private final List<TokenRevocationCheck> revocationChecks;
+    private final Clock clock;
+    private final Cache<String, JwtAuthentication> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtTokenService jwtTokenService,
+                              ObjectProvider<TokenRevocationCheck> revocationChecks,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this(jwtTokenService, revocationChecks.orderedStream().toList(), Clock.systemUTC(), maxSize);
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, METRICS_NAME));
+    }
+
+    public VerifiedTokenCache(JwtTokenService jwtTokenService, List<TokenRevocationCheck> revocationChecks,
+                              Clock clock, long maxSize) {
+        this.jwtTokenService = jwtTokenService;
+        this.revocationChecks = revocationChecks;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtAuthentication auth, long currentTime) {
+                        return Math.max(0, Duration.between(clock.instant(), auth.getExpiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtAuthentication auth, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtAuthentication auth, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /** Authentification du jeton, vide s'il est invalide, expiré ou révoqué. */
+    public Optional<JwtAuthentication> authenticate(String token) {
+        String key = hash(token);
+        JwtAuthentication auth = cache.getIfPresent(key);
+        if (auth == null) {
+            auth = verify(token);
+            if (auth == null) return Optional.empty();
+            cache.put(key, auth);
+        } else if (!clock.instant().isBefore(auth.getExpiresAt())) {
+            // l'horloge du cache n'a pas encore purgé l'entrée
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        return isRevoked(auth) ? Optional.empty() : Optional.of(auth);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    Cache<String, JwtAuthentication> cache() {
+        return cache;
+    }
+
+    private JwtAuthentication verify(String token) {
+        try {
+            DecodedJWT jwt = jwtTokenService.verify(token);
+            String[] roles = jwt.getClaim("roles").asArray(String.class);
+            if (roles == null || jwt.getExpiresAtAsInstant() == null) return null;
+            var authorities = Arrays.stream(roles).map(r -> new SimpleGrantedAuthority("ROLE_" + r)).toList();
+            return new JwtAuthentication(Long.valueOf(jwt.getSubject()), token, authorities,
+                    jwt.getIssuedAtAsInstant(), jwt.getExpiresAtAsInstant());
+        } catch (JWTVerificationException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean isRevoked(JwtAuthentication auth) {
+        if (revocationChecks.isEmpty()) return false;
+        Instant issuedAt = auth.getIssuedAt() == null ? Instant.EPOCH : auth.getIssuedAt();
+        long userId = (Long) auth.getPrincipal();
+        for (TokenRevocationCheck check : revocationChecks) {
+            if (check.isRevoked(userId, issuedAt)) return true;
+        }
+        return false;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
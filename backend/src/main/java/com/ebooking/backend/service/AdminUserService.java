@@ -1,10 +1,16 @@
 package com.ebooking.backend.service;
 
 import com.ebooking.backend.dto.admin.*;
+import com.ebooking.backend.dto.common.CursorPage;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public interface AdminUserService {
     Page<AdminUserItemResponse> list(String query, String status, String role, String excludeRole, int page, int size, String sort);
+    /** Pagination par offset sans total : pas de requête de comptage. */
+    Slice<AdminUserItemResponse> listSlice(String query, String status, String role, String excludeRole, int page, int size, String sort);
+    /** Pagination par curseur ({@code sort} = createdAt|id, ASC ou DESC ; createdAt départagé par l'id). */
+    CursorPage<AdminUserItemResponse> listPage(String query, String status, String role, String excludeRole, String cursor, Integer limit, String sort);
     AdminUserDetailResponse get(Long id);
     void activate(Long id);
     void block(Long id);
@@ -2,8 +2,10 @@ package com.ebooking.backend.service;
 
 import com.ebooking.backend.dto.auth.*;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
-    AuthResponse register(RegisterRequest req);
-    AuthResponse login(LoginRequest req);
+    CompletableFuture<AuthResponse> register(RegisterRequest req);
+    CompletableFuture<AuthResponse> login(LoginRequest req);
     UserResponse me(Long currentUserId);
 }
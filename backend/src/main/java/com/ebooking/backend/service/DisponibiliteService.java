@@ -3,8 +3,11 @@ package com.ebooking.backend.service;
 import com.ebooking.backend.dto.dispo.DisponibiliteRequest;
 import com.ebooking.backend.dto.dispo.DisponibiliteResponse;
 import com.ebooking.backend.dto.dispo.DisponibiliteUpdateRequest;
+import com.ebooking.backend.dto.dispo.SlotSuggestionResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface DisponibiliteService {
     List<DisponibiliteResponse> listByPrestataire(Long prestataireId); 
@@ -12,4 +15,8 @@ public interface DisponibiliteService {
     DisponibiliteResponse update(Long currentUserId, Long dispoId, DisponibiliteUpdateRequest req);;
     void delete(Long currentUserId, Long dispoId);
     List<String> slotsForDate(Long prestataireId, Long serviceId, String dateIso, Integer stepMinutes, Integer dureeMinutes);
+    List<SlotSuggestionResponse> firstAvailable(Long serviceId, String fromIso, String toIso, Integer stepMinutes, Integer dureeMinutes, Integer limit);
+    /** Premier créneau libre de chaque prestataire sur la période de recherche par défaut (absent s'il n'en a pas). */
+    Map<Long, SlotSuggestionResponse> firstSlotPerProvider(Collection<Long> prestataireIds, Long serviceId);
+    Map<String, List<String>> slotsForRange(Long prestataireId, Long serviceId, String fromIso, String toIso, Integer stepMinutes, Integer dureeMinutes);
 }
@@ -1,5 +1,7 @@
 package com.ebooking.backend.service;
 
+import com.ebooking.backend.dto.common.CursorPage;
+import com.ebooking.backend.dto.prestataire.PrestataireNearbyResponse;
 import com.ebooking.backend.dto.prestataire.PrestataireOnboardingRequest;
 import com.ebooking.backend.dto.prestataire.PrestataireResponse;
 
@@ -19,4 +21,16 @@ public interface PrestataireServiceBiz {
     PrestataireResponse getPublic(Long prestataireId);
 
     List<PrestataireResponse> listAll();
+
+    CursorPage<PrestataireResponse> listPage(String cursor, Integer limit);
+
+    /** Recherche plein texte classée par pertinence, paginée par curseur. */
+    CursorPage<PrestataireResponse> search(String query, String cursor, Integer limit);
+
+    /**
+     * Prestataires localisés dans {@code radiusKm} autour du point, par distance croissante,
+     * limités à ceux qui proposent {@code serviceId} s'il est fourni.
+     */
+    List<PrestataireNearbyResponse> nearby(double latitude, double longitude, Long serviceId,
+                                           Double radiusKm, Integer limit, boolean withFirstSlot);
 }
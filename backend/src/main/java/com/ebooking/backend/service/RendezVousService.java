@@ -1,7 +1,11 @@
 package com.ebooking.backend.service;
 
+import com.ebooking.backend.dto.rdv.BatchRendezVousRequest;
+import com.ebooking.backend.dto.rdv.BatchRendezVousResponse;
 import com.ebooking.backend.dto.rdv.RendezVousRequest;
 import com.ebooking.backend.dto.rdv.RendezVousResponse;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesRequest;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesResponse;
 import com.ebooking.backend.dto.rdv.RendezVousUpdateRequest;
 
 import java.util.List;
@@ -9,6 +13,12 @@ import java.util.List;
 public interface RendezVousService {
     RendezVousResponse create(Long currentUserId, RendezVousRequest req);
 
+    BatchRendezVousResponse createBatch(Long currentUserId, BatchRendezVousRequest req);
+
+    RendezVousSeriesResponse createSeries(Long currentUserId, RendezVousSeriesRequest req);
+
+    RendezVousSeriesResponse annulerSeries(Long currentUserId, Long serieId);
+
     List<RendezVousResponse> listByClient(Long currentUserId, Long clientId);
 
     List<RendezVousResponse> listByPrestataire(Long currentUserId, Long prestataireId);
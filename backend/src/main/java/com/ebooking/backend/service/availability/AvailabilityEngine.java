@@ -0,0 +1,497 @@
+package com.ebooking.backend.service.availability;
+
+import com.ebooking.backend.model.Disponibilite;
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.RendezVousSeries;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.repository.DisponibiliteRepository;
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.repository.PrestataireServiceRepository;
+import com.ebooking.backend.repository.RendezVousRepository;
+import com.ebooking.backend.repository.RendezVousSeriesRepository;
+import com.ebooking.backend.repository.ServiceRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Moteur de créneaux en mémoire.
+ * <p>
+ * Pour chaque prestataire consulté, on garde le planning de la semaine ({@link WeekTemplate})
+ * et, par date, l'occupation à la minute des rendez-vous bloquants ({@link DayOccupancy}), y compris
+ * les occurrences de séries pas encore matérialisées.
+ * Une fois chargés, les créneaux libres s'obtiennent par {@code starts.andNot(occupied)}
+ * sans aller en base.
+ * <p>
+ * Les services qui modifient disponibilités ou rendez-vous appellent {@code invalidate*} :
+ * l'entrée est retirée après commit et un compteur de génération empêche une lecture
+ * concurrente, démarrée avant le commit, de republier une donnée périmée.
+ * Le cache est local à l'instance.
+ */
+@Component
+public class AvailabilityEngine {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final List<StatutRdv> BLOCKING_STATUSES = List.of(StatutRdv.EN_ATTENTE, StatutRdv.CONFIRME);
+
+    private static final class ProviderState {
+        long generation;
+        WeekTemplate template;
+        final ConcurrentHashMap<LocalDate, DayOccupancy> days = new ConcurrentHashMap<>();
+    }
+
+    private final DisponibiliteRepository dispoRepo;
+    private final RendezVousRepository rdvRepo;
+    private final RendezVousSeriesRepository seriesRepo;
+    private final PrestataireRepository prestataireRepo;
+    private final PrestataireServiceRepository prestataireServiceRepo;
+    private final ServiceRepository serviceRepo;
+    private final int maxDaysPerProvider;
+
+    private final ConcurrentHashMap<Long, ProviderState> providers = new ConcurrentHashMap<>();
+    /** Durée catalogue par service ; 0 = non renseignée. Écritures sous verrou de la map. */
+    private final ConcurrentHashMap<Long, Integer> serviceDurations = new ConcurrentHashMap<>();
+    private long serviceGeneration;
+
+    public AvailabilityEngine(DisponibiliteRepository dispoRepo,
+                              RendezVousRepository rdvRepo,
+                              RendezVousSeriesRepository seriesRepo,
+                              PrestataireRepository prestataireRepo,
+                              PrestataireServiceRepository prestataireServiceRepo,
+                              ServiceRepository serviceRepo,
+                              @Value("${availability.cache.max-days-per-provider:62}") int maxDaysPerProvider) {
+        this.dispoRepo = dispoRepo;
+        this.rdvRepo = rdvRepo;
+        this.seriesRepo = seriesRepo;
+        this.prestataireRepo = prestataireRepo;
+        this.prestataireServiceRepo = prestataireServiceRepo;
+        this.serviceRepo = serviceRepo;
+        this.maxDaysPerProvider = maxDaysPerProvider;
+    }
+
+    /** Planning hebdomadaire du prestataire, chargé en une requête au premier accès. */
+    public WeekTemplate week(Long prestataireId) {
+        ProviderState s = providers.get(prestataireId);
+        if (s != null) {
+            synchronized (s) {
+                if (s.template != null) return s.template;
+            }
+        }
+        if (!prestataireRepo.existsById(prestataireId)) {
+            throw new EntityNotFoundException("Prestataire introuvable");
+        }
+        s = providers.computeIfAbsent(prestataireId, id -> new ProviderState());
+        long gen = generation(s);
+        WeekTemplate t = WeekTemplate.of(
+                dispoRepo.findByPrestataireId(prestataireId),
+                prestataireServiceRepo.findServiceIdsByPrestataireId(prestataireId));
+        if (canPublish()) {
+            synchronized (s) {
+                if (s.generation == gen) s.template = t;
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Créneaux libres d'une date, au format HH:mm.
+     *
+     * @param fallbackDuration durée appliquée aux rendez-vous bloquants sans durée enregistrée
+     */
+    public List<String> freeSlots(Long prestataireId, Long serviceId, LocalDate date,
+                                  int step, int duration, int fallbackDuration) {
+        BitSet free = week(prestataireId).starts(toJour(date), serviceId, step, duration);
+        if (free.isEmpty()) return List.of();
+        free.andNot(day(prestataireId, date).occupied(fallbackDuration));
+        return toSlots(free);
+    }
+
+    /**
+     * Créneaux libres pour chaque date de {@code [from, to]} : le planning est lu une fois
+     * et les rendez-vous bloquants des dates absentes du cache en une seule requête.
+     */
+    public Map<LocalDate, List<String>> freeSlots(Long prestataireId, Long serviceId, LocalDate from, LocalDate to,
+                                                  int step, int duration, int fallbackDuration) {
+        WeekTemplate week = week(prestataireId);
+        Map<LocalDate, DayOccupancy> occupancy = days(prestataireId, from, to);
+        Map<LocalDate, List<String>> out = new LinkedHashMap<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            BitSet free = week.starts(toJour(d), serviceId, step, duration);
+            if (!free.isEmpty()) free.andNot(occupancy.get(d).occupied(fallbackDuration));
+            out.put(d, toSlots(free));
+        }
+        return out;
+    }
+
+    /**
+     * Les {@code limit} premiers créneaux libres, tous prestataires confondus, à partir de
+     * {@code notBefore} et jusqu'à {@code to} inclus. Plannings et rendez-vous manquants sont
+     * chargés par lots pour l'ensemble des prestataires, puis les journées sont fusionnées
+     * par ordre chronologique dans une file de priorité (une tête de lecture par prestataire).
+     */
+    public List<FreeSlot> earliestFreeSlots(Collection<Long> prestataireIds, Long serviceId,
+                                            LocalDateTime notBefore, LocalDate to,
+                                            int step, int duration, int fallbackDuration, int limit) {
+        if (limit <= 0) return List.of();
+        PriorityQueue<SlotCursor> queue = new PriorityQueue<>(
+                startedCursors(prestataireIds, serviceId, notBefore, to, step, duration, fallbackDuration));
+
+        List<FreeSlot> out = new ArrayList<>(limit);
+        while (out.size() < limit && !queue.isEmpty()) {
+            SlotCursor c = queue.poll();
+            out.add(new FreeSlot(c.prestataireId, c.date, c.minute));
+            if (c.advance()) queue.add(c);
+        }
+        return out;
+    }
+
+    /**
+     * Premier créneau libre de chaque prestataire entre {@code notBefore} et {@code to} ; les
+     * prestataires sans créneau sont absents. Chargement par lots comme {@link #earliestFreeSlots}.
+     */
+    public Map<Long, FreeSlot> firstFreeSlots(Collection<Long> prestataireIds, Long serviceId,
+                                              LocalDateTime notBefore, LocalDate to,
+                                              int step, int duration, int fallbackDuration) {
+        Map<Long, FreeSlot> out = new HashMap<>();
+        for (SlotCursor c : startedCursors(prestataireIds, serviceId, notBefore, to, step, duration, fallbackDuration)) {
+            out.put(c.prestataireId, new FreeSlot(c.prestataireId, c.date, c.minute));
+        }
+        return out;
+    }
+
+    /** Une tête de lecture par prestataire, placée sur son premier créneau libre (ceux qui n'en ont aucun sont omis). */
+    private List<SlotCursor> startedCursors(Collection<Long> prestataireIds, Long serviceId,
+                                            LocalDateTime notBefore, LocalDate to,
+                                            int step, int duration, int fallbackDuration) {
+        LocalDate from = notBefore.toLocalDate();
+        if (prestataireIds.isEmpty() || to.isBefore(from)) return List.of();
+        Map<Long, WeekTemplate> weeks = weeksOf(prestataireIds);
+        Map<Long, Map<LocalDate, DayOccupancy>> days = daysOf(prestataireIds, from, to);
+
+        List<SlotCursor> out = new ArrayList<>(prestataireIds.size());
+        int firstMinute = notBefore.getHour() * 60 + notBefore.getMinute() + (notBefore.getSecond() > 0 ? 1 : 0);
+        for (Long pid : prestataireIds) {
+            SlotCursor c = new SlotCursor(pid, weeks.get(pid), days.get(pid), serviceId, to, step, duration, fallbackDuration);
+            if (c.start(from, firstMinute)) out.add(c);
+        }
+        return out;
+    }
+
+    /** Durée catalogue du service en minutes, ou {@code null} si elle n'est pas renseignée. */
+    public Integer serviceDuration(Long serviceId) {
+        if (serviceId == null) return null;
+        Integer cached = serviceDurations.get(serviceId);
+        if (cached == null) {
+            long gen;
+            synchronized (serviceDurations) {
+                gen = serviceGeneration;
+            }
+            cached = serviceRepo.findDureeMinById(serviceId).orElse(0);
+            if (canPublish()) {
+                synchronized (serviceDurations) {
+                    if (serviceGeneration == gen) serviceDurations.put(serviceId, cached);
+                }
+            }
+        }
+        return cached > 0 ? cached : null;
+    }
+
+    public void invalidateService(Long serviceId) {
+        afterCommit(() -> {
+            synchronized (serviceDurations) {
+                serviceGeneration++;
+                serviceDurations.remove(serviceId);
+            }
+        });
+    }
+
+    public void invalidateProvider(Long prestataireId) {
+        afterCommit(() -> {
+            ProviderState s = providers.get(prestataireId);
+            if (s == null) return;
+            synchronized (s) {
+                s.generation++;
+                s.template = null;
+            }
+        });
+    }
+
+    public void invalidateDay(Long prestataireId, LocalDate date) {
+        if (date == null) return;
+        invalidateDays(prestataireId, List.of(date));
+    }
+
+    /** Comme {@link #invalidateDay}, pour toutes les dates d'une série en une fois. */
+    public void invalidateDays(Long prestataireId, Collection<LocalDate> dates) {
+        if (dates.isEmpty()) return;
+        afterCommit(() -> {
+            ProviderState s = providers.get(prestataireId);
+            if (s == null) return;
+            synchronized (s) {
+                s.generation++;
+                dates.forEach(s.days::remove);
+            }
+        });
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private DayOccupancy day(Long prestataireId, LocalDate date) {
+        ProviderState s = providers.computeIfAbsent(prestataireId, id -> new ProviderState());
+        DayOccupancy d = s.days.get(date);
+        if (d != null) return d;
+        long gen = generation(s);
+        d = DayOccupancy.of(rdvRepo.findByPrestataireIdAndDateAndStatutIn(prestataireId, date, BLOCKING_STATUSES),
+                seriesRepo.findPendingBetween(List.of(prestataireId), date, date), date);
+        if (canPublish()) {
+            synchronized (s) {
+                if (s.generation == gen) publish(s, date, d);
+            }
+        }
+        return d;
+    }
+
+    private Map<LocalDate, DayOccupancy> days(Long prestataireId, LocalDate from, LocalDate to) {
+        ProviderState s = providers.computeIfAbsent(prestataireId, id -> new ProviderState());
+        Map<LocalDate, DayOccupancy> out = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            DayOccupancy cached = s.days.get(d);
+            if (cached != null) {
+                out.put(d, cached);
+            } else {
+                if (firstMissing == null) firstMissing = d;
+                lastMissing = d;
+            }
+        }
+        if (firstMissing == null) return out;
+
+        long gen = generation(s);
+        Map<LocalDate, List<RendezVous>> byDate = rdvRepo
+                .findByPrestataireIdAndDateBetweenAndStatutIn(prestataireId, firstMissing, lastMissing, BLOCKING_STATUSES)
+                .stream().collect(Collectors.groupingBy(RendezVous::getDate));
+        List<RendezVousSeries> series = seriesRepo.findPendingBetween(List.of(prestataireId), firstMissing, lastMissing);
+        Map<LocalDate, DayOccupancy> loaded = new HashMap<>();
+        for (LocalDate d = firstMissing; !d.isAfter(lastMissing); d = d.plusDays(1)) {
+            if (!out.containsKey(d)) {
+                loaded.put(d, DayOccupancy.of(byDate.getOrDefault(d, List.of()), series, d));
+            }
+        }
+        out.putAll(loaded);
+        if (canPublish()) {
+            synchronized (s) {
+                if (s.generation == gen) {
+                    loaded.forEach((d, occ) -> publish(s, d, occ));
+                }
+            }
+        }
+        return out;
+    }
+
+    private Map<Long, WeekTemplate> weeksOf(Collection<Long> prestataireIds) {
+        Map<Long, WeekTemplate> out = new HashMap<>();
+        Map<Long, Long> generations = new HashMap<>();
+        for (Long pid : prestataireIds) {
+            ProviderState s = providers.computeIfAbsent(pid, id -> new ProviderState());
+            synchronized (s) {
+                if (s.template != null) out.put(pid, s.template);
+                else generations.put(pid, s.generation);
+            }
+        }
+        if (generations.isEmpty()) return out;
+
+        Set<Long> missing = generations.keySet();
+        Map<Long, List<Disponibilite>> dispos = dispoRepo.findByPrestataireIdIn(missing).stream()
+                .collect(Collectors.groupingBy(d -> d.getPrestataire().getId()));
+        Map<Long, List<Long>> services = new HashMap<>();
+        for (Object[] link : prestataireServiceRepo.findLinksByPrestataireIdIn(missing)) {
+            services.computeIfAbsent((Long) link[0], k -> new ArrayList<>()).add((Long) link[1]);
+        }
+        boolean publish = canPublish();
+        for (Long pid : missing) {
+            WeekTemplate t = WeekTemplate.of(dispos.getOrDefault(pid, List.of()), services.getOrDefault(pid, List.of()));
+            out.put(pid, t);
+            if (publish) {
+                ProviderState s = providers.get(pid);
+                synchronized (s) {
+                    if (s.generation == generations.get(pid)) s.template = t;
+                }
+            }
+        }
+        return out;
+    }
+
+    private Map<Long, Map<LocalDate, DayOccupancy>> daysOf(Collection<Long> prestataireIds, LocalDate from, LocalDate to) {
+        Map<Long, Map<LocalDate, DayOccupancy>> out = new HashMap<>();
+        Map<Long, Long> generations = new HashMap<>();
+        for (Long pid : prestataireIds) {
+            ProviderState s = providers.computeIfAbsent(pid, id -> new ProviderState());
+            Map<LocalDate, DayOccupancy> cached = new HashMap<>();
+            synchronized (s) {
+                for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                    DayOccupancy occ = s.days.get(d);
+                    if (occ != null) cached.put(d, occ);
+                }
+                if (cached.size() <= ChronoUnit.DAYS.between(from, to)) generations.put(pid, s.generation);
+            }
+            out.put(pid, cached);
+        }
+        if (generations.isEmpty()) return out;
+
+        Map<Long, Map<LocalDate, List<RendezVous>>> byProvider = rdvRepo
+                .findByPrestataireIdInAndDateBetweenAndStatutIn(generations.keySet(), from, to, BLOCKING_STATUSES)
+                .stream()
+                .collect(Collectors.groupingBy(r -> r.getPrestataire().getId(), Collectors.groupingBy(RendezVous::getDate)));
+        Map<Long, List<RendezVousSeries>> seriesByProvider = seriesRepo.findPendingBetween(generations.keySet(), from, to)
+                .stream().collect(Collectors.groupingBy(r -> r.getPrestataire().getId()));
+        boolean publish = canPublish();
+        for (Long pid : generations.keySet()) {
+            Map<LocalDate, List<RendezVous>> byDate = byProvider.getOrDefault(pid, Map.of());
+            List<RendezVousSeries> series = seriesByProvider.getOrDefault(pid, List.of());
+            Map<LocalDate, DayOccupancy> loaded = new HashMap<>();
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                if (!out.get(pid).containsKey(d)) loaded.put(d, DayOccupancy.of(byDate.getOrDefault(d, List.of()), series, d));
+            }
+            out.get(pid).putAll(loaded);
+            if (publish) {
+                ProviderState s = providers.get(pid);
+                synchronized (s) {
+                    if (s.generation == generations.get(pid)) loaded.forEach((d, occ) -> publish(s, d, occ));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Tête de lecture sur les créneaux libres d'un prestataire, jour après jour ;
+     * l'ordre naturel (date, minute, prestataire) pilote la file de priorité.
+     */
+    private static final class SlotCursor implements Comparable<SlotCursor> {
+        final Long prestataireId;
+        final WeekTemplate week;
+        final Map<LocalDate, DayOccupancy> days;
+        final Long serviceId;
+        final LocalDate to;
+        final int step, duration, fallback;
+        LocalDate date;
+        BitSet free;
+        int minute;
+
+        SlotCursor(Long prestataireId, WeekTemplate week, Map<LocalDate, DayOccupancy> days, Long serviceId,
+                   LocalDate to, int step, int duration, int fallback) {
+            this.prestataireId = prestataireId;
+            this.week = week;
+            this.days = days;
+            this.serviceId = serviceId;
+            this.to = to;
+            this.step = step;
+            this.duration = duration;
+            this.fallback = fallback;
+        }
+
+        boolean start(LocalDate from, int firstMinute) {
+            date = from;
+            load();
+            minute = free.nextSetBit(firstMinute);
+            return minute >= 0 || nextDay();
+        }
+
+        boolean advance() {
+            minute = free.nextSetBit(minute + 1);
+            return minute >= 0 || nextDay();
+        }
+
+        private boolean nextDay() {
+            while (date.isBefore(to)) {
+                date = date.plusDays(1);
+                load();
+                minute = free.nextSetBit(0);
+                if (minute >= 0) return true;
+            }
+            return false;
+        }
+
+        private void load() {
+            free = week.starts(toJour(date), serviceId, step, duration);
+            if (!free.isEmpty()) free.andNot(days.get(date).occupied(fallback));
+        }
+
+        @Override
+        public int compareTo(SlotCursor o) {
+            int c = date.compareTo(o.date);
+            if (c != 0) return c;
+            c = Integer.compare(minute, o.minute);
+            return c != 0 ? c : prestataireId.compareTo(o.prestataireId);
+        }
+    }
+
+    /** Appelé sous le verrou de {@code s}. */
+    private void publish(ProviderState s, LocalDate date, DayOccupancy occ) {
+        if (s.days.size() >= maxDaysPerProvider) {
+            s.days.keySet().removeIf(k -> k.isBefore(LocalDate.now()));
+            if (s.days.size() >= maxDaysPerProvider) s.days.clear();
+        }
+        s.days.put(date, occ);
+    }
+
+    private static long generation(ProviderState s) {
+        synchronized (s) {
+            return s.generation;
+        }
+    }
+
+    /**
+     * On ne publie que ce qui a été lu hors d'une transaction d'écriture : une transaction
+     * en lecture/écriture voit ses propres modifications non commitées.
+     */
+    private static boolean canPublish() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static List<String> toSlots(BitSet free) {
+        List<String> out = new ArrayList<>(free.cardinality());
+        for (int m = free.nextSetBit(0); m >= 0; m = free.nextSetBit(m + 1)) {
+            out.add(LocalTime.of(m / 60, m % 60).toString());
+        }
+        return out;
+    }
+
+    public static JourSemaine toJour(LocalDate date) {
+        return switch (date.getDayOfWeek()) {
+            case MONDAY -> JourSemaine.LUNDI;
+            case TUESDAY -> JourSemaine.MARDI;
+            case WEDNESDAY -> JourSemaine.MERCREDI;
+            case THURSDAY -> JourSemaine.JEUDI;
+            case FRIDAY -> JourSemaine.VENDREDI;
+            case SATURDAY -> JourSemaine.SAMEDI;
+            case SUNDAY -> JourSemaine.DIMANCHE;
+        };
+    }
+}
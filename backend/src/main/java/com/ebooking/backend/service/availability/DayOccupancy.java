@@ -0,0 +1,59 @@
+package com.ebooking.backend.service.availability;
+
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.RendezVousSeries;
+import com.ebooking.backend.service.series.SeriesCalendar;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Occupation à la minute d'une journée par les rendez-vous bloquants et les occurrences de
+ * séries non matérialisées.
+ * Les rendez-vous sans durée enregistrée sont conservés à part : leur durée de repli
+ * dépend du pas demandé et n'est appliquée qu'au moment de la lecture.
+ */
+final class DayOccupancy {
+
+    private final BitSet fixed;
+    private final int[] undatedStarts;
+
+    private DayOccupancy(BitSet fixed, int[] undatedStarts) {
+        this.fixed = fixed;
+        this.undatedStarts = undatedStarts;
+    }
+
+    /** {@code series} : séries dont les occurrences non matérialisées de {@code date} occupent aussi la journée. */
+    static DayOccupancy of(List<RendezVous> blocking, List<RendezVousSeries> series, LocalDate date) {
+        BitSet fixed = new BitSet(AvailabilityEngine.MINUTES_PER_DAY);
+        int[] undated = new int[blocking.size()];
+        int n = 0;
+        for (RendezVous r : blocking) {
+            int start = WeekTemplate.minutes(r.getHeure());
+            Integer duree = r.getDureeMinutes();
+            if (duree != null && duree > 0) {
+                fixed.set(start, Math.min(AvailabilityEngine.MINUTES_PER_DAY, start + duree));
+            } else {
+                undated[n++] = start;
+            }
+        }
+        for (RendezVousSeries s : series) {
+            if (!SeriesCalendar.pendingOn(s, date)) continue;
+            int start = WeekTemplate.minutes(s.getHeure());
+            fixed.set(start, Math.min(AvailabilityEngine.MINUTES_PER_DAY, start + s.getDureeMinutes()));
+        }
+        return new DayOccupancy(fixed, Arrays.copyOf(undated, n));
+    }
+
+    /** Ne jamais modifier le résultat : il peut être partagé entre requêtes. */
+    BitSet occupied(int fallbackDuration) {
+        if (undatedStarts.length == 0) return fixed;
+        BitSet bits = (BitSet) fixed.clone();
+        for (int start : undatedStarts) {
+            bits.set(start, Math.min(AvailabilityEngine.MINUTES_PER_DAY, start + fallbackDuration));
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ebooking.backend.service.availability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** Créneau libre d'un prestataire ; {@code minute} compte depuis minuit. */
+public record FreeSlot(Long prestataireId, LocalDate date, int minute) {
+
+    public LocalTime heure() {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+}
@@ -0,0 +1,277 @@
+package com.ebooking.backend.service.availability;
+
+import com.ebooking.backend.exception.TooManyRequestsException;
+import com.ebooking.backend.service.DisponibiliteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flux SSE des créneaux d'une date : un instantané ({@code snapshot}) puis les seuls écarts
+ * ({@code slot-added}, {@code slot-removed}) à chaque {@link SlotsChangedEvent} commité.
+ * <p>
+ * Les abonnés d'un prestataire sont regroupés par vue (date, service, pas, durée) : un
+ * changement recalcule chaque vue touchée une seule fois, hors de tout verrou, puis le diff
+ * est déposé dans la file bornée de chaque abonné. Un abonné dont la file est pleine est
+ * fermé ; à la reconnexion il repart d'un instantané. Les écritures réseau se font sur un
+ * petit pool dédié, jamais sur le thread qui a commité.
+ */
+@Slf4j
+@Component
+public class SlotStreamHub implements DisposableBean {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String SLOT_ADDED = "slot-added";
+    static final String SLOT_REMOVED = "slot-removed";
+
+    private record View(LocalDate date, Long serviceId, int step, Integer dureeMin) {}
+
+    /** Nom d'événement SSE et créneaux ; partagé entre abonnés, construit à l'envoi. */
+    private record Message(String name, List<String> slots) {}
+
+    private static final Message PING = new Message(null, List.of());
+
+    private static final class Subscriber {
+        final Long prestataireId;
+        final View view;
+        final SseEmitter emitter;
+        final BlockingQueue<Message> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(Long prestataireId, View view, SseEmitter emitter, int bufferSize) {
+            this.prestataireId = prestataireId;
+            this.view = view;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    /** Dernière liste diffusée à la vue et ses abonnés. */
+    private static final class Group {
+        List<String> last;
+        final List<Subscriber> subscribers = new ArrayList<>();
+
+        Group(List<String> last) {
+            this.last = last;
+        }
+    }
+
+    /** Vues ouvertes d'un prestataire ; modifiées uniquement dans les {@code compute*} de {@link #topics}. */
+    private static final class Topic {
+        final Map<View, Group> groups = new HashMap<>();
+    }
+
+    private final DisponibiliteService dispoService;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService fanOut;
+    private final ExecutorService senders;
+
+    private final ConcurrentHashMap<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+
+    public SlotStreamHub(DisponibiliteService dispoService,
+                         @Value("${slots.stream.max-subscribers:5000}") int maxSubscribers,
+                         @Value("${slots.stream.buffer-size:16}") int bufferSize,
+                         @Value("${slots.stream.timeout:PT30M}") Duration timeout,
+                         @Value("${slots.stream.sender-threads:2}") int senderThreads) {
+        this.dispoService = dispoService;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = Math.max(2, bufferSize);
+        this.timeoutMs = timeout.toMillis();
+        this.fanOut = Executors.newSingleThreadExecutor(daemon("slot-stream-fanout"));
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), daemon("slot-stream-sender"));
+    }
+
+    /**
+     * Ouvre un flux. Les paramètres sont validés comme pour {@code GET /slots} (404, 422) avant
+     * l'ouverture, pour que l'erreur reste une réponse JSON.
+     *
+     * @throws TooManyRequestsException au-delà de {@code slots.stream.max-subscribers}
+     */
+    public SseEmitter subscribe(Long prestataireId, Long serviceId, String dateIso, Integer step, Integer dureeMin) {
+        View view = new View(LocalDate.parse(dateIso), serviceId, step == null || step <= 0 ? 30 : step, dureeMin);
+        List<String> initial = slots(prestataireId, view);
+        if (all.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Trop de flux de créneaux ouverts, veuillez réessayer plus tard");
+        }
+
+        Subscriber sub = new Subscriber(prestataireId, view, new SseEmitter(timeoutMs), bufferSize);
+        all.add(sub);
+        List<List<String>> snapshot = new ArrayList<>(1);
+        AtomicBoolean created = new AtomicBoolean();
+        topics.compute(prestataireId, (id, topic) -> {
+            if (topic == null) topic = new Topic();
+            Group group = topic.groups.computeIfAbsent(view, v -> {
+                created.set(true);
+                return new Group(initial);
+            });
+            group.subscribers.add(sub);
+            snapshot.add(group.last);
+            return topic;
+        });
+        sub.emitter.onCompletion(() -> leave(sub));
+        sub.emitter.onTimeout(sub.emitter::complete);
+        sub.emitter.onError(e -> leave(sub));
+        offer(sub, new Message(SNAPSHOT, snapshot.get(0)));
+        if (created.get()) {
+            // Un commit survenu entre le calcul de l'instantané et l'ouverture du groupe n'a
+            // trouvé personne à prévenir : on recalcule une fois la vue (le moteur la sert du cache).
+            onSlotsChanged(SlotsChangedEvent.day(prestataireId, view.date()));
+        }
+        return sub.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsChanged(SlotsChangedEvent event) {
+        if (!topics.containsKey(event.prestataireId())) return;
+        try {
+            fanOut.execute(() -> refresh(event));
+        } catch (RejectedExecutionException e) {
+            log.debug("Flux de créneaux arrêtés, changement ignoré pour le prestataire {}", event.prestataireId());
+        }
+    }
+
+    /** Commentaire SSE périodique : garde la connexion ouverte derrière les proxys et détecte les clients partis. */
+    @Scheduled(fixedDelayString = "${slots.stream.heartbeat:PT25S}")
+    public void heartbeat() {
+        for (Subscriber sub : all) offer(sub, PING);
+    }
+
+    int subscriberCount() {
+        return all.size();
+    }
+
+    @Override
+    public void destroy() {
+        fanOut.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber sub : all) sub.emitter.complete();
+    }
+
+    private void refresh(SlotsChangedEvent event) {
+        Long pid = event.prestataireId();
+        List<View> affected = new ArrayList<>();
+        topics.computeIfPresent(pid, (id, topic) -> {
+            for (View v : topic.groups.keySet()) {
+                if (event.affects(v.date())) affected.add(v);
+            }
+            return topic;
+        });
+        for (View view : affected) {
+            List<String> fresh;
+            try {
+                fresh = slots(pid, view);
+            } catch (RuntimeException e) {
+                // Prestataire supprimé, service retiré... : la reconnexion obtiendra l'erreur.
+                log.debug("Flux de créneaux fermés pour le prestataire {} : {}", pid, e.getMessage());
+                for (Subscriber sub : subscribers(pid, view)) sub.emitter.complete();
+                continue;
+            }
+            List<Subscriber> overflowed = new ArrayList<>();
+            topics.computeIfPresent(pid, (id, topic) -> {
+                Group group = topic.groups.get(view);
+                if (group != null) publish(group, fresh, overflowed);
+                return topic;
+            });
+            for (Subscriber sub : overflowed) sub.emitter.complete();
+        }
+    }
+
+    private void publish(Group group, List<String> fresh, List<Subscriber> overflowed) {
+        Set<String> before = new HashSet<>(group.last);
+        Set<String> after = new HashSet<>(fresh);
+        List<String> added = fresh.stream().filter(s -> !before.contains(s)).toList();
+        List<String> removed = group.last.stream().filter(s -> !after.contains(s)).toList();
+        if (added.isEmpty() && removed.isEmpty()) return;
+        group.last = fresh;
+
+        for (Subscriber sub : group.subscribers) {
+            boolean ok = (removed.isEmpty() || sub.queue.offer(new Message(SLOT_REMOVED, removed)))
+                    && (added.isEmpty() || sub.queue.offer(new Message(SLOT_ADDED, added)));
+            if (ok) schedule(sub);
+            else overflowed.add(sub);
+        }
+    }
+
+    private List<Subscriber> subscribers(Long pid, View view) {
+        List<Subscriber> subs = new ArrayList<>();
+        topics.computeIfPresent(pid, (id, topic) -> {
+            Group group = topic.groups.get(view);
+            if (group != null) subs.addAll(group.subscribers);
+            return topic;
+        });
+        return subs;
+    }
+
+    private void leave(Subscriber sub) {
+        if (!all.remove(sub)) return;
+        topics.computeIfPresent(sub.prestataireId, (id, topic) -> {
+            Group group = topic.groups.get(sub.view);
+            if (group != null && group.subscribers.remove(sub) && group.subscribers.isEmpty()) {
+                topic.groups.remove(sub.view);
+            }
+            return topic.groups.isEmpty() ? null : topic;
+        });
+    }
+
+    private void offer(Subscriber sub, Message message) {
+        if (sub.queue.offer(message)) schedule(sub);
+        else sub.emitter.complete();
+    }
+
+    private void schedule(Subscriber sub) {
+        if (!sub.scheduled.compareAndSet(false, true)) return;
+        try {
+            senders.execute(() -> drain(sub));
+        } catch (RejectedExecutionException e) {
+            sub.scheduled.set(false);
+        }
+    }
+
+    /** Un seul drain à la fois par abonné ; la seconde vérification évite de perdre un message déposé entre-temps. */
+    private void drain(Subscriber sub) {
+        do {
+            Message m;
+            while ((m = sub.queue.poll()) != null) {
+                try {
+                    sub.emitter.send(m.name() == null
+                            ? SseEmitter.event().comment("ping")
+                            : SseEmitter.event().name(m.name()).data(m.slots()));
+                } catch (IOException | IllegalStateException e) {
+                    // Client parti ou flux déjà terminé : on n'appelle pas complete(), le conteneur s'en charge.
+                    leave(sub);
+                    sub.queue.clear();
+                    return;
+                }
+            }
+            sub.scheduled.set(false);
+        } while (!sub.queue.isEmpty() && sub.scheduled.compareAndSet(false, true));
+    }
+
+    private List<String> slots(Long pid, View view) {
+        return dispoService.slotsForDate(pid, view.serviceId(), view.date().toString(), view.step(), view.dureeMin());
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
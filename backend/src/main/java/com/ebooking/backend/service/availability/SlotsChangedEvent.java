@@ -0,0 +1,31 @@
+package com.ebooking.backend.service.availability;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publié dans la transaction qui modifie les créneaux libres d'un prestataire ; relayé après
+ * commit aux flux ouverts ({@link SlotStreamHub}). {@code dates} vide : toutes les dates
+ * (planning hebdomadaire modifié).
+ */
+public record SlotsChangedEvent(Long prestataireId, Set<LocalDate> dates) {
+
+    public static SlotsChangedEvent days(Long prestataireId, Collection<LocalDate> dates) {
+        return new SlotsChangedEvent(prestataireId, dates.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet()));
+    }
+
+    public static SlotsChangedEvent day(Long prestataireId, LocalDate date) {
+        return date == null ? allDays(prestataireId) : new SlotsChangedEvent(prestataireId, Set.of(date));
+    }
+
+    public static SlotsChangedEvent allDays(Long prestataireId) {
+        return new SlotsChangedEvent(prestataireId, Set.of());
+    }
+
+    public boolean affects(LocalDate date) {
+        return dates.isEmpty() || dates.contains(date);
+    }
+}
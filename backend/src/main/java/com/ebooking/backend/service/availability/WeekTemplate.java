@@ -0,0 +1,93 @@
+package com.ebooking.backend.service.availability;
+
+import com.ebooking.backend.model.Disponibilite;
+import com.ebooking.backend.model.enums.JourSemaine;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Planning hebdomadaire immuable d'un prestataire : plages générales et plages
+ * spécifiques à un service, exprimées en minutes depuis minuit.
+ */
+public final class WeekTemplate {
+
+    private record DayTemplate(int[] generals, Map<Long, int[]> specifics) {}
+
+    private static final int[] NONE = new int[0];
+
+    private final EnumMap<JourSemaine, DayTemplate> days;
+    private final Set<Long> serviceIds;
+
+    private WeekTemplate(EnumMap<JourSemaine, DayTemplate> days, Set<Long> serviceIds) {
+        this.days = days;
+        this.serviceIds = serviceIds;
+    }
+
+    static WeekTemplate of(List<Disponibilite> dispos, Collection<Long> serviceIds) {
+        Map<JourSemaine, List<int[]>> generals = new EnumMap<>(JourSemaine.class);
+        Map<JourSemaine, Map<Long, List<int[]>>> specifics = new EnumMap<>(JourSemaine.class);
+        for (Disponibilite d : dispos) {
+            int[] range = {minutes(d.getHeureDebut()), minutes(d.getHeureFin())};
+            if (d.getService() == null) {
+                generals.computeIfAbsent(d.getJourSemaine(), j -> new ArrayList<>()).add(range);
+            } else {
+                specifics.computeIfAbsent(d.getJourSemaine(), j -> new HashMap<>())
+                        .computeIfAbsent(d.getService().getId(), s -> new ArrayList<>()).add(range);
+            }
+        }
+        EnumMap<JourSemaine, DayTemplate> days = new EnumMap<>(JourSemaine.class);
+        for (JourSemaine jour : JourSemaine.values()) {
+            int[] gen = flatten(generals.get(jour));
+            Map<Long, int[]> spec = new HashMap<>();
+            specifics.getOrDefault(jour, Map.of()).forEach((sid, ranges) -> spec.put(sid, flatten(ranges)));
+            if (gen.length > 0 || !spec.isEmpty()) {
+                days.put(jour, new DayTemplate(gen, Map.copyOf(spec)));
+            }
+        }
+        return new WeekTemplate(days, Set.copyOf(serviceIds));
+    }
+
+    public boolean offers(Long serviceId) {
+        return serviceIds.contains(serviceId);
+    }
+
+    /**
+     * Débuts de créneaux possibles (bit = minute) : pas de {@code step} depuis le début de
+     * chaque plage applicable, la prestation de {@code duration} minutes devant tenir dans la plage.
+     */
+    public BitSet starts(JourSemaine jour, Long serviceId, int step, int duration) {
+        BitSet bits = new BitSet(AvailabilityEngine.MINUTES_PER_DAY);
+        DayTemplate day = days.get(jour);
+        if (day == null) return bits;
+        mark(bits, day.generals(), step, duration);
+        if (serviceId != null) {
+            mark(bits, day.specifics().getOrDefault(serviceId, NONE), step, duration);
+        }
+        return bits;
+    }
+
+    private static void mark(BitSet bits, int[] ranges, int step, int duration) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            int debut = ranges[i];
+            int fin = ranges[i + 1];
+            for (int t = debut; t + step <= fin; t += step) {
+                if (t + duration <= fin) bits.set(t);
+            }
+        }
+    }
+
+    private static int[] flatten(List<int[]> ranges) {
+        if (ranges == null) return NONE;
+        int[] flat = new int[ranges.size() * 2];
+        for (int i = 0; i < ranges.size(); i++) {
+            flat[2 * i] = ranges.get(i)[0];
+            flat[2 * i + 1] = ranges.get(i)[1];
+        }
+        return flat;
+    }
+
+    static int minutes(LocalTime t) {
+        return t.getHour() * 60 + t.getMinute();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ebooking.backend.service.booking;
+
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission des réservations : sérialise les écritures qui visent le même couple
+ * (prestataire, date) pour que la vérification de chevauchement et l'insertion soient
+ * atomiques, sans bloquer les réservations des autres prestataires.
+ * <p>
+ * Le verrou est pris sur une bande (stripe) d'un tableau de {@link ReentrantLock} et
+ * n'est rendu qu'à la fin de la transaction englobante : relâché avant le commit, un
+ * concurrent ne verrait pas encore l'insertion. En option, un
+ * {@code pg_advisory_xact_lock} étend la garantie à plusieurs instances.
+ */
+@Component
+public class BookingAdmission {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public BookingAdmission(@Value("${booking.admission.stripes:1024}") int stripes,
+                            @Value("${booking.admission.lock-timeout-ms:5000}") long timeoutMs,
+                            @Value("${booking.admission.pg-advisory-lock:false}") boolean advisoryLock,
+                            ObjectProvider<JdbcTemplate> jdbc) {
+        this(stripes, timeoutMs, advisoryLock ? jdbc.getIfAvailable() : null);
+    }
+
+    public BookingAdmission(int stripes, long timeoutMs, JdbcTemplate advisoryJdbc) {
+        this.stripes = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMs = timeoutMs;
+        this.jdbc = advisoryJdbc;
+    }
+
+    /**
+     * Exécute {@code work} en exclusion mutuelle sur (prestataire, date).
+     * Dans une transaction, le verrou est conservé jusqu'à sa terminaison.
+     */
+    public <T> T admit(Long prestataireId, LocalDate date, Supplier<T> work) {
+        ReentrantLock lock = stripes[index(prestataireId, date)];
+        acquire(lock);
+        boolean deferred = false;
+        try {
+            if (jdbc != null) {
+                jdbc.queryForList("select pg_advisory_xact_lock(?, ?)", prestataireId.intValue(), (int) date.toEpochDay());
+            }
+            T result = work.get();
+            deferred = releaseAtCompletion(lock);
+            return result;
+        } finally {
+            if (!deferred) lock.unlock();
+        }
+    }
+
+    /**
+     * Variante de {@link #admit} pour un lot : exclusion mutuelle sur tous les couples de
+     * {@code keys} à la fois. Bandes et verrous consultatifs sont pris dans un ordre global
+     * (index croissant, puis (prestataire, date) croissants) pour que deux lots qui se
+     * recouvrent ne s'interbloquent pas.
+     */
+    public <T> T admitAll(Collection<Key> keys, Supplier<T> work) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Key k : keys) indexes.add(index(k.prestataireId(), k.date()));
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        boolean deferred = false;
+        try {
+            for (int i : indexes) {
+                acquire(stripes[i]);
+                held.add(stripes[i]);
+            }
+            if (jdbc != null) {
+                for (Key k : new TreeSet<>(keys)) {
+                    jdbc.queryForList("select pg_advisory_xact_lock(?, ?)", k.prestataireId().intValue(), (int) k.date().toEpochDay());
+                }
+            }
+            T result = work.get();
+            deferred = releaseAtCompletion(held);
+            return result;
+        } finally {
+            if (!deferred) held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    /** Couple (prestataire, date) verrouillé par {@link #admitAll}. */
+    public record Key(Long prestataireId, LocalDate date) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::prestataireId).thenComparing(Key::date);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new UnprocessableEntityException("Créneau en cours de réservation, veuillez réessayer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnprocessableEntityException("Réservation interrompue");
+        }
+    }
+
+    private static boolean releaseAtCompletion(ReentrantLock lock) {
+        return releaseAtCompletion(List.of(lock));
+    }
+
+    private static boolean releaseAtCompletion(List<ReentrantLock> locks) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return false;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach(ReentrantLock::unlock);
+            }
+        });
+        return true;
+    }
+
+    int index(Long prestataireId, LocalDate date) {
+        long h = prestataireId * 0x9E3779B97F4A7C15L + date.toEpochDay();
+        h ^= (h >>> 31);
+        return (int) Math.floorMod(h, (long) stripes.length);
+    }
+}
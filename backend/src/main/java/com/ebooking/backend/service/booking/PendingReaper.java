@@ -0,0 +1,146 @@
+package com.ebooking.backend.service.booking;
+
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.repository.RendezVousRepository;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.availability.SlotsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Fait expirer les demandes restées {@code EN_ATTENTE} plus de {@code booking.pending.ttl} :
+ * sans réponse du prestataire, elles bloqueraient leur créneau indéfiniment. Le délai court
+ * depuis la dernière entrée en attente ({@code pendingSince}) : un rendez-vous confirmé puis
+ * déplacé repart pour un délai entier. Les occurrences matérialisées d'une série n'en ont pas :
+ * elles suivent la série (annulation, refus au cas par cas) et ne sont pas expirées ici,
+ * sauf une fois déplacées.
+ * <p>
+ * Lots de {@code booking.pending.batch-size} lignes, une transaction chacun, lus en
+ * {@code FOR UPDATE SKIP LOCKED} : une confirmation ou une annulation en cours (qui verrouille
+ * sa ligne) n'est ni attendue ni écrasée, et plusieurs instances se partagent le travail.
+ * Chaque expiration suit le chemin des autres transitions : agrégat journalier et outbox
+ * ({@link RendezVousChangedEvent}), cache des créneaux et flux SSE ({@link SlotsChangedEvent}).
+ * <p>
+ * Métriques : {@code booking.pending.expired}, {@code booking.pending.reclaimed.minutes}
+ * (minutes de créneaux à venir rendues à la réservation).
+ */
+@Slf4j
+@Component
+public class PendingReaper {
+
+    /** Bilan d'un passage ; {@code minutes} ne compte que les créneaux d'aujourd'hui ou après. */
+    public record Reclaimed(int rendezVous, long minutes) {
+        static final Reclaimed NONE = new Reclaimed(0, 0);
+
+        Reclaimed plus(Reclaimed other) {
+            return new Reclaimed(rendezVous + other.rendezVous, minutes + other.minutes);
+        }
+    }
+
+    private final RendezVousRepository rdvRepo;
+    private final AvailabilityEngine availability;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int batchSize;
+    private final ZoneId zone;
+
+    private final Counter expired;
+    private final Counter reclaimedMinutes;
+
+    public PendingReaper(RendezVousRepository rdvRepo,
+                         AvailabilityEngine availability,
+                         ApplicationEventPublisher events,
+                         PlatformTransactionManager txManager,
+                         ObjectProvider<MeterRegistry> meterRegistry,
+                         @Value("${booking.pending.reaper.enabled:true}") boolean enabled,
+                         @Value("${booking.pending.ttl:PT48H}") Duration ttl,
+                         @Value("${booking.pending.batch-size:200}") int batchSize,
+                         @Value("${spring.jackson.time-zone:Europe/Paris}") String zone) {
+        this.rdvRepo = rdvRepo;
+        this.availability = availability;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.zone = ZoneId.of(zone);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.expired = Counter.builder("booking.pending.expired")
+                .description("Demandes en attente expirées").register(registry);
+        this.reclaimedMinutes = Counter.builder("booking.pending.reclaimed.minutes")
+                .description("Minutes de créneaux à venir libérées par expiration").baseUnit("minutes").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.pending.reap-interval:PT5M}", initialDelayString = "${booking.pending.reap-interval:PT5M}")
+    public void reapScheduled() {
+        if (!enabled) return;
+        try {
+            reap();
+        } catch (RuntimeException e) {
+            log.warn("Expiration des demandes en attente interrompue", e);
+        }
+    }
+
+    /**
+     * Heure locale à poser dans {@code pendingSince} : même fuseau ({@code spring.jackson.time-zone})
+     * que le seuil d'expiration, quel que soit celui de la JVM.
+     */
+    public LocalDateTime pendingSinceNow() {
+        return LocalDateTime.now(zone);
+    }
+
+    /** Expire tout ce qui a dépassé le délai à l'instant de l'appel. */
+    public Reclaimed reap() {
+        // seuil et « aujourd'hui » tirés du même instant, dans le fuseau de pendingSince
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        LocalDateTime cutoff = now.toLocalDateTime().minus(ttl);
+        LocalDate today = now.toLocalDate();
+        Reclaimed total = Reclaimed.NONE;
+        while (true) {
+            Reclaimed batch = tx.execute(status -> expireBatch(cutoff, today));
+            expired.increment(batch.rendezVous());
+            reclaimedMinutes.increment(batch.minutes());
+            total = total.plus(batch);
+            if (batch.rendezVous() < batchSize) break;
+        }
+        if (total.rendezVous() > 0) {
+            log.info("Demandes en attente expirées : {} (plus de {}), {} min de créneaux libérées",
+                    total.rendezVous(), ttl, total.minutes());
+        }
+        return total;
+    }
+
+    private Reclaimed expireBatch(LocalDateTime cutoff, LocalDate today) {
+        List<RendezVous> stale = rdvRepo.lockStalePending(cutoff, batchSize);
+        Map<Long, Set<LocalDate>> freed = new HashMap<>();
+        long minutes = 0;
+        for (RendezVous rdv : stale) {
+            var before = RendezVousChangedEvent.Snapshot.of(rdv);
+            rdv.setStatut(StatutRdv.EXPIRE);
+            events.publishEvent(RendezVousChangedEvent.changed(before, rdv));
+            freed.computeIfAbsent(before.prestataireId(), k -> new HashSet<>()).add(before.date());
+            if (!before.date().isBefore(today)) minutes += before.minutes();
+        }
+        freed.forEach((prestataireId, dates) -> {
+            availability.invalidateDays(prestataireId, dates);
+            events.publishEvent(SlotsChangedEvent.days(prestataireId, dates));
+        });
+        return new Reclaimed(stale.size(), minutes);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ebooking.backend.service.booking;
+
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.repository.RendezVousRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Insertion des rendez-vous d'un lot. Les identifiants viennent d'une séquence allouée par
+ * blocs : Hibernate regroupe les INSERT en batch JDBC ({@code hibernate.jdbc.batch_size}),
+ * envoyés ici par un flush explicite pour qu'une violation de contrainte remonte à l'appelant.
+ */
+@Component
+@RequiredArgsConstructor
+public class RendezVousBatchWriter {
+
+    private final RendezVousRepository rdvRepo;
+
+    public void insert(List<RendezVous> rdvs) {
+        if (rdvs.isEmpty()) return;
+        rdvRepo.saveAll(rdvs);
+        rdvRepo.flush();
+    }
+}
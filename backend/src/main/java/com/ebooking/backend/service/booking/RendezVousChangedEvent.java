@@ -0,0 +1,32 @@
+package com.ebooking.backend.service.booking;
+
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.enums.StatutRdv;
+
+import java.time.LocalDate;
+
+/**
+ * Publié dans la transaction qui crée ou modifie un rendez-vous. {@code before} est nul à la
+ * création ; {@code after} porte l'état écrit.
+ */
+public record RendezVousChangedEvent(Long rdvId, Snapshot before, Snapshot after) {
+
+    public record Snapshot(LocalDate date, Long prestataireId, Long serviceId, StatutRdv statut, int minutes) {
+
+        /** Durée effective : celle du RDV, sinon celle du service, sinon 60 min. */
+        public static Snapshot of(RendezVous r) {
+            Integer minutes = r.getDureeMinutes();
+            if (minutes == null) minutes = r.getService().getDureeMin();
+            return new Snapshot(r.getDate(), r.getPrestataire().getId(), r.getService().getId(), r.getStatut(),
+                    minutes == null ? 60 : minutes);
+        }
+    }
+
+    public static RendezVousChangedEvent created(RendezVous r) {
+        return new RendezVousChangedEvent(r.getId(), null, Snapshot.of(r));
+    }
+
+    public static RendezVousChangedEvent changed(Snapshot before, RendezVous r) {
+        return new RendezVousChangedEvent(r.getId(), before, Snapshot.of(r));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ebooking.backend.service.catalog;
+
+import com.ebooking.backend.config.CacheConfig;
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.repository.PrestataireServiceRepository;
+import com.ebooking.backend.service.geo.ProviderGeoIndex;
+import com.ebooking.backend.service.search.ProviderSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Évictions ciblées des caches du catalogue. Chaque entrée est retirée tout de suite puis
+ * de nouveau après commit, pour qu'une lecture concurrente lancée avant le commit ne
+ * laisse pas une valeur périmée (le TTL borne le cas restant). Les fiches touchées sont aussi
+ * signalées aux index de recherche et de proximité.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheEvictor {
+
+    private final CacheManager cacheManager;
+    private final PrestataireRepository prestataireRepo;
+    private final PrestataireServiceRepository prestataireServiceRepo;
+    private final ProviderSearchIndex searchIndex;
+    private final ProviderGeoIndex geoIndex;
+
+    public void evictServices() {
+        evict(() -> clear(CacheConfig.SERVICES));
+    }
+
+    /** Service modifié ou supprimé : liste des services et fiches des prestataires qui le proposent. */
+    public void evictService(Long serviceId) {
+        List<Long> prestataireIds = prestataireServiceRepo.findPrestataireIdsByServiceId(serviceId);
+        searchIndex.invalidate(prestataireIds);
+        evict(() -> {
+            clear(CacheConfig.SERVICES);
+            clear(CacheConfig.PRESTATAIRES);
+            remove(CacheConfig.PRESTATAIRES_PAR_SERVICE, serviceId);
+            prestataireIds.forEach(pid -> remove(CacheConfig.PRESTATAIRE, pid));
+        });
+    }
+
+    /** Fiche d'un prestataire modifiée ; {@code serviceIds} = services dont la liste le contient (avant ou après). */
+    public void evictProvider(Long prestataireId, Collection<Long> serviceIds) {
+        List<Long> services = serviceIds == null ? List.of() : new ArrayList<>(serviceIds);
+        searchIndex.invalidate(List.of(prestataireId));
+        geoIndex.invalidate(List.of(prestataireId));
+        evict(() -> {
+            clear(CacheConfig.PRESTATAIRES);
+            remove(CacheConfig.PRESTATAIRE, prestataireId);
+            services.forEach(sid -> remove(CacheConfig.PRESTATAIRES_PAR_SERVICE, sid));
+        });
+    }
+
+    /** Nom/prénom d'un utilisateur modifié : sans effet s'il n'est pas prestataire. */
+    public void evictProviderOfUser(Long userId) {
+        prestataireRepo.findByUserId(userId).ifPresent(p ->
+                evictProvider(p.getId(), prestataireServiceRepo.findServiceIdsByPrestataireId(p.getId())));
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) cache.clear();
+    }
+
+    private void remove(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) cache.evict(key);
+    }
+
+    private static void evict(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.ebooking.backend.service.geo;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Index spatial en grille régulière (cellules de {@code cellDegrees} en latitude et longitude).
+ * La recherche parcourt les anneaux de cellules autour du point, du plus proche au plus
+ * éloigné, et s'arrête dès qu'un anneau ne peut plus contenir de point plus proche que le
+ * k-ième déjà trouvé, ou que le rayon est dépassé.
+ */
+public final class GeoGrid {
+
+    /** Point trouvé et sa distance en kilomètres. */
+    public record Hit(long id, double distanceKm) {}
+
+    private static final double KM_PER_DEGREE = 111.195;
+
+    private final double cellDegrees;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, long[]> cells = new HashMap<>();
+    private final Map<Long, GeoPoint> points = new HashMap<>();
+
+    public GeoGrid(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    /** Place (ou déplace) {@code id} ; {@code point == null} le retire. */
+    public void put(long id, GeoPoint point) {
+        lock.writeLock().lock();
+        try {
+            GeoPoint previous = point == null ? points.remove(id) : points.put(id, point);
+            if (previous != null) removeFromCell(cellOf(previous), id);
+            if (point != null) cells.merge(cellOf(point), new long[]{id}, GeoGrid::concat);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        put(id, null);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Les {@code limit} points les plus proches de {@code center} dans {@code radiusKm}, acceptés
+     * par {@code filter}, par distance croissante (puis id).
+     */
+    public List<Hit> nearest(GeoPoint center, double radiusKm, LongPredicate filter, int limit) {
+        if (limit <= 0 || radiusKm <= 0) return List.of();
+        Comparator<Hit> order = Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id);
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, order.reversed());
+        // côté le plus court d'une cellule (la longitude se resserre vers les pôles)
+        double maxLat = Math.min(89.9, Math.abs(center.latitude()) + radiusKm / KM_PER_DEGREE + cellDegrees);
+        double cellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(maxLat));
+        int maxRing = (int) Math.ceil(radiusKm / cellKm) + 1;
+        int row0 = row(center.latitude());
+        int col0 = col(center.longitude());
+
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // tout point de l'anneau est à au moins (ring - 1) cellules du centre
+                double ringMinKm = Math.max(0, ring - 1) * cellKm;
+                if (ringMinKm > radiusKm) break;
+                if (best.size() == limit && ringMinKm > best.peek().distanceKm()) break;
+                for (int r = row0 - ring; r <= row0 + ring; r++) {
+                    boolean edgeRow = r == row0 - ring || r == row0 + ring;
+                    for (int c = col0 - ring; c <= col0 + ring; c += edgeRow ? 1 : 2 * Math.max(ring, 1)) {
+                        long[] ids = cells.get(key(r, c));
+                        if (ids == null) continue;
+                        for (long id : ids) {
+                            if (!filter.test(id)) continue;
+                            double d = points.get(id).distanceKm(center.latitude(), center.longitude());
+                            if (d > radiusKm) continue;
+                            Hit h = new Hit(id, d);
+                            if (best.size() < limit) {
+                                best.add(h);
+                            } else if (order.compare(h, best.peek()) < 0) {
+                                best.poll();
+                                best.add(h);
+                            }
+                        }
+                        if (ring == 0) break;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> out = new ArrayList<>(best);
+        out.sort(order);
+        return out;
+    }
+
+    private void removeFromCell(long cell, long id) {
+        long[] ids = cells.get(cell);
+        if (ids == null) return;
+        long[] kept = Arrays.stream(ids).filter(x -> x != id).toArray();
+        if (kept.length == 0) cells.remove(cell);
+        else cells.put(cell, kept);
+    }
+
+    private long cellOf(GeoPoint p) {
+        return key(row(p.latitude()), col(p.longitude()));
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    private int col(double lon) {
+        return (int) Math.floor(lon / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+}
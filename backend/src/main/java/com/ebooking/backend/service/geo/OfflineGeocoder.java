@@ -0,0 +1,73 @@
+package com.ebooking.backend.service.geo;
+
+import com.ebooking.backend.service.search.ProviderTextIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Géocodage d'adresses sans appel réseau, à la commune près, depuis un fichier embarqué
+ * ({@code geo/communes.csv} : commune;codes postaux;latitude;longitude). Le code postal est
+ * prioritaire ; à défaut, le nom de commune cité le plus loin dans l'adresse (en général la
+ * ville, après la rue) l'emporte.
+ */
+@Slf4j
+@Component
+public class OfflineGeocoder {
+
+    private static final Pattern POSTAL_CODE = Pattern.compile("(?<!\\d)(\\d{5})(?!\\d)");
+
+    private final Map<String, GeoPoint> byPostalCode = new HashMap<>();
+    /** Nom de commune en termes normalisés (voir {@link ProviderTextIndex#tokens}). */
+    private final Map<List<String>, GeoPoint> byName = new HashMap<>();
+    private int longestName;
+
+    public OfflineGeocoder(@Value("${geo.communes:classpath:geo/communes.csv}") Resource communes) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(communes.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] cols = line.split(";");
+                GeoPoint point = new GeoPoint(Double.parseDouble(cols[2]), Double.parseDouble(cols[3]));
+                List<String> name = ProviderTextIndex.tokens(cols[0]);
+                byName.put(name, point);
+                longestName = Math.max(longestName, name.size());
+                for (String cp : cols[1].trim().split("\\s+")) byPostalCode.put(cp, point);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Référentiel des communes illisible : " + communes, e);
+        }
+        log.info("Géocodage hors ligne : {} communes, {} codes postaux", byName.size(), byPostalCode.size());
+    }
+
+    public Optional<GeoPoint> locate(String adresse) {
+        if (adresse == null || adresse.isBlank()) return Optional.empty();
+        GeoPoint found = null;
+        Matcher m = POSTAL_CODE.matcher(adresse);
+        while (m.find()) {
+            GeoPoint p = byPostalCode.get(m.group(1));
+            if (p != null) found = p;
+        }
+        if (found != null) return Optional.of(found);
+
+        List<String> tokens = ProviderTextIndex.tokens(adresse);
+        // fin de correspondance la plus tardive, puis nom le plus long
+        for (int end = tokens.size(); end > 0; end--) {
+            for (int len = Math.min(longestName, end); len > 0; len--) {
+                GeoPoint p = byName.get(tokens.subList(end - len, end));
+                if (p != null) return Optional.of(p);
+            }
+        }
+        return Optional.empty();
+    }
+}
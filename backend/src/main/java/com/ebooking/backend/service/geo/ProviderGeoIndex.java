@@ -0,0 +1,91 @@
+package com.ebooking.backend.service.geo;
+
+import com.ebooking.backend.repository.PrestataireRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Positions des prestataires dans une {@link GeoGrid} chargée au démarrage. Sans coordonnées
+ * enregistrées, la position est géocodée depuis l'adresse. Même cycle de mise à jour que
+ * l'index de recherche : fiches signalées par {@code CatalogCacheEvictor}, relues en lot à la
+ * requête suivante.
+ */
+@Slf4j
+@Component
+public class ProviderGeoIndex implements SmartInitializingSingleton {
+
+    /** Taille des lots de relecture (requêtes IN). */
+    private static final int REFRESH_BATCH = 500;
+
+    private final PrestataireRepository prestataireRepo;
+    private final OfflineGeocoder geocoder;
+    private final GeoGrid grid;
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+    public ProviderGeoIndex(PrestataireRepository prestataireRepo, OfflineGeocoder geocoder,
+                            @Value("${geo.grid.cell-degrees:0.05}") double cellDegrees) {
+        this.prestataireRepo = prestataireRepo;
+        this.geocoder = geocoder;
+        this.grid = new GeoGrid(cellDegrees);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load(prestataireRepo.findGeoRows(), Set.of());
+        log.info("Index géographique prestataires : {} fiches localisées", grid.size());
+    }
+
+    /** Fiches à relire, marquées tout de suite puis de nouveau après commit. */
+    public void invalidate(Collection<Long> prestataireIds) {
+        List<Long> ids = List.copyOf(prestataireIds);
+        stale.addAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.addAll(ids);
+                }
+            });
+        }
+    }
+
+    public List<GeoGrid.Hit> nearest(GeoPoint center, double radiusKm, LongPredicate filter, int limit) {
+        refreshStale();
+        return grid.nearest(center, radiusKm, filter, limit);
+    }
+
+    private void refreshStale() {
+        if (stale.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(stale);
+        stale.removeAll(ids);
+        for (int i = 0; i < ids.size(); i += REFRESH_BATCH) {
+            List<Long> batch = ids.subList(i, Math.min(ids.size(), i + REFRESH_BATCH));
+            load(prestataireRepo.findGeoRowsByIdIn(batch), batch);
+        }
+    }
+
+    /**
+     * @param rows      [id, latitude, longitude, adresse]
+     * @param requested fiches demandées : celles absentes de {@code rows} ont été supprimées
+     */
+    private void load(List<Object[]> rows, Collection<Long> requested) {
+        Set<Long> missing = new HashSet<>(requested);
+        for (Object[] r : rows) {
+            Long id = (Long) r[0];
+            missing.remove(id);
+            GeoPoint point = r[1] != null && r[2] != null
+                    ? new GeoPoint((Double) r[1], (Double) r[2])
+                    : geocoder.locate((String) r[3]).orElse(null);
+            grid.put(id, point);
+        }
+        missing.forEach(grid::remove);
+    }
+}
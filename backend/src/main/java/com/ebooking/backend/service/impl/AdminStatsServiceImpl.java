@@ -1,17 +1,16 @@
 package com.ebooking.backend.service.impl;
 
 import com.ebooking.backend.dto.admin.*;
-import com.ebooking.backend.model.Disponibilite;
 import com.ebooking.backend.model.enums.JourSemaine;
 import com.ebooking.backend.model.enums.UserStatus;
 import com.ebooking.backend.repository.*;
 import com.ebooking.backend.service.AdminStatsService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
+import java.time.temporal.IsoFields;
 import java.util.*;
 
 @Service
@@ -20,20 +19,33 @@ import java.util.*;
 public class AdminStatsServiceImpl implements AdminStatsService {
 
     private final UserRepository userRepo;
-    private final RendezVousRepository rdvRepo;
+    private final DailyStatRepository statsRepo;
     private final DisponibiliteRepository dispoRepo;
 
+    private static final int SLOT_STEP_MINUTES = 30;
+
+    /**
+     * Nombre constant de requêtes quelle que soit la période : utilisateurs groupés par statut,
+     * deux sommes sur {@code daily_stats} et l'histogramme hebdomadaire des plages.
+     */
     @Override
     public StatsSummaryResponse summary(LocalDate from, LocalDate to) {
-        long totalUsers   = userRepo.count();
-        long activeUsers  = userRepo.searchAdmin(null, UserStatus.ACTIF, null, null, Pageable.unpaged()).getTotalElements();
-        long blockedUsers = userRepo.searchAdmin(null, UserStatus.BLOQUE, null, null, Pageable.unpaged()).getTotalElements();
+        Map<UserStatus, Long> byStatus = new EnumMap<>(UserStatus.class);
+        long totalUsers = 0;
+        for (Object[] r : userRepo.countGroupedByStatut()) {
+            long n = ((Number) r[1]).longValue();
+            totalUsers += n;
+            if (r[0] != null) byStatus.merge((UserStatus) r[0], n, Long::sum);
+        }
+        long activeUsers  = byStatus.getOrDefault(UserStatus.ACTIF, 0L);
+        long blockedUsers = byStatus.getOrDefault(UserStatus.BLOQUE, 0L);
 
-        long totalRdv = rdvRepo.countByDateBetween(from, to);
-        long todayRdv = rdvRepo.countByDate(LocalDate.now());
+        long totalRdv = statsRepo.sumRdvBetween(from, to);
+        LocalDate today = LocalDate.now();
+        long todayRdv = statsRepo.sumRdvBetween(today, today);
 
      
-        long potentialSlots = countPotentialSlots(from, to, 30); 
+        long potentialSlots = countPotentialSlots(slotsPerWeekday(SLOT_STEP_MINUTES), from, to);
         double occupancy = potentialSlots == 0 ? 0d : Math.min(100d, (totalRdv * 100.0) / potentialSlots);
 
        
@@ -48,26 +60,26 @@ public class AdminStatsServiceImpl implements AdminStatsService {
     public List<SeriesPointResponse> series(String metric, LocalDate from, LocalDate to, String period) {
         if ("rdv_count".equals(metric)) {
             if ("weekly".equalsIgnoreCase(period)) {
-                var rows = rdvRepo.countGroupedByWeek(from, to);
+                // semaines ISO (format 'IYYY-IW'), repliées depuis les lignes journalières
+                Map<String, Long> perWeek = new LinkedHashMap<>();
+                rdvPerDay(from, to).forEach((d, n) -> perWeek.merge(String.format("%d-%02d",
+                        d.get(IsoFields.WEEK_BASED_YEAR), d.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)), n, Long::sum));
                 List<SeriesPointResponse> out = new ArrayList<>();
-                for (Object[] r : rows) {
-                    out.add(new SeriesPointResponse((String) r[0], ((Number) r[1]).longValue()));
-                }
+                perWeek.forEach((week, n) -> out.add(new SeriesPointResponse(week, n)));
                 return out;
             } else {
-                var rows = rdvRepo.countGroupedByDate(from, to);
                 List<SeriesPointResponse> out = new ArrayList<>();
-                for (Object[] r : rows) {
-                    out.add(new SeriesPointResponse(r[0].toString(), ((Number) r[1]).longValue()));
-                }
+                rdvPerDay(from, to).forEach((d, n) -> out.add(new SeriesPointResponse(d.toString(), n)));
                 return out;
             }
         } else if ("occupancy_rate".equals(metric)) {
 
+            Map<DayOfWeek, Long> slotsPerDay = slotsPerWeekday(SLOT_STEP_MINUTES);
+            Map<LocalDate, Long> rdvPerDay = rdvPerDay(from, to);
             List<SeriesPointResponse> out = new ArrayList<>();
             for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
-                long rdvDay = rdvRepo.countByDate(d);
-                long slotsDay = countPotentialSlots(d, d, 30);
+                long rdvDay = rdvPerDay.getOrDefault(d, 0L);
+                long slotsDay = slotsPerDay.getOrDefault(d.getDayOfWeek(), 0L);
                 long value = (long) Math.round(slotsDay == 0 ? 0 : (rdvDay * 100.0 / slotsDay));
                 out.add(new SeriesPointResponse(d.toString(), value));
             }
@@ -77,29 +89,51 @@ public class AdminStatsServiceImpl implements AdminStatsService {
     }
 
 
+    /** RDV par jour (tous statuts) lus dans {@code daily_stats} : O(jours) lignes, jours vides omis. */
+    private Map<LocalDate, Long> rdvPerDay(LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> out = new LinkedHashMap<>();
+        for (Object[] r : statsRepo.sumRdvGroupedByJour(from, to)) {
+            out.put((LocalDate) r[0], ((Number) r[1]).longValue());
+        }
+        return out;
+    }
 
-    private long countPotentialSlots(LocalDate from, LocalDate to, int stepMinutes) {
-        long total = 0;
-        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
-            var jour = toJour(d.getDayOfWeek());
-            List<Disponibilite> ds = dispoRepo.findByJourSemaine(jour);
-            for (Disponibilite dispo : ds) {
-                long minutes = Duration.between(dispo.getHeureDebut(), dispo.getHeureFin()).toMinutes();
-                if (minutes > 0) total += (minutes / stepMinutes);
+    /** Créneaux potentiels par jour de semaine : somme, plage par plage, de ⌊durée / pas⌋. */
+    private Map<DayOfWeek, Long> slotsPerWeekday(int stepMinutes) {
+        Map<DayOfWeek, Long> out = new EnumMap<>(DayOfWeek.class);
+        for (Object[] r : dispoRepo.countGroupedByJourAndPlage()) {
+            long minutes = Duration.between((LocalTime) r[1], (LocalTime) r[2]).toMinutes();
+            if (minutes > 0) {
+                out.merge(toDayOfWeek((JourSemaine) r[0]), (minutes / stepMinutes) * ((Number) r[3]).longValue(), Long::sum);
             }
         }
+        return out;
+    }
+
+    /** Σ sur les jours de semaine de (créneaux du jour × occurrences de ce jour dans [from, to]). */
+    static long countPotentialSlots(Map<DayOfWeek, Long> slotsPerWeekday, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return 0;
+        long days = Duration.between(from.atStartOfDay(), to.plusDays(1).atStartOfDay()).toDays();
+        long fullWeeks = days / 7;
+        int remainder = (int) (days % 7);
+        long total = 0;
+        for (var e : slotsPerWeekday.entrySet()) {
+            int offset = Math.floorMod(e.getKey().getValue() - from.getDayOfWeek().getValue(), 7);
+            long occurrences = fullWeeks + (offset < remainder ? 1 : 0);
+            total += e.getValue() * occurrences;
+        }
         return total;
     }
 
-    private JourSemaine toJour(DayOfWeek dow) {
-        return switch (dow) {
-            case MONDAY -> JourSemaine.LUNDI;
-            case TUESDAY -> JourSemaine.MARDI;
-            case WEDNESDAY -> JourSemaine.MERCREDI;
-            case THURSDAY -> JourSemaine.JEUDI;
-            case FRIDAY -> JourSemaine.VENDREDI;
-            case SATURDAY -> JourSemaine.SAMEDI;
-            case SUNDAY -> JourSemaine.DIMANCHE;
+    private static DayOfWeek toDayOfWeek(JourSemaine jour) {
+        return switch (jour) {
+            case LUNDI -> DayOfWeek.MONDAY;
+            case MARDI -> DayOfWeek.TUESDAY;
+            case MERCREDI -> DayOfWeek.WEDNESDAY;
+            case JEUDI -> DayOfWeek.THURSDAY;
+            case VENDREDI -> DayOfWeek.FRIDAY;
+            case SAMEDI -> DayOfWeek.SATURDAY;
+            case DIMANCHE -> DayOfWeek.SUNDAY;
         };
     }
 
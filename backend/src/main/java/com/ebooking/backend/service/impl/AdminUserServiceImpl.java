@@ -1,16 +1,23 @@
 package com.ebooking.backend.service.impl;
 
 import com.ebooking.backend.dto.admin.*;
+import com.ebooking.backend.dto.common.CursorPage;
+import com.ebooking.backend.exception.UnprocessableEntityException;
 import com.ebooking.backend.model.User;
 import com.ebooking.backend.model.enums.Role;
 import com.ebooking.backend.model.enums.UserStatus;
 import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.repository.UserRoleRepository;
+import com.ebooking.backend.security.TokenRevocationRegistry;
 import com.ebooking.backend.service.AdminUserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,17 +25,72 @@ import java.util.stream.Collectors;
 @Transactional
 public class AdminUserServiceImpl implements AdminUserService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    /** Bornes de la première page d'un curseur sur {@code createdAt}. */
+    private static final LocalDateTime KEYSET_MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime KEYSET_MAX = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final UserRepository userRepo;
+    private final UserRoleRepository userRoleRepo;
+    private final TokenRevocationRegistry revocations;
 
     @Override
     @Transactional(readOnly = true)
     public Page<AdminUserItemResponse> list(String query, String statusStr, String roleStr, String excludeRoleStr, int page, int size, String sort) {
         Pageable pageable = PageRequest.of(page, size, parseSort(sort));
+        var p = userRepo.searchAdmin(likePattern(query), parseStatus(statusStr), parseRole(roleStr), parseRole(excludeRoleStr), pageable);
+        return new PageImpl<>(toItems(p.getContent()), pageable, p.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<AdminUserItemResponse> listSlice(String query, String statusStr, String roleStr, String excludeRoleStr, int page, int size, String sort) {
+        Pageable pageable = PageRequest.of(page, size, parseSort(sort));
+        var s = userRepo.searchAdminSlice(likePattern(query), parseStatus(statusStr), parseRole(roleStr), parseRole(excludeRoleStr), pageable);
+        return new SliceImpl<>(toItems(s.getContent()), pageable, s.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AdminUserItemResponse> listPage(String query, String statusStr, String roleStr, String excludeRoleStr,
+                                                      String cursor, Integer limit, String sort) {
+        int size = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        boolean byId = keysetById(sort);
+        boolean ascending = keysetAscending(sort);
+        boolean first = cursor == null || cursor.isBlank();
+        String pattern = likePattern(query);
         UserStatus status = parseStatus(statusStr);
         Role role = parseRole(roleStr);
         Role excludeRole = parseRole(excludeRoleStr);
-        var p = userRepo.searchAdmin(query, status, role, excludeRole, pageable);
-        return p.map(this::toItem);
+
+        List<User> users;
+        if (byId) {
+            Long from = first ? null : CursorPage.decodeId(cursor);
+            users = ascending
+                    ? userRepo.searchAdminAfter(pattern, status, role, excludeRole, from == null ? 0L : from, Limit.of(size + 1))
+                    : userRepo.searchAdminBefore(pattern, status, role, excludeRole, from == null ? Long.MAX_VALUE : from, Limit.of(size + 1));
+        } else {
+            LocalDateTime fromAt = ascending ? KEYSET_MIN : KEYSET_MAX;
+            long fromId = ascending ? 0L : Long.MAX_VALUE;
+            if (!first) {
+                String[] parts = CursorPage.decode(cursor, 2);
+                try {
+                    fromAt = LocalDateTime.parse(parts[0]);
+                    fromId = Long.parseLong(parts[1]);
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    throw new UnprocessableEntityException("Curseur invalide");
+                }
+            }
+            users = ascending
+                    ? userRepo.searchAdminCreatedAfter(pattern, status, role, excludeRole, fromAt, fromId, Limit.of(size + 1))
+                    : userRepo.searchAdminCreatedBefore(pattern, status, role, excludeRole, fromAt, fromId, Limit.of(size + 1));
+        }
+        boolean more = users.size() > size;
+        if (more) users = users.subList(0, size);
+        User last = users.isEmpty() ? null : users.get(users.size() - 1);
+        String next = !more ? null : byId ? CursorPage.encode(last.getId()) : CursorPage.encode(last.getCreatedAt(), last.getId());
+        return new CursorPage<>(toItems(users), next);
     }
 
     @Override
@@ -43,6 +105,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         var u = userRepo.findById(id).orElseThrow();
         u.setStatut(UserStatus.ACTIF);
         userRepo.save(u);
+        revocations.revokeIssuedBeforeNow(id);
     }
 
     @Override
@@ -50,17 +113,22 @@ public class AdminUserServiceImpl implements AdminUserService {
         User u = userRepo.findById(id).orElseThrow();
         u.setStatut(UserStatus.BLOQUE);
         userRepo.save(u);
+        revocations.revokeAll(id);
     }
 
-    private AdminUserItemResponse toItem(User u) {
-        return new AdminUserItemResponse(
-                u.getId(), u.getPrenom(), u.getNom(), u.getEmail(),
-                u.getRoles().stream()
-                        .map(ur -> ur.getRole())     
-                        .map(Role::name)             
-                        .collect(Collectors.toList()),
-                u.getStatut().name(), u.getCreatedAt(), u.getLastLoginAt()
-        );
+    /** Rôles de toute la page en une requête IN, au lieu d'un chargement paresseux par ligne. */
+    private List<AdminUserItemResponse> toItems(List<User> users) {
+        if (users.isEmpty()) return List.of();
+        Map<Long, List<String>> roles = new HashMap<>();
+        for (Object[] row : userRoleRepo.findRolesByUserIds(users.stream().map(User::getId).toList())) {
+            roles.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add(((Role) row[1]).name());
+        }
+        return users.stream()
+                .map(u -> new AdminUserItemResponse(
+                        u.getId(), u.getPrenom(), u.getNom(), u.getEmail(),
+                        roles.getOrDefault(u.getId(), List.of()),
+                        u.getStatut().name(), u.getCreatedAt(), u.getLastLoginAt()))
+                .toList();
     }
 
     private AdminUserDetailResponse toDetail(User u) {
@@ -79,7 +147,37 @@ public class AdminUserServiceImpl implements AdminUserService {
         String[] parts = s.split(",");
         String field = parts[0];
         Sort.Direction dir = parts.length > 1 && "ASC".equalsIgnoreCase(parts[1]) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        return Sort.by(dir, field);
+        // id en second critère : ordre stable d'une page à l'autre malgré les ex aequo
+        return "id".equals(field) ? Sort.by(dir, field) : Sort.by(dir, field).and(Sort.by(dir, "id"));
+    }
+
+    /**
+     * Curseur sur {@code (createdAt, id)} ou sur l'id seul ; l'id n'est pas un ordre de création
+     * (séquences allouées par blocs), d'où la clé composite pour {@code createdAt}.
+     */
+    private boolean keysetById(String s) {
+        if (s == null || s.isBlank()) return false;
+        String field = s.split(",")[0];
+        if (!field.equals("createdAt") && !field.equals("id")) {
+            throw new UnprocessableEntityException("Tri non supporté avec un curseur : " + field);
+        }
+        return field.equals("id");
+    }
+
+    private boolean keysetAscending(String s) {
+        if (s == null || s.isBlank()) return false;
+        String[] parts = s.split(",");
+        return parts.length > 1 && "ASC".equalsIgnoreCase(parts[1]);
+    }
+
+    /** Motif {@code LIKE} en minuscules, jokers de l'utilisateur échappés par {@code !}. */
+    static String likePattern(String q) {
+        if (q == null || q.isBlank()) return null;
+        String escaped = q.trim().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
     }
 
     private UserStatus parseStatus(String s) {
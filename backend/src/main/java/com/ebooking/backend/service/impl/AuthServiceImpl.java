@@ -6,52 +6,67 @@ import com.ebooking.backend.model.UserRole;
 import com.ebooking.backend.model.enums.Role;
 import com.ebooking.backend.model.enums.UserStatus;
 import com.ebooking.backend.repository.UserRepository;
-import com.ebooking.backend.repository.UserRoleRepository;
 import com.ebooking.backend.security.JwtTokenService;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.ebooking.backend.security.PasswordHashing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthServiceImpl implements com.ebooking.backend.service.AuthService {
 
     private final UserRepository userRepo;
-    private final UserRoleRepository roleRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashing passwordHashing;
     private final JwtTokenService jwtTokenService;
+    /** Suite des traitements après le hachage : le pool BCrypt ne garde que le calcul. */
+    private final Executor io;
 
+    public AuthServiceImpl(UserRepository userRepo,
+                           PasswordHashing passwordHashing,
+                           JwtTokenService jwtTokenService,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor io) {
+        this.userRepo = userRepo;
+        this.passwordHashing = passwordHashing;
+        this.jwtTokenService = jwtTokenService;
+        this.io = io;
+    }
+
+    /** Contrôles d'unicité sur le thread appelant, hachage sur le pool dédié, écriture sur l'exécuteur applicatif. */
     @Override
-    public AuthResponse register(RegisterRequest req) {
+    public CompletableFuture<AuthResponse> register(RegisterRequest req) {
         if (userRepo.existsByEmailIgnoreCase(req.email())) {
             throw new EntityExistsException("Email déjà utilisé");
         }
         if (userRepo.existsByTelephone(req.telephone())) {
             throw new EntityExistsException("Téléphone déjà utilisé");
         }
+        return passwordHashing.encode(req.password()).thenApplyAsync(hash -> createUser(req, hash), io);
+    }
+
+    private AuthResponse createUser(RegisterRequest req, String passwordHash) {
         User user = User.builder()
                 .prenom(req.prenom().trim())
                 .nom(req.nom().trim())
                 .email(req.email().trim())
                 .telephone(req.telephone().trim())
-                .motDePasseHash(passwordEncoder.encode(req.password()))
+                .motDePasseHash(passwordHash)
                 .statut(UserStatus.ACTIF)
                 .build();
-        user = userRepo.save(user);
-        UserRole rClient = UserRole.builder().user(user).role(Role.CLIENT).build();
-        roleRepo.save(rClient);
+        // rôles enregistrés en cascade avec l'utilisateur, sans relecture
+        user.getRoles().add(UserRole.builder().user(user).role(Role.CLIENT).build());
         if (req.isPro()) {
-            UserRole rPro = UserRole.builder().user(user).role(Role.PRO).build();
-            roleRepo.save(rPro);
+            user.getRoles().add(UserRole.builder().user(user).role(Role.PRO).build());
         }
-
-       
-        user.setRoles(roleRepo.findByUserId(user.getId()));
+        user = userRepo.save(user);
 
         String token = jwtTokenService.generateAccessToken(user);
         List<String> roles = user.getRoles().stream().map(ur -> ur.getRole().name()).toList();
@@ -60,29 +75,49 @@ public class AuthServiceImpl implements com.ebooking.backend.service.AuthService
     }
 
     @Override
-    public AuthResponse login(LoginRequest req) {
-        User user = userRepo.findByEmailIgnoreCase(req.email())
+    public CompletableFuture<AuthResponse> login(LoginRequest req) {
+        User user = userRepo.findWithRolesByEmailIgnoreCase(req.email())
                 .orElseThrow(() -> new EntityNotFoundException("Identifiants invalides"));
-        if (!passwordEncoder.matches(req.password(), user.getMotDePasseHash())) {
+        return passwordHashing.matches(req.password(), user.getMotDePasseHash())
+                .thenApplyAsync(ok -> completeLogin(req, user, ok), io);
+    }
+
+    private AuthResponse completeLogin(LoginRequest req, User user, boolean passwordMatches) {
+        if (!passwordMatches) {
             throw new EntityNotFoundException("Identifiants invalides");
         }
+        // seulement après le mot de passe : sans lui, le statut du compte ne se révèle pas
         if (user.getStatut() == UserStatus.BLOQUE) {
             throw new IllegalStateException("Compte bloqué");
         }
-        user.setRoles(roleRepo.findByUserId(user.getId()));
+        if (passwordHashing.needsRehash(user.getMotDePasseHash())) {
+            rehash(user.getId(), user.getMotDePasseHash(), req.password());
+        }
         String token = jwtTokenService.generateAccessToken(user);
         List<String> roles = user.getRoles().stream().map(ur -> ur.getRole().name()).toList();
         long expiresIn = jwtTokenService.getExpiresInSeconds();
         return AuthResponse.of(user.getId(), user.getEmail(), roles, token, expiresIn);
     }
 
+    /** Coût BCrypt modifié : nouveau hash en tâche de fond, appliqué seulement si le hash n'a pas changé entre-temps. */
+    private void rehash(Long userId, String previousHash, String rawPassword) {
+        passwordHashing.encodeIfIdle(rawPassword)
+                .thenAcceptAsync(hash -> {
+                    if (hash != null) userRepo.updatePasswordHash(userId, previousHash, hash);
+                }, io)
+                .exceptionally(ex -> {
+                    log.warn("Re-hachage du mot de passe de l'utilisateur {} impossible", userId, ex);
+                    return null;
+                });
+    }
+
     @Override
     public UserResponse me(Long currentUserId) {
         if (currentUserId == null) throw new EntityNotFoundException("Utilisateur non authentifié");
-        User user = userRepo.findById(currentUserId).orElseThrow(
+        User user = userRepo.findWithRolesById(currentUserId).orElseThrow(
                 () -> new EntityNotFoundException("Utilisateur introuvable")
         );
-        List<String> roles = roleRepo.findByUserId(user.getId()).stream()
+        List<String> roles = user.getRoles().stream()
                 .map(r -> r.getRole().name()).toList();
         return new UserResponse(
                 user.getId(),
@@ -1,25 +1,31 @@
 package com.ebooking.backend.service.impl;
 
+import com.ebooking.backend.config.RangeExclusionSchema;
 import com.ebooking.backend.dto.dispo.DisponibiliteRequest;
 import com.ebooking.backend.dto.dispo.DisponibiliteResponse;
 import com.ebooking.backend.dto.dispo.DisponibiliteUpdateRequest;
+import com.ebooking.backend.dto.dispo.SlotSuggestionResponse;
 import com.ebooking.backend.exception.UnprocessableEntityException;
 import com.ebooking.backend.model.Disponibilite;
 import com.ebooking.backend.model.Prestataire;
-import com.ebooking.backend.model.RendezVous;
 import com.ebooking.backend.model.ServiceCatalog;
 import com.ebooking.backend.model.enums.JourSemaine;
-import com.ebooking.backend.model.enums.StatutRdv;
 import com.ebooking.backend.repository.*;
 import com.ebooking.backend.service.DisponibiliteService;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.availability.SlotsChangedEvent;
+import com.ebooking.backend.service.availability.WeekTemplate;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Service
@@ -31,8 +37,14 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
     private final PrestataireRepository prestataireRepo;
     private final ServiceRepository serviceRepo;
     private final PrestataireServiceRepository prestataireServiceRepo;
-    private final RendezVousRepository rdvRepo;
+    private final AvailabilityEngine availability;
+    private final RangeExclusionSchema rangeSchema;
+    private final ApplicationEventPublisher events;
     private static final int DEFAULT_DURATION_MINUTES = 60;
+    private static final int MAX_RANGE_DAYS = 62;
+    private static final int DEFAULT_SEARCH_DAYS = 14;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 50;
 
     @Transactional(readOnly = true)
     @Override
@@ -61,16 +73,21 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
         }
 
 
-        checkOverlapsOnCreate(p.getId(), req.jourSemaine(), debut, fin, sc);
+        if (!rangeSchema.enforces(RangeExclusionSchema.Rule.DISPONIBILITE)) {
+            checkOverlapsOnCreate(p.getId(), req.jourSemaine(), debut, fin, sc);
+        }
 
-        Disponibilite d = Disponibilite.builder()
+        Disponibilite draft = Disponibilite.builder()
                 .prestataire(p)
                 .service(sc) 
                 .jourSemaine(req.jourSemaine())
                 .heureDebut(debut)
                 .heureFin(fin)
                 .build();
-        d = dispoRepo.save(d);
+        Disponibilite d = rangeSchema.write(RangeExclusionSchema.Rule.DISPONIBILITE, () -> dispoRepo.save(draft),
+                "Chevauchement détecté avec un créneau existant");
+        availability.invalidateProvider(p.getId());
+        events.publishEvent(SlotsChangedEvent.allDays(p.getId()));
         return toResp(d);
     }
 
@@ -94,12 +111,20 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
             boolean linked = prestataireServiceRepo.existsByPrestataireIdAndServiceId(p.getId(), sc.getId());
             if (!linked) throw new UnprocessableEntityException("Ce prestataire n'offre pas ce service");
         }
-        checkOverlapsOnUpdate(p.getId(), req.jourSemaine(), debut, fin, sc, d.getId());
+        if (!rangeSchema.enforces(RangeExclusionSchema.Rule.DISPONIBILITE)) {
+            checkOverlapsOnUpdate(p.getId(), req.jourSemaine(), debut, fin, sc, d.getId());
+        }
 
-        d.setJourSemaine(req.jourSemaine());
-        d.setHeureDebut(debut);
-        d.setHeureFin(fin);
-        d.setService(sc);
+        final ServiceCatalog service = sc;
+        rangeSchema.write(RangeExclusionSchema.Rule.DISPONIBILITE, () -> {
+            d.setJourSemaine(req.jourSemaine());
+            d.setHeureDebut(debut);
+            d.setHeureFin(fin);
+            d.setService(service);
+            return d;
+        }, "Chevauchement détecté avec un créneau existant");
+        availability.invalidateProvider(p.getId());
+        events.publishEvent(SlotsChangedEvent.allDays(p.getId()));
         return toResp(d);
     }
 
@@ -109,6 +134,8 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
                 .orElseThrow(() -> new EntityNotFoundException("Disponibilité introuvable"));
         ensureOwner(d, currentUserId);
         dispoRepo.delete(d);
+        availability.invalidateProvider(d.getPrestataire().getId());
+        events.publishEvent(SlotsChangedEvent.allDays(d.getPrestataire().getId()));
     }
 
     /* ----------------- Helpers ----------------- */
@@ -171,101 +198,101 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
     public List<String> slotsForDate(Long prestataireId, Long serviceId, String dateIso, Integer stepMinutes, Integer dureeMinutes) {
         if (stepMinutes == null || stepMinutes <= 0) stepMinutes = 30;
         var date = LocalDate.parse(dateIso);
-        var jour = dayToJour(date.getDayOfWeek());
 
-        Prestataire p = prestataireRepo.findById(prestataireId)
-                .orElseThrow(() -> new EntityNotFoundException("Prestataire introuvable"));
+        requireOffered(availability.week(prestataireId), serviceId);
 
-        ServiceCatalog sc = null;
-        if (serviceId != null) {
-            sc = serviceRepo.findById(serviceId)
-                    .orElseThrow(() -> new EntityNotFoundException("Service introuvable"));
-            boolean linked = prestataireServiceRepo.existsByPrestataireIdAndServiceId(prestataireId, serviceId);
-            if (!linked) throw new UnprocessableEntityException("Ce prestataire n'offre pas ce service");
+        int requiredDuration = requiredDuration(stepMinutes, dureeMinutes, serviceId);
+        int fallback = determineRequestedDuration(stepMinutes, null);
+        return availability.freeSlots(prestataireId, serviceId, date, stepMinutes, requiredDuration, fallback);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<String, List<String>> slotsForRange(Long prestataireId, Long serviceId, String fromIso, String toIso, Integer stepMinutes, Integer dureeMinutes) {
+        if (stepMinutes == null || stepMinutes <= 0) stepMinutes = 30;
+        var from = LocalDate.parse(fromIso);
+        var to = LocalDate.parse(toIso);
+        if (to.isBefore(from)) {
+            throw new UnprocessableEntityException("'to' doit être postérieur ou égal à 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new UnprocessableEntityException("La période demandée ne peut pas dépasser " + MAX_RANGE_DAYS + " jours");
         }
 
-        var sameDay = dispoRepo.findByPrestataireIdAndJourSemaine(prestataireId, jour);
+        requireOffered(availability.week(prestataireId), serviceId);
 
-        List<Disponibilite> applicable = new ArrayList<>();
-        for (Disponibilite d : sameDay) {
-            if (d.getService() == null) applicable.add(d);
-            else if (sc != null && d.getService().getId().equals(sc.getId())) applicable.add(d);
-        }
+        int requiredDuration = requiredDuration(stepMinutes, dureeMinutes, serviceId);
+        int fallback = determineRequestedDuration(stepMinutes, null);
+        Map<String, List<String>> out = new LinkedHashMap<>();
+        availability.freeSlots(prestataireId, serviceId, from, to, stepMinutes, requiredDuration, fallback)
+                .forEach((date, slots) -> out.put(date.toString(), slots));
+        return out;
+    }
 
-        int requiredDuration = determineRequestedDuration(sc, stepMinutes, dureeMinutes);
-        Set<LocalTime> all = new TreeSet<>();
-        for (Disponibilite d : applicable) {
-            for (var t = d.getHeureDebut();
-                 t.plusMinutes(stepMinutes).compareTo(d.getHeureFin()) <= 0;
-                 t = t.plusMinutes(stepMinutes)) {
-                LocalTime candidateEnd = t.plusMinutes(requiredDuration);
-                if (candidateEnd.isBefore(t)) continue; 
-                if (!candidateEnd.isAfter(d.getHeureFin())) {
-                    all.add(t);
-                }
-            }
+    @Transactional(readOnly = true)
+    @Override
+    public List<SlotSuggestionResponse> firstAvailable(Long serviceId, String fromIso, String toIso, Integer stepMinutes, Integer dureeMinutes, Integer limit) {
+        if (stepMinutes == null || stepMinutes <= 0) stepMinutes = 30;
+        if (limit == null || limit <= 0) limit = DEFAULT_SEARCH_LIMIT;
+        limit = Math.min(limit, MAX_SEARCH_LIMIT);
+        LocalDateTime now = LocalDateTime.now();
+        var from = fromIso == null ? now.toLocalDate() : LocalDate.parse(fromIso);
+        var to = toIso == null ? from.plusDays(DEFAULT_SEARCH_DAYS - 1) : LocalDate.parse(toIso);
+        if (to.isBefore(from)) {
+            throw new UnprocessableEntityException("'to' doit être postérieur ou égal à 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new UnprocessableEntityException("La période demandée ne peut pas dépasser " + MAX_RANGE_DAYS + " jours");
         }
 
-        var rdvsBloquants = rdvRepo.findByPrestataireIdAndDateAndStatutIn(
-                prestataireId, date, java.util.List.of(StatutRdv.EN_ATTENTE, StatutRdv.CONFIRME)
-        );
-        for (RendezVous r : rdvsBloquants) {
-            LocalTime rdvStart = r.getHeure();
-            LocalTime rdvEnd = rdvStart.plusMinutes(durationForRendezVous(r, stepMinutes));
-            if (rdvEnd.isBefore(rdvStart)) {
-                rdvEnd = LocalTime.MAX; 
-            }
-            LocalTime finalRdvEnd = rdvEnd;
-            all.removeIf(slot -> (slot.equals(rdvStart) || slot.isAfter(rdvStart)) && slot.isBefore(finalRdvEnd));
+        var prestataireIds = prestataireServiceRepo.findPrestataireIdsByServiceId(serviceId);
+        if (prestataireIds.isEmpty() && !serviceRepo.existsById(serviceId)) {
+            throw new EntityNotFoundException("Service introuvable");
         }
+        LocalDateTime notBefore = from.isAfter(now.toLocalDate()) ? from.atStartOfDay() : now;
 
-        return all.stream().map(LocalTime::toString).toList();
+        int requiredDuration = requiredDuration(stepMinutes, dureeMinutes, serviceId);
+        int fallback = determineRequestedDuration(stepMinutes, null);
+        return availability.earliestFreeSlots(prestataireIds, serviceId, notBefore, to, stepMinutes, requiredDuration, fallback, limit)
+                .stream()
+                .map(s -> new SlotSuggestionResponse(s.prestataireId(), s.date().toString(), s.heure().toString()))
+                .toList();
     }
 
-    private JourSemaine dayToJour(java.time.DayOfWeek dow) {
-        return switch (dow) {
-            case MONDAY -> JourSemaine.LUNDI;
-            case TUESDAY -> JourSemaine.MARDI;
-            case WEDNESDAY -> JourSemaine.MERCREDI;
-            case THURSDAY -> JourSemaine.JEUDI;
-            case FRIDAY -> JourSemaine.VENDREDI;
-            case SATURDAY -> JourSemaine.SAMEDI;
-            case SUNDAY -> JourSemaine.DIMANCHE;
-        };
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, SlotSuggestionResponse> firstSlotPerProvider(Collection<Long> prestataireIds, Long serviceId) {
+        int step = 30;
+        LocalDateTime now = LocalDateTime.now();
+        var to = now.toLocalDate().plusDays(DEFAULT_SEARCH_DAYS - 1);
+        int requiredDuration = requiredDuration(step, null, serviceId);
+        int fallback = determineRequestedDuration(step, null);
+        Map<Long, SlotSuggestionResponse> out = new HashMap<>();
+        availability.firstFreeSlots(prestataireIds, serviceId, now, to, step, requiredDuration, fallback)
+                .forEach((pid, s) -> out.put(pid, new SlotSuggestionResponse(pid, s.date().toString(), s.heure().toString())));
+        return out;
     }
 
-    private int determineRequestedDuration(ServiceCatalog service, int fallback, Integer requested) {
-        if (requested != null && requested > 0) {
-            return requested;
+    private void requireOffered(WeekTemplate week, Long serviceId) {
+        if (serviceId != null && !week.offers(serviceId)) {
+            if (!serviceRepo.existsById(serviceId)) throw new EntityNotFoundException("Service introuvable");
+            throw new UnprocessableEntityException("Ce prestataire n'offre pas ce service");
         }
-        Integer serviceDur = extractServiceDuration(service);
-        if (serviceDur != null && serviceDur > 0) {
-            return serviceDur;
-        }
-        return Math.max(DEFAULT_DURATION_MINUTES, Math.max(fallback, 1));
     }
 
-    private int durationForRendezVous(RendezVous r, int fallback) {
-        Integer stored = r.getDureeMinutes();
-        if (stored != null && stored > 0) {
-            return stored;
+    /** Durée demandée, sinon durée catalogue du service, sinon la durée par défaut. */
+    private int requiredDuration(int step, Integer requested, Long serviceId) {
+        if (requested == null || requested <= 0) {
+            requested = availability.serviceDuration(serviceId);
         }
-        int duration = determineRequestedDuration(r.getService(), fallback, null);
-        r.setDureeMinutes(duration);
-        return duration;
+        return determineRequestedDuration(step, requested);
     }
 
-    private Integer extractServiceDuration(ServiceCatalog service) {
-        if (service == null) return null;
-        try {
-            var method = service.getClass().getMethod("getDureeMin");
-            Object val = method.invoke(service);
-            if (val instanceof Integer di) {
-                return di;
-            }
-        } catch (Exception ignored) {
+    private int determineRequestedDuration(int fallback, Integer requested) {
+        if (requested != null && requested > 0) {
+            return requested;
         }
-        return null;
+        return Math.max(DEFAULT_DURATION_MINUTES, Math.max(fallback, 1));
     }
 
     private DisponibiliteResponse toResp(Disponibilite d) {
@@ -1,17 +1,33 @@
 package com.ebooking.backend.service.impl;
 
+import com.ebooking.backend.config.CacheConfig;
+import com.ebooking.backend.dto.common.CursorPage;
+import com.ebooking.backend.dto.dispo.SlotSuggestionResponse;
+import com.ebooking.backend.dto.prestataire.PrestataireNearbyResponse;
 import com.ebooking.backend.dto.prestataire.PrestataireOnboardingRequest;
 import com.ebooking.backend.dto.prestataire.PrestataireResponse;
 import com.ebooking.backend.dto.service.ServiceResponse;
+import com.ebooking.backend.exception.UnprocessableEntityException;
 import com.ebooking.backend.model.Prestataire;
 import com.ebooking.backend.model.PrestataireService;
 import com.ebooking.backend.model.ServiceCatalog;
 import com.ebooking.backend.model.User;
 import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.DisponibiliteService;
 import com.ebooking.backend.service.PrestataireServiceBiz;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.catalog.CatalogCacheEvictor;
+import com.ebooking.backend.service.geo.GeoGrid;
+import com.ebooking.backend.service.geo.GeoPoint;
+import com.ebooking.backend.service.geo.OfflineGeocoder;
+import com.ebooking.backend.service.geo.ProviderGeoIndex;
+import com.ebooking.backend.service.search.ProviderSearchIndex;
+import com.ebooking.backend.service.search.ProviderTextIndex;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +42,20 @@ public class PrestataireServiceBizImpl implements PrestataireServiceBiz {
     private final PrestataireServiceRepository prestataireServiceRepo;
     private final ServiceRepository serviceRepo;
     private final UserRepository userRepo;
+    private final AvailabilityEngine availability;
+    private final CatalogCacheEvictor cacheEvictor;
+    private final ProviderSearchIndex searchIndex;
+    private final ProviderGeoIndex geoIndex;
+    private final OfflineGeocoder geocoder;
+    private final DisponibiliteService disponibiliteService;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final double DEFAULT_RADIUS_KM = 10;
+    static final double MAX_RADIUS_KM = 100;
+    static final int DEFAULT_NEARBY_LIMIT = 20;
+    static final int MAX_NEARBY_LIMIT = 50;
+    /** Taille des lots de la requête IN sur les liens prestataire-service. */
+    private static final int LINK_BATCH = 500;
 
     @Override
     public PrestataireResponse onboard(Long currentUserId, PrestataireOnboardingRequest req) {
@@ -34,6 +64,19 @@ public class PrestataireServiceBizImpl implements PrestataireServiceBiz {
             throw new EntityExistsException("Profil prestataire déjà créé pour cet utilisateur");
         }
         Prestataire p = Prestataire.builder().user(user).specialite(req.specialite()).adresse(req.adresse()).build();
+        if ((req.latitude() == null) != (req.longitude() == null)) {
+            throw new UnprocessableEntityException("Latitude et longitude doivent être fournies ensemble");
+        }
+        if (req.latitude() != null) {
+            p.setLatitude(req.latitude());
+            p.setLongitude(req.longitude());
+        } else {
+            GeoPoint located = geocoder.locate(req.adresse()).orElse(null);
+            if (located != null) {
+                p.setLatitude(located.latitude());
+                p.setLongitude(located.longitude());
+            }
+        }
         p = prestataireRepo.save(p);
         if (req.serviceIds() != null && !req.serviceIds().isEmpty()) {
             for (Long sid : req.serviceIds()) {
@@ -43,6 +86,7 @@ public class PrestataireServiceBizImpl implements PrestataireServiceBiz {
                 }
             }
         }
+        cacheEvictor.evictProvider(p.getId(), req.serviceIds());
         return toResponse(p);
     }
 
@@ -60,6 +104,8 @@ public class PrestataireServiceBizImpl implements PrestataireServiceBiz {
         ServiceCatalog sc = serviceRepo.findById(serviceId).orElseThrow(() -> new EntityNotFoundException("Service introuvable"));
         if (!prestataireServiceRepo.existsByPrestataireIdAndServiceId(p.getId(), sc.getId())) {
             prestataireServiceRepo.save(PrestataireService.builder().prestataire(p).service(sc).build());
+            availability.invalidateProvider(p.getId());
+            cacheEvictor.evictProvider(p.getId(), List.of(sc.getId()));
         }
         return toResponse(p);
     }
@@ -72,6 +118,8 @@ public class PrestataireServiceBizImpl implements PrestataireServiceBiz {
             throw new EntityNotFoundException("Lien prestataire-service introuvable");
         }
         prestataireServiceRepo.deleteByPrestataireIdAndServiceId(p.getId(), serviceId);
+        availability.invalidateProvider(p.getId());
+        cacheEvictor.evictProvider(p.getId(), List.of(serviceId));
     }
 
     private void ensureOwner(Prestataire p, Long currentUserId) {
@@ -80,19 +128,100 @@ public class PrestataireServiceBizImpl implements PrestataireServiceBiz {
         }
     }
 
+    @Cacheable(CacheConfig.PRESTATAIRES_PAR_SERVICE)
     @Transactional(readOnly = true)
     @Override
     public List<PrestataireResponse> listByService(Long serviceId) {
         serviceRepo.findById(serviceId).orElseThrow(() -> new EntityNotFoundException("Service introuvable"));
-        return prestataireRepo.findByServiceId(serviceId).stream().map(this::toResponse).toList();
+        return toResponses(prestataireRepo.findByServiceId(serviceId));
     }
 
+    @Cacheable(CacheConfig.PRESTATAIRES)
     @Transactional(readOnly = true)
     @Override
     public List<PrestataireResponse> listAll() {
-        return prestataireRepo.findAll().stream().map(this::toResponse).toList();
+        return toResponses(prestataireRepo.findAllWithUser());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRESTATAIRES, key = "{#cursor, #limit}")
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<PrestataireResponse> listPage(String cursor, Integer limit) {
+        int size = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        long after = cursor == null || cursor.isBlank() ? 0L : CursorPage.decodeId(cursor);
+        var page = prestataireRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        boolean more = page.size() > size;
+        if (more) page = page.subList(0, size);
+        String next = more ? CursorPage.encode(page.get(page.size() - 1).getId()) : null;
+        return new CursorPage<>(toResponses(page), next);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<PrestataireResponse> search(String query, String cursor, Integer limit) {
+        int size = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        ProviderTextIndex.Hit after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorPage.decode(cursor, 2);
+            try {
+                after = new ProviderTextIndex.Hit(Long.parseLong(parts[1]), Integer.parseInt(parts[0]));
+            } catch (NumberFormatException e) {
+                throw new UnprocessableEntityException("Curseur invalide");
+            }
+        }
+        var hits = searchIndex.search(query, after, size + 1);
+        boolean more = hits.size() > size;
+        if (more) hits = hits.subList(0, size);
+        String next = more ? CursorPage.encode(hits.get(hits.size() - 1).score(), hits.get(hits.size() - 1).id()) : null;
+
+        Map<Long, Prestataire> byId = new HashMap<>();
+        prestataireRepo.findByIdIn(hits.stream().map(ProviderTextIndex.Hit::id).toList()).forEach(p -> byId.put(p.getId(), p));
+        // ordre de pertinence ; une fiche supprimée depuis l'indexation est simplement omise
+        List<Prestataire> ranked = hits.stream().map(h -> byId.get(h.id())).filter(Objects::nonNull).toList();
+        return new CursorPage<>(toResponses(ranked), next);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<PrestataireNearbyResponse> nearby(double latitude, double longitude, Long serviceId,
+                                                  Double radiusKm, Integer limit, boolean withFirstSlot) {
+        GeoPoint center;
+        try {
+            center = new GeoPoint(latitude, longitude);
+        } catch (IllegalArgumentException e) {
+            throw new UnprocessableEntityException(e.getMessage());
+        }
+        double radius = (radiusKm == null || radiusKm <= 0) ? DEFAULT_RADIUS_KM : Math.min(radiusKm, MAX_RADIUS_KM);
+        int size = (limit == null || limit <= 0) ? DEFAULT_NEARBY_LIMIT : Math.min(limit, MAX_NEARBY_LIMIT);
+
+        List<GeoGrid.Hit> hits;
+        if (serviceId == null) {
+            hits = geoIndex.nearest(center, radius, id -> true, size);
+        } else {
+            Set<Long> offering = new HashSet<>(prestataireServiceRepo.findPrestataireIdsByServiceId(serviceId));
+            if (offering.isEmpty() && !serviceRepo.existsById(serviceId)) {
+                throw new EntityNotFoundException("Service introuvable");
+            }
+            hits = geoIndex.nearest(center, radius, offering::contains, size);
+        }
+        if (hits.isEmpty()) return List.of();
+
+        List<Long> ids = hits.stream().map(GeoGrid.Hit::id).toList();
+        Map<Long, PrestataireResponse> byId = new HashMap<>();
+        toResponses(prestataireRepo.findByIdIn(ids)).forEach(r -> byId.put(r.id(), r));
+        Map<Long, SlotSuggestionResponse> slots = withFirstSlot
+                ? disponibiliteService.firstSlotPerProvider(byId.keySet(), serviceId)
+                : Map.of();
+        List<PrestataireNearbyResponse> out = new ArrayList<>(hits.size());
+        for (GeoGrid.Hit h : hits) {
+            PrestataireResponse r = byId.get(h.id());
+            if (r == null) continue;
+            out.add(new PrestataireNearbyResponse(r, Math.round(h.distanceKm() * 100) / 100.0, slots.get(h.id())));
+        }
+        return out;
+    }
+
+    @Cacheable(CacheConfig.PRESTATAIRE)
     @Transactional(readOnly = true)
     @Override
     public PrestataireResponse getPublic(Long prestataireId) {
@@ -101,8 +230,22 @@ public class PrestataireServiceBizImpl implements PrestataireServiceBiz {
     }
 
     private PrestataireResponse toResponse(Prestataire p) {
-        var links = prestataireServiceRepo.findByPrestataireId(p.getId());
-        var services = links.stream().map(ps -> new ServiceResponse(ps.getService().getId(), ps.getService().getNom(), ps.getService().getDescription())).toList();
-        return new PrestataireResponse(p.getId(), p.getUser().getId(), p.getUser().getPrenom(), p.getUser().getNom(), p.getSpecialite(), p.getAdresse(), services);
+        return toResponses(List.of(p)).get(0);
+    }
+
+    /** Les utilisateurs doivent être déjà chargés ; les services de tout le lot sont lus par requêtes IN. */
+    private List<PrestataireResponse> toResponses(List<Prestataire> prestataires) {
+        if (prestataires.isEmpty()) return List.of();
+        List<Long> ids = prestataires.stream().map(Prestataire::getId).toList();
+        Map<Long, List<ServiceResponse>> services = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += LINK_BATCH) {
+            for (PrestataireService ps : prestataireServiceRepo.findWithServiceByPrestataireIdIn(ids.subList(i, Math.min(ids.size(), i + LINK_BATCH)))) {
+                ServiceCatalog sc = ps.getService();
+                services.computeIfAbsent(ps.getPrestataire().getId(), k -> new ArrayList<>())
+                        .add(new ServiceResponse(sc.getId(), sc.getNom(), sc.getDescription(), sc.getDureeMin()));
+            }
+        }
+        return prestataires.stream().map(p -> new PrestataireResponse(p.getId(), p.getUser().getId(), p.getUser().getPrenom(), p.getUser().getNom(),
+                p.getSpecialite(), p.getAdresse(), p.getLatitude(), p.getLongitude(), List.copyOf(services.getOrDefault(p.getId(), List.of())))).toList();
     }
 }
\ No newline at end of file
@@ -1,38 +1,65 @@
 package com.ebooking.backend.service.impl;
 
+import com.ebooking.backend.config.RangeExclusionSchema;
+import com.ebooking.backend.dto.rdv.BatchRendezVousRequest;
+import com.ebooking.backend.dto.rdv.BatchRendezVousResponse;
 import com.ebooking.backend.dto.rdv.RendezVousRequest;
 import com.ebooking.backend.dto.rdv.RendezVousResponse;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesRequest;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesResponse;
 import com.ebooking.backend.dto.rdv.RendezVousUpdateRequest;
 import com.ebooking.backend.exception.UnprocessableEntityException;
 import com.ebooking.backend.model.*;
 import com.ebooking.backend.model.enums.JourSemaine;
 import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.model.enums.StatutSerie;
 import com.ebooking.backend.repository.*;
 import com.ebooking.backend.security.CurrentUser;
 import com.ebooking.backend.service.RendezVousService;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.availability.SlotsChangedEvent;
+import com.ebooking.backend.service.booking.BookingAdmission;
+import com.ebooking.backend.service.booking.PendingReaper;
+import com.ebooking.backend.service.booking.RendezVousBatchWriter;
+import com.ebooking.backend.service.booking.RendezVousChangedEvent;
+import com.ebooking.backend.service.series.SeriesCalendar;
+import com.ebooking.backend.service.series.SeriesMaterializer;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class RendezVousServiceImpl implements RendezVousService {
     private final RendezVousRepository rdvRepo;
+    private final RendezVousSeriesRepository seriesRepo;
     private final ServiceRepository serviceRepo;
     private final PrestataireRepository prestataireRepo;
     private final PrestataireServiceRepository prestataireServiceRepo;
     private final DisponibiliteRepository dispoRepo;
     private final UserRepository userRepo;
+    private final AvailabilityEngine availability;
+    private final BookingAdmission admission;
+    private final RangeExclusionSchema rangeSchema;
+    private final RendezVousBatchWriter batchWriter;
+    private final SeriesMaterializer materializer;
+    private final PendingReaper pendingReaper;
+    private final ApplicationEventPublisher events;
     private static final List<StatutRdv> BLOCKING_STATUSES = List.of(StatutRdv.EN_ATTENTE, StatutRdv.CONFIRME);
     private static final int DEFAULT_DURATION_MINUTES = 60;
+    /** Environ cinq ans d'occurrences hebdomadaires. */
+    private static final int MAX_SERIES_OCCURRENCES = 260;
+    /** Dates en conflit citées dans le message d'erreur d'une série. */
+    private static final int MAX_LISTED_CONFLICTS = 5;
 
     @Override
     public RendezVousResponse create(Long currentUserId, RendezVousRequest req) {
@@ -49,20 +76,190 @@ public class RendezVousServiceImpl implements RendezVousService {
         var covering = dispoRepo.findCoveringSlot(p.getId(), jour, sc.getId(), heure);
         if (covering.stream().noneMatch(d -> !fin.isAfter(d.getHeureFin())))
             throw new UnprocessableEntityException("Pas de créneau disponible couvrant cet horaire");
-        if (hasOverlap(p.getId(), date, heure, duree, null)) {
-            throw new UnprocessableEntityException("Créneau déjà réservé");
+        RendezVous rdv = admission.admit(p.getId(), date, () -> {
+            // la contrainte d'exclusion ne voit que les lignes écrites, pas les occurrences de série à venir
+            if ((!rangeSchema.enforces(RangeExclusionSchema.Rule.RENDEZ_VOUS) && hasOverlap(p.getId(), date, heure, duree, null))
+                    || overlapsPendingSeries(p.getId(), date, heure, duree)) {
+                throw new UnprocessableEntityException("Créneau déjà réservé");
+            }
+            return rangeSchema.write(RangeExclusionSchema.Rule.RENDEZ_VOUS, () -> rdvRepo.save(RendezVous.builder()
+                    .service(sc)
+                    .prestataire(p)
+                    .client(client)
+                    .date(date)
+                    .heure(heure)
+                    .dureeMinutes(duree)
+                    .statut(StatutRdv.EN_ATTENTE)
+                    .pendingSince(pendingReaper.pendingSinceNow())
+                    .build()), "Créneau déjà réservé");
+        });
+        availability.invalidateDay(p.getId(), date);
+        events.publishEvent(RendezVousChangedEvent.created(rdv));
+        events.publishEvent(SlotsChangedEvent.day(p.getId(), date));
+        return toResp(rdv);
+    }
+
+    /**
+     * Tous les éléments sont validés contre un même instantané chargé en quelques requêtes
+     * (services, prestataires, liens, disponibilités, puis RDV bloquants une fois les verrous
+     * pris), y compris les chevauchements entre éléments du lot, puis insérés en un seul batch.
+     */
+    @Override
+    public BatchRendezVousResponse createBatch(Long currentUserId, BatchRendezVousRequest req) {
+        User client = userRepo.findById(currentUserId).orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable"));
+        List<RendezVousRequest> items = req.items();
+        boolean allOrNothing = req.modeOrDefault() == BatchRendezVousRequest.Mode.TOUT_OU_RIEN;
+        Set<Long> serviceIds = items.stream().map(RendezVousRequest::serviceId).collect(Collectors.toSet());
+        Set<Long> prestataireIds = items.stream().map(RendezVousRequest::prestataireId).collect(Collectors.toSet());
+        Map<Long, ServiceCatalog> services = serviceRepo.findAllById(serviceIds).stream()
+                .collect(Collectors.toMap(ServiceCatalog::getId, s -> s));
+        Map<Long, Prestataire> prestataires = prestataireRepo.findAllById(prestataireIds).stream()
+                .collect(Collectors.toMap(Prestataire::getId, p -> p));
+        Map<Long, Set<Long>> links = new HashMap<>();
+        for (Object[] l : prestataireServiceRepo.findLinksByPrestataireIdIn(prestataires.keySet())) {
+            links.computeIfAbsent((Long) l[0], k -> new HashSet<>()).add((Long) l[1]);
+        }
+        Map<Long, List<Disponibilite>> dispos = dispoRepo.findByPrestataireIdIn(prestataires.keySet()).stream()
+                .collect(Collectors.groupingBy(d -> d.getPrestataire().getId()));
+
+        String[] errors = new String[items.size()];
+        List<RendezVous> drafts = new ArrayList<>();
+        List<Integer> draftIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                drafts.add(draft(items.get(i), client, services, prestataires, links, dispos));
+                draftIndexes.add(i);
+            } catch (UnprocessableEntityException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        List<RendezVous> created = List.of();
+        if (!drafts.isEmpty() && !(allOrNothing && drafts.size() < items.size())) {
+            Set<BookingAdmission.Key> keys = drafts.stream()
+                    .map(r -> new BookingAdmission.Key(r.getPrestataire().getId(), r.getDate()))
+                    .collect(Collectors.toSet());
+            created = admission.admitAll(keys, () -> {
+                List<RendezVous> accepted = rejectOverlaps(drafts, draftIndexes, keys, errors);
+                if (accepted.isEmpty() || (allOrNothing && accepted.size() < drafts.size())) return List.of();
+                return rangeSchema.write(RangeExclusionSchema.Rule.RENDEZ_VOUS, () -> {
+                    batchWriter.insert(accepted);
+                    return accepted;
+                }, "Créneau déjà réservé");
+            });
         }
-        RendezVous rdv = RendezVous.builder()
+
+        Set<RendezVous> done = Collections.newSetFromMap(new IdentityHashMap<>());
+        done.addAll(created);
+        for (RendezVous rdv : created) {
+            events.publishEvent(RendezVousChangedEvent.created(rdv));
+        }
+        created.stream().map(r -> new BookingAdmission.Key(r.getPrestataire().getId(), r.getDate())).distinct()
+                .forEach(k -> {
+                    availability.invalidateDay(k.prestataireId(), k.date());
+                    events.publishEvent(SlotsChangedEvent.day(k.prestataireId(), k.date()));
+                });
+
+        List<BatchRendezVousResponse.Item> out = new ArrayList<>(items.size());
+        Map<Integer, RendezVous> draftByIndex = new HashMap<>();
+        for (int d = 0; d < drafts.size(); d++) draftByIndex.put(draftIndexes.get(d), drafts.get(d));
+        for (int i = 0; i < items.size(); i++) {
+            RendezVous rdv = draftByIndex.get(i);
+            if (errors[i] != null) {
+                out.add(new BatchRendezVousResponse.Item(i, BatchRendezVousResponse.Statut.REFUSE, null, errors[i]));
+            } else if (rdv != null && done.contains(rdv)) {
+                out.add(new BatchRendezVousResponse.Item(i, BatchRendezVousResponse.Statut.CREE, toResp(rdv), null));
+            } else {
+                out.add(new BatchRendezVousResponse.Item(i, BatchRendezVousResponse.Statut.NON_ENREGISTRE, null, null));
+            }
+        }
+        int refused = (int) Arrays.stream(errors).filter(Objects::nonNull).count();
+        return new BatchRendezVousResponse(created.size(), refused, out);
+    }
+
+    /**
+     * Crée une série : toutes les occurrences, y compris celles qui ne seront matérialisées que
+     * plus tard, sont vérifiées d'un coup. Elles tombent toutes le même jour de la semaine à la
+     * même heure : une seule vérification de disponibilité suffit. Les conflits sont cherchés
+     * en une requête sur les RDV existants et une sur les séries en attente du prestataire.
+     */
+    @Override
+    public RendezVousSeriesResponse createSeries(Long currentUserId, RendezVousSeriesRequest req) {
+        User client = userRepo.findById(currentUserId).orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable"));
+        ServiceCatalog sc = serviceRepo.findById(req.serviceId()).orElseThrow(() -> new EntityNotFoundException("Service introuvable"));
+        Prestataire p = prestataireRepo.findById(req.prestataireId()).orElseThrow(() -> new EntityNotFoundException("Prestataire introuvable"));
+        if (!prestataireServiceRepo.existsByPrestataireIdAndServiceId(p.getId(), sc.getId()))
+            throw new UnprocessableEntityException("Ce prestataire n'offre pas ce service");
+        if ((req.nombreOccurrences() == null) == (req.dateFin() == null))
+            throw new UnprocessableEntityException("Indiquer soit un nombre d'occurrences, soit une date de fin");
+        LocalDate first = LocalDate.parse(req.dateDebut());
+        LocalTime heure = LocalTime.parse(req.heure());
+        LocalDate until = req.dateFin() == null ? null : LocalDate.parse(req.dateFin());
+        if (until != null && until.isBefore(first))
+            throw new UnprocessableEntityException("La date de fin doit être postérieure ou égale à la date de début");
+        LocalDate last = SeriesCalendar.lastDate(first, req.recurrence(), req.nombreOccurrences(), until);
+        List<LocalDate> dates = SeriesCalendar.dates(first, req.recurrence(), last, first, last);
+        if (dates.size() > MAX_SERIES_OCCURRENCES)
+            throw new UnprocessableEntityException("Une série ne peut pas dépasser " + MAX_SERIES_OCCURRENCES + " occurrences");
+        int duree = resolveDuration(req.dureeMin(), sc);
+        LocalTime fin = safeAddMinutes(heure, duree);
+        var covering = dispoRepo.findCoveringSlot(p.getId(), dayToJour(first.getDayOfWeek()), sc.getId(), heure);
+        if (covering.stream().noneMatch(d -> !fin.isAfter(d.getHeureFin())))
+            throw new UnprocessableEntityException("Pas de créneau disponible couvrant cet horaire");
+
+        Set<BookingAdmission.Key> keys = dates.stream().map(d -> new BookingAdmission.Key(p.getId(), d)).collect(Collectors.toSet());
+        RendezVousSeries series = RendezVousSeries.builder()
                 .service(sc)
                 .prestataire(p)
                 .client(client)
-                .date(date)
+                .recurrence(req.recurrence())
+                .dateDebut(first)
+                .dateFin(last)
+                .nombreOccurrences(dates.size())
                 .heure(heure)
                 .dureeMinutes(duree)
-                .statut(StatutRdv.EN_ATTENTE)
+                .statut(StatutSerie.ACTIVE)
+                .materialiseeJusquAu(first.minusDays(1))
                 .build();
-        rdv = rdvRepo.save(rdv);
-        return toResp(rdv);
+        List<RendezVous> written = admission.admitAll(keys, () -> {
+            List<LocalDate> conflicts = seriesConflicts(p.getId(), dates, heure, duree);
+            if (!conflicts.isEmpty()) {
+                String listed = conflicts.stream().limit(MAX_LISTED_CONFLICTS).map(LocalDate::toString).collect(Collectors.joining(", "));
+                throw new UnprocessableEntityException("Créneau déjà réservé pour " + conflicts.size() + " occurrence(s) : " + listed
+                        + (conflicts.size() > MAX_LISTED_CONFLICTS ? ", …" : ""));
+            }
+            seriesRepo.save(series);
+            return rangeSchema.write(RangeExclusionSchema.Rule.RENDEZ_VOUS,
+                    () -> materializer.materialize(series, materializer.horizon()), "Créneau déjà réservé");
+        });
+        availability.invalidateDays(p.getId(), dates);
+        events.publishEvent(SlotsChangedEvent.days(p.getId(), dates));
+        return toSeriesResp(series, written);
+    }
+
+    /** Annule la série : occurrences futures écrites passées en ANNULE, occurrences en attente abandonnées. */
+    @Override
+    public RendezVousSeriesResponse annulerSeries(Long currentUserId, Long serieId) {
+        RendezVousSeries series = seriesRepo.findLockedById(serieId).orElseThrow(() -> new EntityNotFoundException("Série introuvable"));
+        boolean isClient = Objects.equals(series.getClient().getId(), currentUserId);
+        boolean isPrestataire = Objects.equals(series.getPrestataire().getUser().getId(), currentUserId);
+        if (!isClient && !isPrestataire && !CurrentUser.hasRole("ADMIN")) {
+            throw new AccessDeniedException("Seul le client, le prestataire ou un admin peut annuler");
+        }
+        if (series.getStatut() == StatutSerie.ANNULEE) return toSeriesResp(series, List.of());
+        LocalDate today = LocalDate.now();
+        Long pid = series.getPrestataire().getId();
+        List<LocalDate> touched = new ArrayList<>(SeriesCalendar.pendingDates(series, today, series.getDateFin()));
+        series.setStatut(StatutSerie.ANNULEE);
+        for (RendezVous rdv : rdvRepo.findBySerieIdAndDateGreaterThanEqualAndStatutIn(serieId, today, BLOCKING_STATUSES)) {
+            var before = RendezVousChangedEvent.Snapshot.of(rdv);
+            rdv.setStatut(StatutRdv.ANNULE);
+            touched.add(rdv.getDate());
+            events.publishEvent(RendezVousChangedEvent.changed(before, rdv));
+        }
+        availability.invalidateDays(pid, touched);
+        events.publishEvent(SlotsChangedEvent.days(pid, touched));
+        return toSeriesResp(series, List.of());
     }
 
     @Transactional(readOnly = true)
@@ -97,7 +294,7 @@ public class RendezVousServiceImpl implements RendezVousService {
 
     @Override
     public RendezVousResponse confirmer(Long currentUserId, Long rdvId) {
-        RendezVous rdv = rdvRepo.findById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
+        RendezVous rdv = rdvRepo.findLockedById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
         Prestataire p = rdv.getPrestataire();
         if (!Objects.equals(p.getUser().getId(), currentUserId) && !CurrentUser.hasRole("ADMIN")) {
             throw new AccessDeniedException("Seul le prestataire ou un admin peut confirmer");
@@ -105,44 +302,55 @@ public class RendezVousServiceImpl implements RendezVousService {
         if (rdv.getStatut() != StatutRdv.EN_ATTENTE) {
             throw new UnprocessableEntityException("Transition invalide : doit être EN_ATTENTE");
         }
+        var before = RendezVousChangedEvent.Snapshot.of(rdv);
         rdv.setStatut(StatutRdv.CONFIRME);
+        events.publishEvent(RendezVousChangedEvent.changed(before, rdv));
         return toResp(rdv);
     }
 
     @Override
     public RendezVousResponse annuler(Long currentUserId, Long rdvId) {
-        RendezVous rdv = rdvRepo.findById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
+        RendezVous rdv = rdvRepo.findLockedById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
         boolean isClient = Objects.equals(rdv.getClient().getId(), currentUserId);
         boolean isPrestataire = Objects.equals(rdv.getPrestataire().getUser().getId(), currentUserId);
         boolean isAdmin = CurrentUser.hasRole("ADMIN");
         if (!isClient && !isPrestataire && !isAdmin) {
             throw new AccessDeniedException("Seul le client, le prestataire ou un admin peut annuler");
         }
-        if (rdv.getStatut() == StatutRdv.ANNULE)
+        if (rdv.getStatut() == StatutRdv.ANNULE || rdv.getStatut() == StatutRdv.EXPIRE)
             return toResp(rdv); 
+        var before = RendezVousChangedEvent.Snapshot.of(rdv);
         rdv.setStatut(StatutRdv.ANNULE);
+        availability.invalidateDay(rdv.getPrestataire().getId(), rdv.getDate());
+        events.publishEvent(RendezVousChangedEvent.changed(before, rdv));
+        events.publishEvent(SlotsChangedEvent.day(rdv.getPrestataire().getId(), rdv.getDate()));
         return toResp(rdv);
     }
 
     @Override
     public RendezVousResponse refuser(Long currentUserId, Long rdvId) {
-        RendezVous rdv = rdvRepo.findById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
+        RendezVous rdv = rdvRepo.findLockedById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
         boolean isPrestataire = Objects.equals(rdv.getPrestataire().getUser().getId(), currentUserId);
         boolean isAdmin = CurrentUser.hasRole("ADMIN");
         if (!isPrestataire && !isAdmin) {
             throw new AccessDeniedException("Seul le prestataire ou un admin peut refuser");
         }
-        if (rdv.getStatut() == StatutRdv.REFUSE || rdv.getStatut() == StatutRdv.ANNULE) return toResp(rdv);
+        if (rdv.getStatut() == StatutRdv.REFUSE || rdv.getStatut() == StatutRdv.ANNULE
+                || rdv.getStatut() == StatutRdv.EXPIRE) return toResp(rdv);
         if (rdv.getStatut() != StatutRdv.EN_ATTENTE) {
             throw new UnprocessableEntityException("Impossible de refuser un rendez-vous confirmé. Veuillez l'annuler.");
         }
+        var before = RendezVousChangedEvent.Snapshot.of(rdv);
         rdv.setStatut(StatutRdv.REFUSE);
+        availability.invalidateDay(rdv.getPrestataire().getId(), rdv.getDate());
+        events.publishEvent(RendezVousChangedEvent.changed(before, rdv));
+        events.publishEvent(SlotsChangedEvent.day(rdv.getPrestataire().getId(), rdv.getDate()));
         return toResp(rdv);
     }
 
     @Override
     public RendezVousResponse update(Long currentUserId, Long rdvId, RendezVousUpdateRequest req) {
-        RendezVous rdv = rdvRepo.findById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
+        RendezVous rdv = rdvRepo.findLockedById(rdvId).orElseThrow(() -> new EntityNotFoundException("RDV introuvable"));
         boolean isPrestataire = Objects.equals(rdv.getPrestataire().getUser().getId(), currentUserId);
         boolean isAdmin = CurrentUser.hasRole("ADMIN");
         if (!isPrestataire && !isAdmin)
@@ -166,19 +374,36 @@ public class RendezVousServiceImpl implements RendezVousService {
         final LocalTime fin = safeAddMinutes(heure, duree);
         if (covering.stream().noneMatch(d -> !fin.isAfter(d.getHeureFin())))
             throw new UnprocessableEntityException("Pas de créneau disponible couvrant cet horaire");
-        if (hasOverlap(rdv.getPrestataire().getId(), date, heure, duree, rdv.getId())) {
-            throw new UnprocessableEntityException("Créneau déjà réservé");
-        }
-        rdv.setService(service);
-        rdv.setDate(date);
-        rdv.setHeure(heure); 
-        if (rdv.getDureeMinutes() == null || rdv.getDureeMinutes() <= 0) {
-            rdv.setDureeMinutes(duree);
-        }
-        if (rdv.getStatut() == StatutRdv.CONFIRME) {
-            rdv.setStatut(StatutRdv.EN_ATTENTE);
-        }
-        return toResp(rdv);
+        final ServiceCatalog newService = service;
+        final LocalDate newDate = date;
+        final LocalTime newHeure = heure;
+        final LocalDate oldDate = rdv.getDate();
+        var before = RendezVousChangedEvent.Snapshot.of(rdv);
+        RendezVousResponse resp = admission.admit(rdv.getPrestataire().getId(), newDate, () -> {
+            if ((!rangeSchema.enforces(RangeExclusionSchema.Rule.RENDEZ_VOUS)
+                    && hasOverlap(rdv.getPrestataire().getId(), newDate, newHeure, duree, rdv.getId()))
+                    || overlapsPendingSeries(rdv.getPrestataire().getId(), newDate, newHeure, duree)) {
+                throw new UnprocessableEntityException("Créneau déjà réservé");
+            }
+            availability.invalidateDay(rdv.getPrestataire().getId(), oldDate);
+            availability.invalidateDay(rdv.getPrestataire().getId(), newDate);
+            return rangeSchema.write(RangeExclusionSchema.Rule.RENDEZ_VOUS, () -> {
+                rdv.setService(newService);
+                rdv.setDate(newDate);
+                rdv.setHeure(newHeure);
+                if (rdv.getDureeMinutes() == null || rdv.getDureeMinutes() <= 0) {
+                    rdv.setDureeMinutes(duree);
+                }
+                if (rdv.getStatut() == StatutRdv.CONFIRME) {
+                    rdv.setStatut(StatutRdv.EN_ATTENTE);
+                    rdv.setPendingSince(pendingReaper.pendingSinceNow());
+                }
+                return toResp(rdv);
+            }, "Créneau déjà réservé");
+        });
+        events.publishEvent(RendezVousChangedEvent.changed(before, rdv));
+        events.publishEvent(SlotsChangedEvent.days(rdv.getPrestataire().getId(), List.of(oldDate, newDate)));
+        return resp;
     } /* ------------ helpers ------------ */
 
     private JourSemaine dayToJour(DayOfWeek dow) {
@@ -193,6 +418,85 @@ public class RendezVousServiceImpl implements RendezVousService {
         };
     }
 
+    /** Contrôles de {@link #create} hors chevauchement, sur l'instantané préchargé. */
+    private RendezVous draft(RendezVousRequest req, User client, Map<Long, ServiceCatalog> services,
+                             Map<Long, Prestataire> prestataires, Map<Long, Set<Long>> links,
+                             Map<Long, List<Disponibilite>> dispos) {
+        ServiceCatalog sc = services.get(req.serviceId());
+        if (sc == null) throw new UnprocessableEntityException("Service introuvable");
+        Prestataire p = prestataires.get(req.prestataireId());
+        if (p == null) throw new UnprocessableEntityException("Prestataire introuvable");
+        if (!links.getOrDefault(p.getId(), Set.of()).contains(sc.getId()))
+            throw new UnprocessableEntityException("Ce prestataire n'offre pas ce service");
+        LocalDate date;
+        LocalTime heure;
+        try {
+            date = LocalDate.parse(req.date());
+            heure = LocalTime.parse(req.heure());
+        } catch (DateTimeParseException e) {
+            throw new UnprocessableEntityException("Date ou heure invalide");
+        }
+        JourSemaine jour = dayToJour(date.getDayOfWeek());
+        int duree = resolveDuration(req.dureeMin(), sc);
+        LocalTime fin = safeAddMinutes(heure, duree);
+        boolean covered = dispos.getOrDefault(p.getId(), List.of()).stream().anyMatch(d ->
+                d.getJourSemaine() == jour
+                        && (d.getService() == null || Objects.equals(d.getService().getId(), sc.getId()))
+                        && !d.getHeureDebut().isAfter(heure) && heure.isBefore(d.getHeureFin())
+                        && !fin.isAfter(d.getHeureFin()));
+        if (!covered) throw new UnprocessableEntityException("Pas de créneau disponible couvrant cet horaire");
+        return RendezVous.builder()
+                .service(sc)
+                .prestataire(p)
+                .client(client)
+                .date(date)
+                .heure(heure)
+                .dureeMinutes(duree)
+                .statut(StatutRdv.EN_ATTENTE)
+                .pendingSince(pendingReaper.pendingSinceNow())
+                .build();
+    }
+
+    /**
+     * Écarte, dans l'ordre du lot, les brouillons qui chevauchent un RDV bloquant existant ou un
+     * élément déjà retenu. À appeler sous les verrous de {@link BookingAdmission#admitAll}.
+     */
+    private List<RendezVous> rejectOverlaps(List<RendezVous> drafts, List<Integer> indexes,
+                                            Set<BookingAdmission.Key> keys, String[] errors) {
+        Set<Long> pids = keys.stream().map(BookingAdmission.Key::prestataireId).collect(Collectors.toSet());
+        Set<LocalDate> dates = keys.stream().map(BookingAdmission.Key::date).collect(Collectors.toSet());
+        Map<BookingAdmission.Key, List<int[]>> busy = new HashMap<>();
+        for (RendezVous other : rdvRepo.findByPrestataireIdInAndDateInAndStatutIn(pids, dates, BLOCKING_STATUSES)) {
+            int start = other.getHeure().toSecondOfDay() / 60;
+            busy.computeIfAbsent(new BookingAdmission.Key(other.getPrestataire().getId(), other.getDate()), k -> new ArrayList<>())
+                    .add(new int[]{start, Math.min(24 * 60, start + blockingDurationOf(other))});
+        }
+        LocalDate first = Collections.min(dates);
+        LocalDate last = Collections.max(dates);
+        for (RendezVousSeries s : seriesRepo.findPendingBetween(pids, first, last)) {
+            int start = s.getHeure().toSecondOfDay() / 60;
+            for (BookingAdmission.Key k : keys) {
+                if (k.prestataireId().equals(s.getPrestataire().getId()) && SeriesCalendar.pendingOn(s, k.date())) {
+                    busy.computeIfAbsent(k, x -> new ArrayList<>()).add(new int[]{start, start + s.getDureeMinutes()});
+                }
+            }
+        }
+        List<RendezVous> accepted = new ArrayList<>();
+        for (int d = 0; d < drafts.size(); d++) {
+            RendezVous r = drafts.get(d);
+            int start = r.getHeure().toSecondOfDay() / 60;
+            int end = start + r.getDureeMinutes();
+            List<int[]> taken = busy.computeIfAbsent(new BookingAdmission.Key(r.getPrestataire().getId(), r.getDate()), k -> new ArrayList<>());
+            if (taken.stream().anyMatch(t -> start < t[1] && t[0] < end)) {
+                errors[indexes.get(d)] = "Créneau déjà réservé";
+            } else {
+                taken.add(new int[]{start, end});
+                accepted.add(r);
+            }
+        }
+        return accepted;
+    }
+
     private int resolveDuration(Integer requested, ServiceCatalog service) {
         if (requested != null) {
             if (requested <= 0) {
@@ -200,26 +504,13 @@ public class RendezVousServiceImpl implements RendezVousService {
             }
             return requested;
         }
-        Integer serviceDuration = extractServiceDuration(service);
+        Integer serviceDuration = service == null ? null : service.getDureeMin();
         if (serviceDuration != null && serviceDuration > 0) {
             return serviceDuration;
         }
         return DEFAULT_DURATION_MINUTES;
     }
 
-    private Integer extractServiceDuration(ServiceCatalog service) {
-        if (service == null) return null;
-        try {
-            var method = service.getClass().getMethod("getDureeMin");
-            Object val = method.invoke(service);
-            if (val instanceof Integer di) {
-                return di;
-            }
-        } catch (Exception ignored) {
-        }
-        return null;
-    }
-
     private LocalTime safeAddMinutes(LocalTime start, int minutes) {
         if (minutes <= 0) {
             throw new UnprocessableEntityException("La durée doit être strictement positive");
@@ -248,20 +539,62 @@ public class RendezVousServiceImpl implements RendezVousService {
         return false;
     }
 
+    /** Chevauchement avec une occurrence pas encore matérialisée d'une série active. */
+    private boolean overlapsPendingSeries(Long prestataireId, LocalDate date, LocalTime start, int dureeMinutes) {
+        int from = start.toSecondOfDay() / 60;
+        int to = from + dureeMinutes;
+        for (RendezVousSeries s : seriesRepo.findPendingBetween(List.of(prestataireId), date, date)) {
+            if (SeriesCalendar.pendingOn(s, date) && overlaps(s, from, to)) return true;
+        }
+        return false;
+    }
+
+    /** Chevauchement entre une occurrence de {@code s} et {@code [from, to[} (minutes du jour). */
+    private static boolean overlaps(RendezVousSeries s, int from, int to) {
+        int start = s.getHeure().toSecondOfDay() / 60;
+        return from < start + s.getDureeMinutes() && start < to;
+    }
+
+    /** Dates de {@code dates} où le créneau chevauche un RDV bloquant ou une occurrence en attente d'une autre série. */
+    private List<LocalDate> seriesConflicts(Long prestataireId, List<LocalDate> dates, LocalTime heure, int duree) {
+        int from = heure.toSecondOfDay() / 60;
+        int to = from + duree;
+        Set<LocalDate> conflicts = new TreeSet<>();
+        for (RendezVous other : rdvRepo.findByPrestataireIdInAndDateInAndStatutIn(List.of(prestataireId), dates, BLOCKING_STATUSES)) {
+            int start = other.getHeure().toSecondOfDay() / 60;
+            if (from < start + blockingDurationOf(other) && start < to) conflicts.add(other.getDate());
+        }
+        List<RendezVousSeries> pending = seriesRepo.findPendingBetween(List.of(prestataireId), dates.get(0), dates.get(dates.size() - 1));
+        for (RendezVousSeries s : pending) {
+            if (!overlaps(s, from, to)) continue;
+            for (LocalDate d : dates) {
+                if (SeriesCalendar.pendingOn(s, d)) conflicts.add(d);
+            }
+        }
+        return new ArrayList<>(conflicts);
+    }
+
     private int blockingDurationOf(RendezVous rdv) {
         Integer stored = rdv.getDureeMinutes();
         if (stored != null && stored > 0) {
             return stored;
         }
-        Integer serviceDuration = extractServiceDuration(rdv.getService());
-        int duration = (serviceDuration != null && serviceDuration > 0) ? serviceDuration : DEFAULT_DURATION_MINUTES;
+        int duration = resolveDuration(null, rdv.getService());
         rdv.setDureeMinutes(duration);
         return duration;
     }
 
     private RendezVousResponse toResp(RendezVous r) {
         Integer duree = Optional.ofNullable(r.getDureeMinutes())
-                .orElseGet(() -> extractServiceDuration(r.getService()));
-        return new RendezVousResponse(r.getId(), r.getService().getId(), r.getPrestataire().getId(), r.getClient().getId(), r.getDate().toString(), r.getHeure().toString(), r.getStatut().name(), duree);
+                .orElseGet(() -> r.getService().getDureeMin());
+        return new RendezVousResponse(r.getId(), r.getService().getId(), r.getPrestataire().getId(), r.getClient().getId(), r.getDate() == null ? null : r.getDate().toString(), r.getHeure() == null ? null : r.getHeure().toString(), r.getStatut().name(), duree,
+                r.getSerie() == null ? null : r.getSerie().getId());
+    }
+
+    private RendezVousSeriesResponse toSeriesResp(RendezVousSeries s, List<RendezVous> written) {
+        return new RendezVousSeriesResponse(s.getId(), s.getService().getId(), s.getPrestataire().getId(), s.getClient().getId(),
+                s.getRecurrence().name(), s.getDateDebut().toString(), s.getDateFin().toString(), s.getHeure().toString(),
+                s.getDureeMinutes(), s.getNombreOccurrences(), s.getStatut().name(), s.getMaterialiseeJusquAu().toString(),
+                written.stream().map(this::toResp).toList());
     }
 }
@@ -1,14 +1,18 @@
 package com.ebooking.backend.service.impl;
 
+import com.ebooking.backend.config.CacheConfig;
 import com.ebooking.backend.dto.service.ServiceRequest;
 import com.ebooking.backend.dto.service.ServiceResponse;
 import com.ebooking.backend.mapper.ServiceMapper;
 import com.ebooking.backend.model.ServiceCatalog;
 import com.ebooking.backend.repository.ServiceRepository;
 import com.ebooking.backend.service.ServiceCatalogService;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.catalog.CatalogCacheEvictor;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,7 +25,10 @@ public class ServiceCatalogServiceImpl implements ServiceCatalogService {
 
     private final ServiceRepository repo;
     private final ServiceMapper mapper;
+    private final AvailabilityEngine availability;
+    private final CatalogCacheEvictor cacheEvictor;
 
+    @Cacheable(CacheConfig.SERVICES)
     @Transactional(readOnly = true)
     @Override
     public List<ServiceResponse> findAll() {
@@ -37,8 +44,10 @@ public class ServiceCatalogServiceImpl implements ServiceCatalogService {
         ServiceCatalog entity = ServiceCatalog.builder()
                 .nom(nom)
                 .description(req.description())
+                .dureeMin(req.dureeMin())
                 .build();
         entity = repo.save(entity);
+        cacheEvictor.evictServices();
         return mapper.toResponse(entity);
     }
 
@@ -53,6 +62,10 @@ public class ServiceCatalogServiceImpl implements ServiceCatalogService {
         }
         entity.setNom(nom);
         entity.setDescription(req.description());
+        // absente de la requête, la durée configurée est gardée : elle règle les créneaux de tous les prestataires
+        if (req.dureeMin() != null) entity.setDureeMin(req.dureeMin());
+        availability.invalidateService(id);
+        cacheEvictor.evictService(id);
         return mapper.toResponse(entity);
     }
 
@@ -61,6 +74,8 @@ public class ServiceCatalogServiceImpl implements ServiceCatalogService {
         ServiceCatalog entity = repo.findById(id).orElseThrow(
                 () -> new EntityNotFoundException("Service introuvable")
         );
+        cacheEvictor.evictService(id);
         repo.delete(entity);
+        availability.invalidateService(id);
     }
 }
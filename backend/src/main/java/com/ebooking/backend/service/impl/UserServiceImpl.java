@@ -6,7 +6,10 @@ import com.ebooking.backend.model.User;
 import com.ebooking.backend.model.enums.Role;
 import com.ebooking.backend.repository.UserRepository;
 import com.ebooking.backend.repository.UserRoleRepository;
+import com.ebooking.backend.security.CurrentUser;
+import com.ebooking.backend.security.TokenRevocationRegistry;
 import com.ebooking.backend.service.UserService;
+import com.ebooking.backend.service.catalog.CatalogCacheEvictor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,8 +23,12 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepo;
     private final UserRoleRepository userRoleRepo;
+    private final CatalogCacheEvictor cacheEvictor;
+    private final TokenRevocationRegistry revocations;
 
     private boolean isAdmin(Long userId) {
+        // demandeur = utilisateur authentifié : ses rôles sont déjà dans le JWT
+        if (userId.equals(CurrentUser.id())) return CurrentUser.hasRole("ADMIN");
         return userRoleRepo.existsByUserIdAndRole(userId, Role.ADMIN);
     }
     private void ensureOwnerOrAdmin(Long requesterId, Long targetUserId) {
@@ -35,22 +42,23 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserResponse getById(Long requesterId, Long id) {
         ensureOwnerOrAdmin(requesterId, id);
-        User u = userRepo.findById(id).orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable"));
-        var roles = userRoleRepo.findByUserId(u.getId()).stream().map(r -> r.getRole().name()).toList();
+        User u = userRepo.findWithRolesById(id).orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable"));
+        var roles = u.getRoles().stream().map(r -> r.getRole().name()).toList();
         return new UserResponse(u.getId(), u.getPrenom(), u.getNom(), u.getEmail(), u.getTelephone(), u.getStatut().name(), roles);
     }
 
     @Override
     public UserResponse updateById(Long requesterId, Long id, UpdateUserRequest req) {
         ensureOwnerOrAdmin(requesterId, id);
-        User u = userRepo.findById(id).orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable"));
+        User u = userRepo.findWithRolesById(id).orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable"));
 
         u.setPrenom(req.prenom().trim());
         u.setNom(req.nom().trim());
         u.setTelephone(req.telephone() == null ? null : req.telephone().trim());
         u = userRepo.save(u);
+        cacheEvictor.evictProviderOfUser(u.getId());
 
-        var roles = userRoleRepo.findByUserId(u.getId()).stream().map(r -> r.getRole().name()).toList();
+        var roles = u.getRoles().stream().map(r -> r.getRole().name()).toList();
         return new UserResponse(u.getId(), u.getPrenom(), u.getNom(), u.getEmail(), u.getTelephone(), u.getStatut().name(), roles);
     }
 
@@ -58,6 +66,8 @@ public class UserServiceImpl implements UserService {
     public void deleteById(Long requesterId, Long id) {
         ensureOwnerOrAdmin(requesterId, id);
         if (!userRepo.existsById(id)) throw new EntityNotFoundException("Utilisateur introuvable");
+        cacheEvictor.evictProviderOfUser(id);
         userRepo.deleteById(id);
+        revocations.revokeIssuedBeforeNow(id);
     }
 }
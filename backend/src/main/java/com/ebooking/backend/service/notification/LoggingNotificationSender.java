@@ -0,0 +1,14 @@
+package com.ebooking.backend.service.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LoggingNotificationSender implements NotificationSender {
+
+    @Override
+    public void send(Notification n) {
+        log.info("Notification à {} <{}> : {} — {}", n.userId(), n.destinataire(), n.sujet(), n.message());
+    }
+}
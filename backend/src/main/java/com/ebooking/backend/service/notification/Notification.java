@@ -0,0 +1,5 @@
+package com.ebooking.backend.service.notification;
+
+/** Message à remettre à un utilisateur ; {@code destinataire} est son adresse e-mail. */
+public record Notification(Long userId, String destinataire, String sujet, String message) {
+}
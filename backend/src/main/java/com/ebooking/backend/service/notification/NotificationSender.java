@@ -0,0 +1,10 @@
+package com.ebooking.backend.service.notification;
+
+/**
+ * Canal de remise des notifications (e-mail, SMS…). L'implémentation par défaut,
+ * {@link LoggingNotificationSender}, se contente de journaliser ; une implémentation
+ * réelle la remplace en se déclarant {@code @Primary}.
+ */
+public interface NotificationSender {
+    void send(Notification notification);
+}
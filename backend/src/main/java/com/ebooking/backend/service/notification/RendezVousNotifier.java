@@ -0,0 +1,56 @@
+package com.ebooking.backend.service.notification;
+
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.repository.RendezVousRepository;
+import com.ebooking.backend.service.outbox.RendezVousLifecycleEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Prévient les parties d'un rendez-vous à chaque étape de son cycle de vie. Abonné de
+ * l'outbox : une exception fait rejouer l'événement, une notification peut donc partir deux
+ * fois (au moins une fois).
+ */
+@Component
+@RequiredArgsConstructor
+public class RendezVousNotifier {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final RendezVousRepository rdvRepo;
+    private final NotificationSender sender;
+
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onLifecycle(RendezVousLifecycleEvent event) {
+        RendezVous rdv = rdvRepo.findById(event.rdvId()).orElse(null);
+        if (rdv == null) return;
+        String quand = "du " + rdv.getDate().format(DATE) + " à " + rdv.getHeure() + " (" + rdv.getService().getNom() + ")";
+        User client = rdv.getClient();
+        User pro = rdv.getPrestataire().getUser();
+        switch (event.type()) {
+            // occurrences de série : écrites par lots au fil de la matérialisation, pas une demande chacune
+            case CREE -> {
+                if (rdv.getSerie() == null) notify(pro, "Nouvelle demande de rendez-vous", "Demande de rendez-vous " + quand + ".");
+            }
+            case CONFIRME -> notify(client, "Rendez-vous confirmé", "Votre rendez-vous " + quand + " est confirmé.");
+            case REFUSE -> notify(client, "Rendez-vous refusé", "Votre demande de rendez-vous " + quand + " a été refusée.");
+            case EXPIRE -> notify(client, "Demande expirée", "Votre demande de rendez-vous " + quand
+                    + " n'a pas été confirmée à temps : le créneau est libéré.");
+            case MODIFIE -> notify(client, "Rendez-vous modifié", "Votre rendez-vous est désormais prévu " + quand + ".");
+            case ANNULE -> {
+                notify(client, "Rendez-vous annulé", "Le rendez-vous " + quand + " est annulé.");
+                notify(pro, "Rendez-vous annulé", "Le rendez-vous " + quand + " est annulé.");
+            }
+        }
+    }
+
+    private void notify(User to, String sujet, String message) {
+        sender.send(new Notification(to.getId(), to.getEmail(), sujet, message));
+    }
+}
@@ -0,0 +1,224 @@
+package com.ebooking.backend.service.outbox;
+
+import com.ebooking.backend.model.OutboxEvent;
+import com.ebooking.backend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Diffuse les lignes de {@code outbox_events} en {@link RendezVousLifecycleEvent}, sur un
+ * thread dédié : ni les requêtes ni le planificateur partagé n'attendent les abonnés.
+ * <p>
+ * Les lots sont lus par id croissant et diffusés un par un ; pour un même prestataire, c'est
+ * l'ordre des commits ({@link OutboxWriter} prend les ids sous le verrou du prestataire) : une
+ * fois une ligne visible, aucune ligne d'id inférieur du même prestataire ne peut encore
+ * apparaître. Une ligne n'est marquée publiée qu'après le retour de tous les abonnés (au moins
+ * une fois). Si un abonné échoue, les
+ * événements suivants du même prestataire attendent le nouvel essai, repoussé de façon
+ * exponentielle ; après {@code outbox.max-attempts} échecs la ligne reste en base pour
+ * analyse et ne bloque plus la file.
+ * <p>
+ * Un seul dispatcher par base ({@code outbox.dispatcher.enabled}) : deux instances qui
+ * diffusent en même temps ne garantissent plus l'ordre par prestataire.
+ * Métriques : {@code outbox.lag} (écriture → diffusion), {@code outbox.oldest.pending.age},
+ * {@code outbox.delivered}, {@code outbox.failures}.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher implements DisposableBean {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final Duration PURGE_EVERY = Duration.ofMinutes(10);
+
+    private final OutboxEventRepository outboxRepo;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper json;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final ScheduledExecutorService loop = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "outbox-dispatcher");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private volatile boolean started;
+    private volatile Instant oldestPending;
+    private Instant lastPurge = Instant.EPOCH;
+
+    private final Timer lag;
+    private final Counter delivered;
+    private final Counter failures;
+
+    public OutboxDispatcher(OutboxEventRepository outboxRepo,
+                            ApplicationEventPublisher events,
+                            ObjectMapper json,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${outbox.dispatcher.enabled:true}") boolean enabled,
+                            @Value("${outbox.poll-interval:PT1S}") Duration pollInterval,
+                            @Value("${outbox.batch-size:200}") int batchSize,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.retention:P7D}") Duration retention) {
+        this.outboxRepo = outboxRepo;
+        this.events = events;
+        this.json = json;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.lag = Timer.builder("outbox.lag").description("Délai entre l'écriture d'un événement et sa diffusion")
+                .publishPercentiles(0.5, 0.99).register(registry);
+        this.delivered = registry.counter("outbox.delivered");
+        this.failures = registry.counter("outbox.failures");
+        Gauge.builder("outbox.oldest.pending.age", this, d -> d.oldestPendingAge().toMillis() / 1000.0)
+                .description("Âge du plus ancien événement non diffusé (s)").baseUnit("seconds").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Outbox : dispatcher désactivé sur cette instance (outbox.dispatcher.enabled=false)");
+            return;
+        }
+        started = true;
+        loop.scheduleWithFixedDelay(this::drainQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Demande un passage au plus tôt (appelé après le commit d'un événement). */
+    public void wakeUp() {
+        if (!started || !wakeUpPending.compareAndSet(false, true)) return;
+        try {
+            loop.execute(() -> {
+                wakeUpPending.set(false);
+                drainQuietly();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpPending.set(false);
+        }
+    }
+
+    /** Diffuse tout ce qui est prêt ; renvoie le nombre d'événements livrés. */
+    int drain() {
+        int total = 0;
+        boolean seen = false;
+        while (true) {
+            List<OutboxEvent> batch = outboxRepo.findDispatchable(maxAttempts, Instant.now(), Limit.of(batchSize));
+            seen |= !batch.isEmpty();
+            int sent = dispatch(batch);
+            total += sent;
+            if (batch.size() < batchSize || sent == 0) break;
+        }
+        // à vide, une seule requête par passage
+        if (seen || oldestPending != null) oldestPending = outboxRepo.findOldestPending(maxAttempts);
+        purgeIfDue();
+        return total;
+    }
+
+    Duration oldestPendingAge() {
+        Instant oldest = oldestPending;
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, Instant.now());
+    }
+
+    @Override
+    public void destroy() {
+        started = false;
+        loop.shutdownNow();
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            // base indisponible… : on réessaie au prochain passage
+            log.warn("Outbox : passage interrompu", e);
+        }
+    }
+
+    private int dispatch(List<OutboxEvent> batch) {
+        List<Long> done = new ArrayList<>(batch.size());
+        Set<Long> blocked = new HashSet<>();
+        for (OutboxEvent e : batch) {
+            if (blocked.contains(e.getPrestataireId())) continue;
+            try {
+                events.publishEvent(toEvent(e));
+                done.add(e.getId());
+                lag.record(Duration.between(e.getCreeLe(), Instant.now()));
+            } catch (RuntimeException ex) {
+                blocked.add(e.getPrestataireId());
+                failed(e, ex);
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxRepo.markPublished(done, Instant.now());
+            delivered.increment(done.size());
+        }
+        return done.size();
+    }
+
+    private void failed(OutboxEvent e, RuntimeException ex) {
+        failures.increment();
+        int attempt = e.getTentatives() + 1;
+        Duration backoff = pollInterval.multipliedBy(1L << Math.min(attempt, 16));
+        if (backoff.compareTo(MAX_BACKOFF) > 0) backoff = MAX_BACKOFF;
+        String message = String.valueOf(ex.getMessage());
+        outboxRepo.recordFailure(e.getId(), message.length() > 500 ? message.substring(0, 500) : message,
+                Instant.now().plus(backoff));
+        if (attempt >= maxAttempts) {
+            log.error("Outbox : événement {} ({} du rendez-vous {}) abandonné après {} tentatives",
+                    e.getId(), e.getType(), e.getRdvId(), attempt, ex);
+        } else {
+            log.warn("Outbox : échec de diffusion de l'événement {} (tentative {}/{}), nouvel essai dans {}",
+                    e.getId(), attempt, maxAttempts, backoff, ex);
+        }
+    }
+
+    private RendezVousLifecycleEvent toEvent(OutboxEvent e) {
+        OutboxPayload payload;
+        try {
+            payload = json.readValue(e.getPayload(), OutboxPayload.class);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Contenu d'événement illisible", ex);
+        }
+        return new RendezVousLifecycleEvent(e.getId(), e.getType(), e.getRdvId(), e.getPrestataireId(),
+                payload.before(), payload.after(), e.getCreeLe());
+    }
+
+    private void purgeIfDue() {
+        Instant now = Instant.now();
+        if (Duration.between(lastPurge, now).compareTo(PURGE_EVERY) < 0) return;
+        lastPurge = now;
+        int purged = outboxRepo.deletePublishedBefore(now.minus(retention));
+        if (purged > 0) log.debug("Outbox : {} événements diffusés purgés", purged);
+    }
+}
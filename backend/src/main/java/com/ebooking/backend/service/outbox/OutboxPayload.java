@@ -0,0 +1,7 @@
+package com.ebooking.backend.service.outbox;
+
+import com.ebooking.backend.service.booking.RendezVousChangedEvent.Snapshot;
+
+/** Contenu JSON de {@code outbox_events.payload}. */
+record OutboxPayload(Snapshot before, Snapshot after) {
+}
@@ -0,0 +1,114 @@
+package com.ebooking.backend.service.outbox;
+
+import com.ebooking.backend.model.OutboxEvent;
+import com.ebooking.backend.model.enums.TypeEvenementRdv;
+import com.ebooking.backend.repository.OutboxEventRepository;
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.service.booking.RendezVousChangedEvent;
+import com.ebooking.backend.service.booking.RendezVousChangedEvent.Snapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Écrit chaque {@link RendezVousChangedEvent} dans {@code outbox_events}, juste avant le commit
+ * et dans la même transaction : l'événement existe si et seulement si le changement est commité.
+ * Après commit, le dispatcher est réveillé sans attendre son prochain passage.
+ * <p>
+ * Les événements d'une transaction sont mis de côté puis écrits ensemble au commit, après
+ * verrouillage de leurs prestataires (par id croissant, sans interblocage entre lots). Les ids
+ * de la séquence sont donc pris sous ce verrou, tenu jusqu'au commit : pour un même
+ * prestataire, l'ordre des ids est celui des commits, quelle que soit l'instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxRepo;
+    private final PrestataireRepository prestataireRepo;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper json;
+
+    @EventListener
+    public void onRendezVousChanged(RendezVousChangedEvent event) {
+        // hors transaction, rien n'est écrit
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    /** Événements d'une transaction, écrits à son commit. */
+    private class Pending implements TransactionSynchronization {
+        final List<RendezVousChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            TreeSet<Long> prestataires = new TreeSet<>();
+            events.forEach(e -> prestataires.add(e.after().prestataireId()));
+            prestataireRepo.lockByIdIn(prestataires);
+            Instant now = Instant.now();
+            outboxRepo.saveAll(events.stream().map(e -> toRow(e, now)).toList());
+        }
+
+        // une transaction imbriquée (REQUIRES_NEW) a sa propre liste
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(OutboxWriter.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+            if (status == STATUS_COMMITTED) dispatcher.wakeUp();
+        }
+    }
+
+    private OutboxEvent toRow(RendezVousChangedEvent event, Instant now) {
+        String payload;
+        try {
+            payload = json.writeValueAsString(new OutboxPayload(event.before(), event.after()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Événement de rendez-vous non sérialisable", e);
+        }
+        return OutboxEvent.builder()
+                .type(typeOf(event.before(), event.after()))
+                .rdvId(event.rdvId())
+                .prestataireId(event.after().prestataireId())
+                .payload(payload)
+                .creeLe(now)
+                .disponibleLe(now)
+                .build();
+    }
+
+    static TypeEvenementRdv typeOf(Snapshot before, Snapshot after) {
+        if (before == null) return TypeEvenementRdv.CREE;
+        if (before.statut() == after.statut()) return TypeEvenementRdv.MODIFIE;
+        return switch (after.statut()) {
+            case CONFIRME -> TypeEvenementRdv.CONFIRME;
+            case ANNULE -> TypeEvenementRdv.ANNULE;
+            case REFUSE -> TypeEvenementRdv.REFUSE;
+            case EXPIRE -> TypeEvenementRdv.EXPIRE;
+            // un rendez-vous confirmé déplacé repasse en attente
+            case EN_ATTENTE -> TypeEvenementRdv.MODIFIE;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.ebooking.backend.service.outbox;
+
+import com.ebooking.backend.model.enums.TypeEvenementRdv;
+import com.ebooking.backend.service.booking.RendezVousChangedEvent.Snapshot;
+
+import java.time.Instant;
+
+/**
+ * Événement diffusé par {@link OutboxDispatcher}, hors de toute transaction de requête, aux
+ * {@code @EventListener} de l'application. Livraison au moins une fois : un abonné peut le
+ * recevoir de nouveau après un échec ou un redémarrage, {@code outboxId} sert de clé de
+ * dédoublonnage. Pour un même prestataire, l'ordre d'écriture est respecté.
+ */
+public record RendezVousLifecycleEvent(Long outboxId, TypeEvenementRdv type, Long rdvId, Long prestataireId,
+                                       Snapshot before, Snapshot after, Instant occurredAt) {
+}
@@ -0,0 +1,188 @@
+package com.ebooking.backend.service.reminder;
+
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.repository.RendezVousRepository;
+import com.ebooking.backend.service.notification.Notification;
+import com.ebooking.backend.service.notification.NotificationSender;
+import com.ebooking.backend.service.outbox.RendezVousLifecycleEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rappels {@code reminder.hours-before} heures avant chaque rendez-vous confirmé.
+ * <p>
+ * Les rappels des {@code reminder.horizon} prochaines heures sont tenus dans une
+ * {@link TimingWheel} en mémoire, chargée depuis la base au démarrage puis à chaque
+ * {@code reminder.reload-interval} pour avancer la fenêtre. Entre deux chargements, les
+ * événements de l'outbox ({@link RendezVousLifecycleEvent}) la tiennent à jour : chaque
+ * événement relit le rendez-vous et replanifie ou retire son rappel, ce qui rend les
+ * rediffusions sans effet.
+ * <p>
+ * À l'échéance, le rappel est réservé en base ({@code rappel_envoye_pour}) avant d'être
+ * envoyé : un même créneau n'est jamais rappelé deux fois, même après un redémarrage ou avec
+ * plusieurs instances. Un arrêt entre la réservation et l'envoi perd le rappel plutôt que de
+ * le doubler.
+ */
+@Slf4j
+@Component
+public class ReminderScheduler implements DisposableBean {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final RendezVousRepository rdvRepo;
+    private final NotificationSender sender;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration before;
+    private final Duration horizon;
+    private final Duration tick;
+    private final Duration reloadInterval;
+    private final ZoneId zone;
+
+    private final TimingWheel<Long> wheel;
+    private final ScheduledExecutorService loop = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "reminder-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ReminderScheduler(RendezVousRepository rdvRepo,
+                             NotificationSender sender,
+                             PlatformTransactionManager txManager,
+                             @Value("${reminder.enabled:true}") boolean enabled,
+                             @Value("${reminder.hours-before:24}") int hoursBefore,
+                             @Value("${reminder.horizon:PT48H}") Duration horizon,
+                             @Value("${reminder.tick:PT30S}") Duration tick,
+                             @Value("${reminder.reload-interval:PT1H}") Duration reloadInterval,
+                             @Value("${spring.jackson.time-zone:Europe/Paris}") String zone) {
+        this.rdvRepo = rdvRepo;
+        this.sender = sender;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.before = Duration.ofHours(hoursBefore);
+        this.horizon = horizon;
+        this.tick = tick;
+        this.reloadInterval = reloadInterval;
+        this.zone = ZoneId.of(zone);
+        // un tour de roue couvre l'horizon : chaque case ne contient que des échéances du tour courant
+        this.wheel = new TimingWheel<>(tick, (int) Math.min(horizon.toMillis() / tick.toMillis() + 1, 1 << 16), Instant.now());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        loop.scheduleWithFixedDelay(this::reloadQuietly, 0, reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+        loop.scheduleAtFixedRate(() -> tick(Instant.now()), tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onLifecycle(RendezVousLifecycleEvent event) {
+        if (!enabled) return;
+        Optional<RendezVous> rdv = rdvRepo.findById(event.rdvId());
+        synchronized (wheel) {
+            if (rdv.isPresent()) plan(rdv.get(), Instant.now());
+            else wheel.cancel(event.rdvId());
+        }
+    }
+
+    /** Charge les rappels de la fenêtre à venir ; les rendez-vous déjà planifiés sont simplement replacés. */
+    int reload() {
+        Instant now = Instant.now();
+        LocalDate from = LocalDate.ofInstant(now, zone);
+        LocalDate to = LocalDate.ofInstant(now.plus(horizon).plus(before), zone);
+        List<RendezVous> confirmed = rdvRepo.findByStatutAndDateBetween(StatutRdv.CONFIRME, from, to);
+        int planned = 0;
+        synchronized (wheel) {
+            for (RendezVous rdv : confirmed) {
+                if (plan(rdv, now)) planned++;
+            }
+        }
+        log.debug("Rappels : {} planifiés d'ici {}", planned, horizon);
+        return planned;
+    }
+
+    /** Envoie les rappels échus à {@code now}. */
+    void tick(Instant now) {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(now);
+        }
+        for (Long id : due) {
+            try {
+                fire(id, now);
+            } catch (RuntimeException e) {
+                log.warn("Rappel du rendez-vous {} non envoyé", id, e);
+            }
+        }
+    }
+
+    Optional<Instant> scheduledAt(Long rdvId) {
+        synchronized (wheel) {
+            return wheel.deadline(rdvId);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        loop.shutdownNow();
+    }
+
+    /** Planifie ou retire le rappel de {@code rdv} ; vrai s'il est planifié. Appelé sous le verrou de la roue. */
+    private boolean plan(RendezVous rdv, Instant now) {
+        LocalDateTime slot = LocalDateTime.of(rdv.getDate(), rdv.getHeure());
+        Instant start = slot.atZone(zone).toInstant();
+        Instant at = start.minus(before);
+        boolean wanted = rdv.getStatut() == StatutRdv.CONFIRME
+                && start.isAfter(now)
+                && !slot.equals(rdv.getRappelEnvoyePour())
+                && !at.isAfter(now.plus(horizon));
+        if (wanted) wheel.schedule(rdv.getId(), at);
+        else wheel.cancel(rdv.getId());
+        return wanted;
+    }
+
+    private void fire(Long id, Instant now) {
+        Notification n = tx.execute(status -> {
+            RendezVous rdv = rdvRepo.findById(id).orElse(null);
+            if (rdv == null) return null;
+            LocalDateTime slot = LocalDateTime.of(rdv.getDate(), rdv.getHeure());
+            Instant start = slot.atZone(zone).toInstant();
+            if (!start.isAfter(now)) return null;
+            if (start.minus(before).isAfter(now.plus(tick))) {
+                // déplacé entre-temps sans que l'événement soit encore arrivé
+                synchronized (wheel) {
+                    plan(rdv, now);
+                }
+                return null;
+            }
+            if (rdvRepo.claimReminder(id, slot) == 0) return null;
+            return new Notification(rdv.getClient().getId(), rdv.getClient().getEmail(), "Rappel de rendez-vous",
+                    "Rappel : votre rendez-vous du " + rdv.getDate().format(DATE) + " à " + rdv.getHeure()
+                            + " (" + rdv.getService().getNom() + ").");
+        });
+        if (n != null) sender.send(n);
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Rappels : chargement interrompu, nouvel essai dans {}", reloadInterval, e);
+        }
+    }
+}
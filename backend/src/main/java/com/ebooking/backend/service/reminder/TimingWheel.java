@@ -0,0 +1,85 @@
+package com.ebooking.backend.service.reminder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Roue temporelle hachée : une case par tic, parcourue circulairement. Une échéance est rangée
+ * dans la case de son tic ; si elle tombe au-delà d'un tour de roue, elle y attend les tours
+ * suivants (comparaison à son tic absolu). Ajout, remplacement et annulation en O(1) ; un
+ * {@link #advance} ne visite que les cases écoulées. Échéances arrondies au tic supérieur.
+ * Non thread-safe : l'appelant sérialise les accès.
+ */
+final class TimingWheel<K> {
+
+    private record Entry<K>(K key, long tick, Instant at) {}
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Map<K, Entry<K>>> buckets;
+    private final Map<K, Entry<K>> byKey = new HashMap<>();
+    private long currentTick;
+
+    /** @param slots arrondi à la puissance de deux supérieure */
+    TimingWheel(Duration tick, int slots, Instant start) {
+        this.tickMillis = tick.toMillis();
+        int size = Integer.highestOneBit(Math.max(2, slots) - 1) << 1;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) buckets.add(null);
+        this.currentTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+    }
+
+    /** Remplace l'échéance de {@code key}. Une échéance déjà passée part au prochain tic. */
+    void schedule(K key, Instant at) {
+        cancel(key);
+        long tick = Math.max(Math.floorDiv(at.toEpochMilli() + tickMillis - 1, tickMillis), currentTick + 1);
+        Entry<K> e = new Entry<>(key, tick, at);
+        byKey.put(key, e);
+        int slot = (int) (tick & mask);
+        Map<K, Entry<K>> bucket = buckets.get(slot);
+        if (bucket == null) buckets.set(slot, bucket = new LinkedHashMap<>());
+        bucket.put(key, e);
+    }
+
+    boolean cancel(K key) {
+        Entry<K> e = byKey.remove(key);
+        if (e == null) return false;
+        buckets.get((int) (e.tick() & mask)).remove(key);
+        return true;
+    }
+
+    Optional<Instant> deadline(K key) {
+        Entry<K> e = byKey.get(key);
+        return e == null ? Optional.empty() : Optional.of(e.at());
+    }
+
+    int size() {
+        return byKey.size();
+    }
+
+    /** Avance jusqu'à {@code now} et retire les clés échues, par tic croissant. */
+    List<K> advance(Instant now) {
+        long target = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        if (target <= currentTick) return List.of();
+        List<Entry<K>> due = new ArrayList<>();
+        // après une longue pause, un tour complet suffit à visiter toutes les cases
+        long steps = Math.min(target - currentTick, mask + 1L);
+        for (long i = 1; i <= steps; i++) {
+            Map<K, Entry<K>> bucket = buckets.get((int) ((currentTick + i) & mask));
+            if (bucket == null || bucket.isEmpty()) continue;
+            for (Iterator<Entry<K>> it = bucket.values().iterator(); it.hasNext(); ) {
+                Entry<K> e = it.next();
+                if (e.tick() <= target) {
+                    it.remove();
+                    byKey.remove(e.key());
+                    due.add(e);
+                }
+            }
+        }
+        currentTick = target;
+        if (steps > 1) due.sort(Comparator.comparingLong(Entry::tick));
+        return due.stream().map(Entry::key).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ebooking.backend.service.search;
+
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.repository.PrestataireServiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recherche plein texte des prestataires (spécialité, adresse, nom, services proposés) servie par
+ * un {@link ProviderTextIndex} chargé au démarrage. Les écritures du catalogue signalent les fiches
+ * touchées via {@link #invalidate} (voir {@code CatalogCacheEvictor}) ; elles sont relues en un lot
+ * au début de la recherche suivante.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProviderSearchIndex implements SmartInitializingSingleton {
+
+    static final int WEIGHT_SPECIALITE = 4;
+    static final int WEIGHT_SERVICE = 3;
+    static final int WEIGHT_NOM = 2;
+    static final int WEIGHT_ADRESSE = 1;
+    /** Taille des lots de relecture (requêtes IN). */
+    private static final int REFRESH_BATCH = 500;
+
+    private final PrestataireRepository prestataireRepo;
+    private final PrestataireServiceRepository prestataireServiceRepo;
+    private final ProviderTextIndex index = new ProviderTextIndex();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        load(prestataireRepo.findSearchRows(), prestataireServiceRepo.findServiceNames(), Set.of());
+        log.info("Index de recherche prestataires : {} fiches en {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Fiches à relire. Marquées tout de suite puis de nouveau après commit, pour qu'une recherche
+     * lancée avant le commit ne fige pas l'ancienne version.
+     */
+    public void invalidate(Collection<Long> prestataireIds) {
+        List<Long> ids = List.copyOf(prestataireIds);
+        stale.addAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.addAll(ids);
+                }
+            });
+        }
+    }
+
+    public List<ProviderTextIndex.Hit> search(String query, ProviderTextIndex.Hit after, int limit) {
+        refreshStale();
+        return index.search(query, after, limit);
+    }
+
+    private void refreshStale() {
+        if (stale.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(stale);
+        stale.removeAll(ids);
+        for (int i = 0; i < ids.size(); i += REFRESH_BATCH) {
+            List<Long> batch = ids.subList(i, Math.min(ids.size(), i + REFRESH_BATCH));
+            load(prestataireRepo.findSearchRowsByIdIn(batch), prestataireServiceRepo.findServiceNamesByPrestataireIdIn(batch), batch);
+        }
+    }
+
+    /**
+     * @param rows        [id, spécialité, adresse, prénom, nom]
+     * @param links       [prestataireId, nom du service]
+     * @param requested   fiches demandées : celles absentes de {@code rows} ont été supprimées
+     */
+    private void load(List<Object[]> rows, List<Object[]> links, Collection<Long> requested) {
+        Map<Long, List<String>> services = new HashMap<>();
+        for (Object[] l : links) {
+            services.computeIfAbsent((Long) l[0], k -> new ArrayList<>()).add((String) l[1]);
+        }
+        Set<Long> missing = new HashSet<>(requested);
+        for (Object[] r : rows) {
+            Long id = (Long) r[0];
+            missing.remove(id);
+            List<ProviderTextIndex.Field> fields = new ArrayList<>();
+            fields.add(new ProviderTextIndex.Field((String) r[1], WEIGHT_SPECIALITE));
+            fields.add(new ProviderTextIndex.Field((String) r[2], WEIGHT_ADRESSE));
+            fields.add(new ProviderTextIndex.Field(r[3] + " " + r[4], WEIGHT_NOM));
+            for (String s : services.getOrDefault(id, List.of())) {
+                fields.add(new ProviderTextIndex.Field(s, WEIGHT_SERVICE));
+            }
+            index.put(id, fields);
+        }
+        missing.forEach(index::remove);
+    }
+}
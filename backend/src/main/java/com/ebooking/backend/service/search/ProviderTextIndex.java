@@ -0,0 +1,228 @@
+package com.ebooking.backend.service.search;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire des fiches prestataires. Les textes sont réduits en termes (minuscules,
+ * sans accents, alphanumériques d'au moins deux caractères) ; chaque terme pointe vers les
+ * documents qui le contiennent, avec un poids = somme des poids des champs où il apparaît.
+ * <p>
+ * Une requête est un ET de ses termes, chacun pris comme préfixe ("coif" trouve "coiffeuse") ;
+ * le score d'un document est la somme, par terme de requête, du poids du terme trouvé, doublé
+ * quand il correspond exactement. Les documents sont numérotés par ordinal dense pour que le
+ * calcul se fasse dans des tableaux plutôt que dans des maps.
+ */
+public final class ProviderTextIndex {
+
+    /** Texte d'un champ et son poids dans le classement. */
+    public record Field(String text, int weight) {}
+
+    /** Résultat : identifiant du prestataire et score (plus grand = plus pertinent). */
+    public record Hit(long id, int score) {}
+
+    /** Ordre des résultats : score décroissant puis id croissant. */
+    public static final Comparator<Hit> RANKING =
+            Comparator.comparingInt(Hit::score).reversed().thenComparingLong(Hit::id);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    /** Au-delà, un préfixe trop court ("pa") est jugé peu sélectif et n'est plus étendu. */
+    private static final int MAX_PREFIX_EXPANSION = 256;
+    /** Termes de requête pris en compte (les suivants sont ignorés). */
+    static final int MAX_QUERY_TERMS = 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ids = new long[64];
+    private String[][] docTerms = new String[64][];
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int ordinalCount;
+
+    /** Remplace le document {@code id} (ajout s'il n'existe pas). */
+    public void put(long id, List<Field> fields) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (Field f : fields) {
+            for (String t : tokens(f.text())) weights.merge(t, f.weight(), Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (weights.isEmpty()) return;
+            int ord = allocate(id);
+            String[] keys = new String[weights.size()];
+            int i = 0;
+            for (var e : weights.entrySet()) {
+                Postings p = terms.computeIfAbsent(e.getKey(), k -> new Postings());
+                p.add(ord, e.getValue());
+                // clé du dictionnaire partagée : une seule instance par terme
+                keys[i++] = terms.ceilingKey(e.getKey());
+            }
+            docTerms[ord] = keys;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Les {@code limit} meilleurs résultats classés après {@code after} (exclu ; {@code null}
+     * pour la première page). Liste vide si la requête ne contient aucun terme exploitable.
+     */
+    public List<Hit> search(String query, Hit after, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokens(query)));
+        if (queryTerms.isEmpty() || limit <= 0) return List.of();
+        if (queryTerms.size() > MAX_QUERY_TERMS) queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        lock.readLock().lock();
+        try {
+            int n = ordinalCount;
+            int[] scores = new int[n];
+            // matched[ord] = nombre de termes de requête déjà satisfaits par le document
+            byte[] matched = new byte[n];
+            int[] candidates = null;
+            int candidateCount = 0;
+            for (int q = 0; q < queryTerms.size(); q++) {
+                String term = queryTerms.get(q);
+                int[] next = new int[candidates == null ? 16 : Math.max(16, candidateCount)];
+                int nextCount = 0;
+                for (var e : expand(term)) {
+                    Postings p = e.getValue();
+                    int factor = e.getKey().equals(term) ? 2 : 1;
+                    for (int i = 0; i < p.size; i++) {
+                        int ord = p.ords[i];
+                        if (matched[ord] != q) continue;
+                        matched[ord] = (byte) (q + 1);
+                        scores[ord] += p.weights[i] * factor;
+                        if (nextCount == next.length) next = Arrays.copyOf(next, next.length * 2);
+                        next[nextCount++] = ord;
+                    }
+                }
+                if (nextCount == 0) return List.of();
+                candidates = next;
+                candidateCount = nextCount;
+            }
+            return topAfter(candidates, candidateCount, scores, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Termes normalisés d'un texte, dans l'ordre, doublons compris. */
+    public static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> out = new ArrayList<>();
+        for (String t : SEPARATORS.split(folded)) {
+            if (t.length() >= 2) out.add(t);
+        }
+        return out;
+    }
+
+    /** Terme exact d'abord (bonus), puis les autres termes de même préfixe. */
+    private List<Map.Entry<String, Postings>> expand(String term) {
+        List<Map.Entry<String, Postings>> out = new ArrayList<>();
+        Postings exact = terms.get(term);
+        if (exact != null) out.add(Map.entry(term, exact));
+        for (var e : terms.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+            if (out.size() >= MAX_PREFIX_EXPANSION) break;
+            out.add(e);
+        }
+        return out;
+    }
+
+    private List<Hit> topAfter(int[] candidates, int count, int[] scores, Hit after, int limit) {
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (int i = 0; i < count; i++) {
+            int ord = candidates[i];
+            Hit h = new Hit(ids[ord], scores[ord]);
+            if (after != null && RANKING.compare(h, after) <= 0) continue;
+            if (top.size() < limit) {
+                top.add(h);
+            } else if (RANKING.compare(h, top.peek()) < 0) {
+                top.poll();
+                top.add(h);
+            }
+        }
+        List<Hit> out = new ArrayList<>(top);
+        out.sort(RANKING);
+        return out;
+    }
+
+    private int allocate(long id) {
+        int ord;
+        if (!freeOrdinals.isEmpty()) {
+            ord = freeOrdinals.pop();
+        } else {
+            ord = ordinalCount++;
+            if (ord == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                docTerms = Arrays.copyOf(docTerms, docTerms.length * 2);
+            }
+        }
+        ids[ord] = id;
+        ordinals.put(id, ord);
+        return ord;
+    }
+
+    private void removeLocked(long id) {
+        Integer ord = ordinals.remove(id);
+        if (ord == null) return;
+        for (String t : docTerms[ord]) {
+            Postings p = terms.get(t);
+            p.remove(ord);
+            if (p.size == 0) terms.remove(t);
+        }
+        docTerms[ord] = null;
+        freeOrdinals.push(ord);
+    }
+
+    /** Liste non triée (ordinal, poids) ; retrait par échange avec le dernier élément. */
+    private static final class Postings {
+        int[] ords = new int[4];
+        int[] weights = new int[4];
+        int size;
+
+        void add(int ord, int weight) {
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ords[size] = ord;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int ord) {
+            for (int i = 0; i < size; i++) {
+                if (ords[i] == ord) {
+                    size--;
+                    ords[i] = ords[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ebooking.backend.service.series;
+
+import com.ebooking.backend.model.RendezVousSeries;
+import com.ebooking.backend.model.enums.RecurrenceSerie;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calcul des occurrences d'une série sans les lire en base : une date est une occurrence si
+ * elle tombe entre la première et la dernière, à un multiple de l'intervalle. Une occurrence
+ * est « en attente » tant qu'elle est postérieure à {@code materialiseeJusquAu}.
+ */
+public final class SeriesCalendar {
+
+    private SeriesCalendar() {
+    }
+
+    /** Dernière occurrence d'une série bornée par {@code count} ou par {@code until} (au moins l'un des deux). */
+    public static LocalDate lastDate(LocalDate first, RecurrenceSerie recurrence, Integer count, LocalDate until) {
+        if (count != null) return first.plusWeeks((long) (count - 1) * recurrence.semaines());
+        long steps = ChronoUnit.WEEKS.between(first, until) / recurrence.semaines();
+        return first.plusWeeks(steps * recurrence.semaines());
+    }
+
+    /** Occurrences de {@code [from, to]}, matérialisées ou non. */
+    public static List<LocalDate> dates(LocalDate first, RecurrenceSerie recurrence, LocalDate last, LocalDate from, LocalDate to) {
+        List<LocalDate> out = new ArrayList<>();
+        long step = recurrence.semaines();
+        LocalDate d = first;
+        if (from.isAfter(first)) {
+            long weeks = ChronoUnit.WEEKS.between(first, from);
+            d = first.plusWeeks(weeks - weeks % step);
+            if (d.isBefore(from)) d = d.plusWeeks(step);
+        }
+        LocalDate end = to.isBefore(last) ? to : last;
+        for (; !d.isAfter(end); d = d.plusWeeks(step)) out.add(d);
+        return out;
+    }
+
+    public static boolean occursOn(RendezVousSeries s, LocalDate date) {
+        if (date.isBefore(s.getDateDebut()) || date.isAfter(s.getDateFin())) return false;
+        return ChronoUnit.DAYS.between(s.getDateDebut(), date) % (7L * s.getRecurrence().semaines()) == 0;
+    }
+
+    /** Occurrence pas encore écrite dans {@code rendez_vous} : à compter comme un rendez-vous bloquant. */
+    public static boolean pendingOn(RendezVousSeries s, LocalDate date) {
+        return date.isAfter(s.getMaterialiseeJusquAu()) && occursOn(s, date);
+    }
+
+    /** Occurrences en attente de {@code [from, to]}. */
+    public static List<LocalDate> pendingDates(RendezVousSeries s, LocalDate from, LocalDate to) {
+        LocalDate start = s.getMaterialiseeJusquAu().plusDays(1);
+        return dates(s.getDateDebut(), s.getRecurrence(), s.getDateFin(), from.isAfter(start) ? from : start, to);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ebooking.backend.service.series;
+
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.RendezVousSeries;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.model.enums.StatutSerie;
+import com.ebooking.backend.repository.RendezVousRepository;
+import com.ebooking.backend.repository.RendezVousSeriesRepository;
+import com.ebooking.backend.service.booking.RendezVousBatchWriter;
+import com.ebooking.backend.service.booking.RendezVousChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Écrit dans {@code rendez_vous} les occurrences des séries qui entrent dans la fenêtre
+ * {@code series.materialize-ahead-days}. Au-delà, les occurrences restent calculées
+ * ({@link SeriesCalendar}) : une série sur deux ans ne coûte que quelques lignes.
+ * <p>
+ * L'occupation des créneaux ne change pas quand une occurrence passe d'« en attente » à
+ * « écrite » : le cache de {@code AvailabilityEngine} n'a pas à être invalidé.
+ */
+@Slf4j
+@Component
+public class SeriesMaterializer {
+
+    private static final int BATCH = 200;
+    private static final List<StatutRdv> BLOCKING_STATUSES = List.of(StatutRdv.EN_ATTENTE, StatutRdv.CONFIRME);
+    private static final int DEFAULT_DURATION_MINUTES = 60;
+
+    private final RendezVousSeriesRepository seriesRepo;
+    private final RendezVousRepository rdvRepo;
+    private final RendezVousBatchWriter batchWriter;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final int aheadDays;
+
+    public SeriesMaterializer(RendezVousSeriesRepository seriesRepo,
+                              RendezVousRepository rdvRepo,
+                              RendezVousBatchWriter batchWriter,
+                              ApplicationEventPublisher events,
+                              PlatformTransactionManager txManager,
+                              @Value("${series.materialize-ahead-days:28}") int aheadDays) {
+        this.seriesRepo = seriesRepo;
+        this.rdvRepo = rdvRepo;
+        this.batchWriter = batchWriter;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.aheadDays = aheadDays;
+    }
+
+    /** Dernière date matérialisée d'avance. */
+    public LocalDate horizon() {
+        return LocalDate.now().plusDays(aheadDays);
+    }
+
+    /**
+     * Écrit les occurrences en attente jusqu'à {@code horizon} et avance
+     * {@code materialiseeJusquAu}. La série doit être verrouillée par l'appelant.
+     * <p>
+     * Une occurrence dont le créneau est déjà pris par un rendez-vous bloquant (réservé avant
+     * que les réservations ne tiennent compte des séries) n'est pas écrite : elle est abandonnée
+     * et journalisée, le reste de la série suit.
+     */
+    public List<RendezVous> materialize(RendezVousSeries s, LocalDate horizon) {
+        LocalDate until = horizon.isBefore(s.getDateFin()) ? horizon : s.getDateFin();
+        if (s.getStatut() != StatutSerie.ACTIVE || !until.isAfter(s.getMaterialiseeJusquAu())) return List.of();
+        List<LocalDate> dates = SeriesCalendar.pendingDates(s, s.getDateDebut(), until);
+        Set<LocalDate> taken = taken(s, dates);
+        if (!taken.isEmpty()) {
+            log.warn("Série {} : créneau de {} déjà pris, occurrence(s) non écrite(s) : {}", s.getId(), s.getHeure(), taken);
+        }
+        List<RendezVous> rows = dates.stream()
+                .filter(d -> !taken.contains(d))
+                .map(d -> RendezVous.builder()
+                        .service(s.getService())
+                        .prestataire(s.getPrestataire())
+                        .client(s.getClient())
+                        .date(d)
+                        .heure(s.getHeure())
+                        .dureeMinutes(s.getDureeMinutes())
+                        .statut(StatutRdv.EN_ATTENTE)
+                        .serie(s)
+                        .build())
+                .toList();
+        batchWriter.insert(rows);
+        s.setMaterialiseeJusquAu(until);
+        rows.forEach(r -> events.publishEvent(RendezVousChangedEvent.created(r)));
+        return rows;
+    }
+
+    /**
+     * Une transaction par série : un échec (contrainte d'exclusion…) n'annule que la série en
+     * cause, réessayée au prochain passage, et le parcours par id continue au-delà.
+     */
+    @Scheduled(cron = "${series.materialize-cron:0 0 3 * * *}", zone = "${spring.jackson.time-zone:Europe/Paris}")
+    public void materializeDue() {
+        LocalDate horizon = horizon();
+        int series = 0;
+        int rows = 0;
+        int failed = 0;
+        long afterId = 0;
+        List<Long> due;
+        while (!(due = seriesRepo.findToMaterialize(horizon, afterId, Limit.of(BATCH))).isEmpty()) {
+            for (Long id : due) {
+                afterId = id;
+                try {
+                    rows += tx.execute(status -> materialize(seriesRepo.findLockedById(id).orElseThrow(), horizon).size());
+                    series++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.warn("Série {} non matérialisée, nouvel essai au prochain passage", id, e);
+                }
+            }
+        }
+        if (series > 0) log.info("Séries : {} occurrences matérialisées pour {} séries (horizon {})", rows, series, horizon);
+        if (failed > 0) log.warn("Séries : {} série(s) en échec (horizon {})", failed, horizon);
+    }
+
+    /** Dates de {@code dates} où le créneau de la série chevauche un rendez-vous bloquant. */
+    private Set<LocalDate> taken(RendezVousSeries s, List<LocalDate> dates) {
+        Set<LocalDate> taken = new HashSet<>();
+        if (dates.isEmpty()) return taken;
+        int from = s.getHeure().toSecondOfDay() / 60;
+        int to = from + s.getDureeMinutes();
+        for (RendezVous other : rdvRepo.findByPrestataireIdInAndDateInAndStatutIn(List.of(s.getPrestataire().getId()), dates, BLOCKING_STATUSES)) {
+            int start = other.getHeure().toSecondOfDay() / 60;
+            if (from < start + durationOf(other) && start < to) taken.add(other.getDate());
+        }
+        return taken;
+    }
+
+    private static int durationOf(RendezVous rdv) {
+        Integer stored = rdv.getDureeMinutes();
+        if (stored != null && stored > 0) return stored;
+        Integer service = rdv.getService().getDureeMin();
+        return service != null && service > 0 ? service : DEFAULT_DURATION_MINUTES;
+    }
+}
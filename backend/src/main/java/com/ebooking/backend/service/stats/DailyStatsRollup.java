@@ -0,0 +1,171 @@
+package com.ebooking.backend.service.stats;
+
+import com.ebooking.backend.repository.DailyStatRepository;
+import com.ebooking.backend.repository.RendezVousRepository;
+import com.ebooking.backend.service.booking.RendezVousChangedEvent;
+import com.ebooking.backend.service.booking.RendezVousChangedEvent.Snapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Tenue de la table {@code daily_stats}.
+ * <ul>
+ *   <li>incrémentale : chaque {@link RendezVousChangedEvent} applique son delta (−1 sur l'ancienne
+ *   clé, +1 sur la nouvelle) juste avant le commit, dans la transaction du rendez-vous ;</li>
+ *   <li>réconciliation nocturne : reconstruction d'une fenêtre glissante autour d'aujourd'hui ;</li>
+ *   <li>reconstruction à la demande ({@code POST /admin/stats/rollup/rebuild}) pour les reprises.</li>
+ * </ul>
+ * Sous PostgreSQL, la reconstruction verrouille la table en {@code SHARE ROW EXCLUSIVE} : les
+ * deltas concurrents attendent son commit et s'appliquent ensuite sur les lignes recalculées.
+ */
+@Slf4j
+@Component
+public class DailyStatsRollup {
+
+    private static final String UPSERT_POSTGRES = """
+            INSERT INTO daily_stats (jour, prestataire_id, service_id, statut, nb_rdv, minutes_reservees)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (jour, prestataire_id, service_id, statut) DO UPDATE
+            SET nb_rdv = daily_stats.nb_rdv + EXCLUDED.nb_rdv,
+                minutes_reservees = daily_stats.minutes_reservees + EXCLUDED.minutes_reservees
+            """;
+
+    private static final String UPSERT_STANDARD = """
+            MERGE INTO daily_stats t
+            USING (VALUES (CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS VARCHAR(16)),
+                           CAST(? AS BIGINT), CAST(? AS BIGINT)))
+                AS s(jour, prestataire_id, service_id, statut, nb_rdv, minutes_reservees)
+            ON t.jour = s.jour AND t.prestataire_id = s.prestataire_id
+               AND t.service_id = s.service_id AND t.statut = s.statut
+            WHEN MATCHED THEN UPDATE SET nb_rdv = t.nb_rdv + s.nb_rdv,
+                                         minutes_reservees = t.minutes_reservees + s.minutes_reservees
+            WHEN NOT MATCHED THEN INSERT (jour, prestataire_id, service_id, statut, nb_rdv, minutes_reservees)
+                VALUES (s.jour, s.prestataire_id, s.service_id, s.statut, s.nb_rdv, s.minutes_reservees)
+            """;
+
+    private static final String REBUILD_SELECT = """
+            INSERT INTO daily_stats (jour, prestataire_id, service_id, statut, nb_rdv, minutes_reservees)
+            SELECT r.date_rdv, r.prestataire_id, r.service_id, r.statut,
+                   COUNT(*), SUM(COALESCE(r.duree_minutes, s.duree_min, 60))
+            FROM rendez_vous r JOIN services s ON s.id = r.service_id
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final DailyStatRepository statsRepo;
+    private final RendezVousRepository rdvRepo;
+    private final int reconcileDaysBack;
+    private final int reconcileDaysAhead;
+    private final boolean backfillOnStartup;
+    private final ZoneId zone;
+    private volatile Boolean postgres;
+
+    public DailyStatsRollup(JdbcTemplate jdbc, DailyStatRepository statsRepo, RendezVousRepository rdvRepo,
+                            @Value("${stats.rollup.reconcile-days-back:7}") int reconcileDaysBack,
+                            @Value("${stats.rollup.reconcile-days-ahead:365}") int reconcileDaysAhead,
+                            @Value("${stats.rollup.backfill-on-startup:true}") boolean backfillOnStartup,
+                            @Value("${spring.jackson.time-zone:Europe/Paris}") String zone) {
+        this.jdbc = jdbc;
+        this.statsRepo = statsRepo;
+        this.rdvRepo = rdvRepo;
+        this.reconcileDaysBack = reconcileDaysBack;
+        this.reconcileDaysAhead = reconcileDaysAhead;
+        this.backfillOnStartup = backfillOnStartup;
+        this.zone = ZoneId.of(zone);
+    }
+
+    private record Key(LocalDate date, Long prestataireId, Long serviceId, String statut) {
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::date)
+                .thenComparing(Key::prestataireId).thenComparing(Key::serviceId).thenComparing(Key::statut);
+
+        static Key of(Snapshot s) {
+            return new Key(s.date(), s.prestataireId(), s.serviceId(), s.statut().name());
+        }
+    }
+
+    /** Avant commit : le delta est atomique avec l'écriture du RDV et disparaît avec son rollback. */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onRendezVousChanged(RendezVousChangedEvent event) {
+        // clés triées : deux transactions touchant les mêmes lignes les verrouillent dans le même ordre
+        Map<Key, long[]> deltas = new TreeMap<>(Key.ORDER);
+        if (event.before() != null) add(deltas, event.before(), -1);
+        if (event.after() != null) add(deltas, event.after(), 1);
+        String upsert = isPostgres() ? UPSERT_POSTGRES : UPSERT_STANDARD;
+        deltas.forEach((k, d) -> {
+            if (d[0] == 0 && d[1] == 0) return;
+            jdbc.update(upsert, Date.valueOf(k.date()), k.prestataireId(), k.serviceId(), k.statut(), d[0], d[1]);
+        });
+    }
+
+    private static void add(Map<Key, long[]> deltas, Snapshot s, int sign) {
+        long[] d = deltas.computeIfAbsent(Key.of(s), k -> new long[2]);
+        d[0] += sign;
+        d[1] += (long) sign * s.minutes();
+    }
+
+    /** Recalcule les jours de [from, to] depuis {@code rendez_vous} ; bornes nulles = toute la table. */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (isPostgres()) jdbc.execute("LOCK TABLE daily_stats IN SHARE ROW EXCLUSIVE MODE");
+        List<Object> args = new ArrayList<>();
+        String range = range("jour", from, to, args);
+        jdbc.update("DELETE FROM daily_stats" + range, args.toArray());
+        args.clear();
+        String where = range("r.date_rdv", from, to, args);
+        int rows = jdbc.update(REBUILD_SELECT + where + " GROUP BY r.date_rdv, r.prestataire_id, r.service_id, r.statut",
+                args.toArray());
+        log.info("daily_stats reconstruite sur [{}, {}] : {} lignes", from, to, rows);
+        return rows;
+    }
+
+    @Scheduled(cron = "${stats.rollup.reconcile-cron:0 30 3 * * *}", zone = "${spring.jackson.time-zone:Europe/Paris}")
+    @Transactional
+    public void reconcile() {
+        LocalDate today = LocalDate.now(zone);
+        rebuild(today.minusDays(reconcileDaysBack), today.plusDays(reconcileDaysAhead));
+    }
+
+    /** Premier démarrage après l'ajout de la table : reprise de l'historique. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (backfillOnStartup && statsRepo.count() == 0 && rdvRepo.count() > 0) {
+            rebuild(null, null);
+        }
+    }
+
+    private static String range(String column, LocalDate from, LocalDate to, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add(column + " >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add(column + " <= ?");
+            args.add(Date.valueOf(to));
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            postgres = pg = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return pg;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ebooking.backend.bench;
+
+import com.ebooking.backend.BackendApplication;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.repository.*;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertions en masse de {@code Disponibilite} et {@code RendezVous} par {@code saveAll}, en
+ * lignes par seconde : {@code batchSize=1} reproduit un aller-retour par ligne (le
+ * comportement sous {@code IDENTITY}), {@code 50} la configuration livrée. H2 est servi en TCP
+ * sur la boucle locale pour que chaque aller-retour coûte réellement quelque chose ; face à
+ * PostgreSQL sur le réseau, l'écart ne peut être que plus grand.
+ * <p>
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=BulkInsert}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 500;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private Server h2;
+    private ConfigurableApplicationContext ctx;
+    private TransactionTemplate tx;
+    private JdbcTemplate jdbc;
+    private DisponibiliteRepository dispoRepo;
+    private RendezVousRepository rdvRepo;
+    private Prestataire prestataire;
+    private ServiceCatalog service;
+    private User client;
+
+    @Setup
+    public void setUp() throws SQLException {
+        h2 = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        ctx = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:tcp://localhost:" + h2.getPort() + "/mem:bulk-insert-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--stats.rollup.backfill-on-startup=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN");
+        tx = ctx.getBean(TransactionTemplate.class);
+        jdbc = ctx.getBean(JdbcTemplate.class);
+        dispoRepo = ctx.getBean(DisponibiliteRepository.class);
+        rdvRepo = ctx.getBean(RendezVousRepository.class);
+
+        UserRepository userRepo = ctx.getBean(UserRepository.class);
+        client = userRepo.save(user("client"));
+        service = ctx.getBean(ServiceRepository.class).save(ServiceCatalog.builder().nom("Coupe").dureeMin(30).build());
+        Prestataire p = new Prestataire();
+        p.setUser(userRepo.save(user("pro")));
+        p.setSpecialite("Coiffure");
+        prestataire = ctx.getBean(PrestataireRepository.class).save(p);
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() {
+        jdbc.update("DELETE FROM rendez_vous");
+        jdbc.update("DELETE FROM disponibilites");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+        h2.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Disponibilite> disponibilites() {
+        List<Disponibilite> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            LocalTime start = LocalTime.of(6, 0).plusMinutes(i % 600);
+            rows.add(Disponibilite.builder().prestataire(prestataire).jourSemaine(JourSemaine.values()[i % 7])
+                    .heureDebut(start).heureFin(start.plusMinutes(30)).build());
+        }
+        return tx.execute(s -> dispoRepo.saveAll(rows));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<RendezVous> rendezVous() {
+        LocalDate day = LocalDate.of(2030, 1, 7);
+        List<RendezVous> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(RendezVous.builder().service(service).prestataire(prestataire).client(client)
+                    .date(day.plusDays(i / 20)).heure(LocalTime.of(8, 0).plusMinutes(30L * (i % 20)))
+                    .dureeMinutes(30).statut(StatutRdv.EN_ATTENTE).build());
+        }
+        return tx.execute(s -> rdvRepo.saveAll(rows));
+    }
+
+    private static User user(String prefix) {
+        User u = new User();
+        u.setPrenom("Bench");
+        u.setNom(prefix);
+        u.setEmail(prefix + "@bench.com");
+        u.setTelephone(prefix.equals("client") ? "0600000001" : "0600000002");
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
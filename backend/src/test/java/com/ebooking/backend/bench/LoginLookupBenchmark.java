@@ -0,0 +1,87 @@
+package com.ebooking.backend.bench;
+
+import com.ebooking.backend.BackendApplication;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.model.UserRole;
+import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.repository.UserRoleRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche de l'utilisateur à la connexion, hors BCrypt : ancien chemin (utilisateur puis
+ * {@code UserRoleRepository.findByUserId}, deux requêtes et deux transactions) contre
+ * {@code findWithRolesByEmailIgnoreCase} (une jointure). Mode échantillonné pour lire le p99.
+ * Sur H2 en mémoire l'aller-retour ne coûte presque rien : l'écart mesuré est un plancher de
+ * ce qu'on gagne face à PostgreSQL sur le réseau.
+ * <p>
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=LoginLookup}
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginLookupBenchmark {
+
+    /** H2 n'a pas d'index d'expression : {@code LOWER(email)} y est un parcours complet, qui écrase l'écart à 10 000. */
+    @Param({"100", "10000"})
+    public int users;
+
+    private ConfigurableApplicationContext ctx;
+    private UserRepository userRepo;
+    private UserRoleRepository roleRepo;
+
+    @Setup
+    public void setUp() {
+        ctx = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:login-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--stats.rollup.backfill-on-startup=false",
+                        "--logging.level.root=WARN");
+        userRepo = ctx.getBean(UserRepository.class);
+        roleRepo = ctx.getBean(UserRoleRepository.class);
+
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{"Prenom", "Nom" + i, "user" + i + "@bench.com",
+                    String.format("06%08d", i), "hash", "ACTIF"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, prenom, nom, email, telephone, mot_de_passe_hash, statut) "
+                + "VALUES (NEXT VALUE FOR users_seq, ?, ?, ?, ?, ?, ?)", rows);
+        jdbc.update("INSERT INTO user_roles (id, user_id, role) SELECT NEXT VALUE FOR user_roles_seq, id, 'CLIENT' FROM users");
+        jdbc.update("INSERT INTO user_roles (id, user_id, role) SELECT NEXT VALUE FOR user_roles_seq, id, 'PRO' FROM users WHERE MOD(id, 3) = 0");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    private String randomEmail() {
+        return "User" + ThreadLocalRandom.current().nextInt(users) + "@Bench.com";
+    }
+
+    @Benchmark
+    public List<UserRole> userThenRoles() {
+        User u = userRepo.findByEmailIgnoreCase(randomEmail()).orElseThrow();
+        return roleRepo.findByUserId(u.getId());
+    }
+
+    @Benchmark
+    public int userWithRoles() {
+        return userRepo.findWithRolesByEmailIgnoreCase(randomEmail()).orElseThrow().getRoles().size();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ebooking.backend.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit BCrypt par cœur (un thread de mesure) selon le coût, pour calibrer
+ * {@code auth.bcrypt.cost} : hachages/s × cœurs = plafond d'inscriptions et de connexions par
+ * seconde du pool {@code PasswordHashing}. Viser un coût dont 1/débit reste entre ~100 et 250 ms.
+ * <p>
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=PasswordHash}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    /** Inscription / re-hachage. */
+    @Benchmark
+    public String encode() {
+        return encoder.encode("correct horse battery staple");
+    }
+
+    /** Connexion. */
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+}
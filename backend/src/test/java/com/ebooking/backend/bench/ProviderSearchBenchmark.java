@@ -0,0 +1,62 @@
+package com.ebooking.backend.bench;
+
+import com.ebooking.backend.service.search.ProviderTextIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche plein texte sur 100 000 fiches synthétiques (vocabulaire restreint, donc listes de
+ * documents longues : cas défavorable). Objectif : quelques millisecondes au p99, y compris pour
+ * un terme très fréquent ou un préfixe court.
+ * <p>
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=ProviderSearch}
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProviderSearchBenchmark {
+
+    private static final String[] SPECIALITES = {"Coiffure", "Esthétique", "Massage", "Barbier", "Manucure",
+            "Tatouage", "Maquillage", "Coloriste", "Onglerie", "Épilation"};
+    private static final String[] SERVICES = {"Coupe femme", "Coupe homme", "Brushing", "Balayage", "Soin visage",
+            "Massage relaxant", "Massage sportif", "Pose vernis", "Beauté des pieds", "Taille de barbe",
+            "Épilation jambes", "Maquillage mariée", "Lissage brésilien", "Permanente", "Extension cils"};
+    private static final String[] VILLES = {"Paris", "Lyon", "Marseille", "Toulouse", "Nice", "Nantes", "Lille",
+            "Rennes", "Reims", "Évry", "Créteil", "Montpellier", "Bordeaux", "Grenoble", "Dijon", "Angers"};
+    private static final String[] RUES = {"rue de la Paix", "avenue Victor Hugo", "boulevard Voltaire",
+            "rue Nationale", "place de la République", "rue du Marché", "allée des Tilleuls"};
+
+    @Param({"coiffure", "massage lyon", "coif paris", "ma", "balayage evry dupont12"})
+    public String query;
+
+    private ProviderTextIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ProviderTextIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= 100_000; id++) {
+            List<ProviderTextIndex.Field> fields = new ArrayList<>();
+            fields.add(new ProviderTextIndex.Field(SPECIALITES[random.nextInt(SPECIALITES.length)], 4));
+            fields.add(new ProviderTextIndex.Field((1 + random.nextInt(120)) + " " + RUES[random.nextInt(RUES.length)]
+                    + " " + VILLES[random.nextInt(VILLES.length)], 1));
+            fields.add(new ProviderTextIndex.Field("Prenom" + random.nextInt(500) + " Dupont" + random.nextInt(2000), 2));
+            for (int s = random.nextInt(4); s >= 0; s--) {
+                fields.add(new ProviderTextIndex.Field(SERVICES[random.nextInt(SERVICES.length)], 3));
+            }
+            index.put(id, fields);
+        }
+    }
+
+    @Benchmark
+    public List<ProviderTextIndex.Hit> firstPage() {
+        return index.search(query, null, 21);
+    }
+}
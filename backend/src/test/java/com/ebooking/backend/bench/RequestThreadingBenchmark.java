@@ -0,0 +1,177 @@
+package com.ebooking.backend.bench;
+
+import com.ebooking.backend.BackendApplication;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.Role;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.security.JwtTokenService;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Charge HTTP concurrente (256 clients, au-delà des 200 threads Tomcat par défaut) sur les
+ * créneaux du jour et la prise de rendez-vous, threads de plateforme contre threads virtuels.
+ * H2 est servi en TCP pour que les requêtes attendent réellement la base. Débit et p99 comptent
+ * toutes les réponses ; les totaux par itération séparent les 200 ({@code ok}) des refus sous
+ * charge : 503 de {@code PoolWaitGuard} ({@code refused}), 422 du verrou d'admission expiré
+ * ({@code contended}).
+ * <p>
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=RequestThreading}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(256)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestThreadingBenchmark {
+
+    private static final int PROVIDERS = 64;
+    private static final int SLOTS_PER_DAY = 24;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(1);
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private Server h2;
+    private ConfigurableApplicationContext ctx;
+    private HttpClient http;
+    private String baseUrl;
+    private String token;
+    private Long serviceId;
+    private final List<Long> providerIds = new ArrayList<>();
+    private final AtomicLong bookings = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long ok;
+        public long refused;
+        public long contended;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ok = refused = contended = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        h2 = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        ctx = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:tcp://localhost:" + h2.getPort() + "/mem:threading-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--stats.rollup.backfill-on-startup=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN");
+        int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api";
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        UserRepository userRepo = ctx.getBean(UserRepository.class);
+        ServiceCatalog service = ctx.getBean(ServiceRepository.class)
+                .save(ServiceCatalog.builder().nom("Coupe").dureeMin(30).build());
+        serviceId = service.getId();
+        for (int i = 0; i < PROVIDERS; i++) {
+            Prestataire p = new Prestataire();
+            p.setUser(userRepo.save(user("pro" + i, i, Role.PRO)));
+            p.setSpecialite("Coiffure");
+            p = ctx.getBean(PrestataireRepository.class).save(p);
+            PrestataireService link = new PrestataireService();
+            link.setPrestataire(p);
+            link.setService(service);
+            ctx.getBean(PrestataireServiceRepository.class).save(link);
+            for (JourSemaine jour : JourSemaine.values()) {
+                ctx.getBean(DisponibiliteRepository.class).save(Disponibilite.builder().prestataire(p).jourSemaine(jour)
+                        .heureDebut(LocalTime.of(8, 0)).heureFin(LocalTime.of(20, 0)).build());
+            }
+            providerIds.add(p.getId());
+        }
+        User client = userRepo.save(user("client", PROVIDERS, Role.CLIENT));
+        token = ctx.getBean(JwtTokenService.class).generateAccessToken(client);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+        h2.stop();
+    }
+
+    @Benchmark
+    public String slotsForDate(Outcomes out) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Long pid = providerIds.get(rnd.nextInt(PROVIDERS));
+        LocalDate date = FIRST_DAY.plusDays(rnd.nextInt(60));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/disponibilites/" + pid + "/slots?date=" + date
+                + "&serviceId=" + serviceId)).GET().build(), out);
+    }
+
+    /** Chaque appel prend un créneau neuf : prestataires en rotation, puis créneaux, puis jours. */
+    @Benchmark
+    public String create(Outcomes out) throws Exception {
+        long n = bookings.getAndIncrement();
+        long perProvider = n / PROVIDERS;
+        Long pid = providerIds.get((int) (n % PROVIDERS));
+        LocalDate date = FIRST_DAY.plusDays(perProvider / SLOTS_PER_DAY);
+        LocalTime heure = LocalTime.of(8, 0).plusMinutes(30 * (perProvider % SLOTS_PER_DAY));
+        String body = "{\"serviceId\":" + serviceId + ",\"prestataireId\":" + pid + ",\"date\":\"" + date
+                + "\",\"heure\":\"" + heure + "\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/rendezvous"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), out);
+    }
+
+    private String send(HttpRequest request, Outcomes out) throws Exception {
+        HttpResponse<String> resp = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() == 503) {
+            out.refused++;
+            return null;
+        }
+        if (resp.statusCode() == 422 && resp.body().contains("en cours de réservation")) {
+            out.contended++;
+            return null;
+        }
+        if (resp.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " -> " + resp.statusCode() + " " + resp.body());
+        }
+        out.ok++;
+        return resp.body();
+    }
+
+    private static User user(String prefix, int n, Role role) {
+        User u = new User();
+        u.setPrenom("Bench");
+        u.setNom(prefix);
+        u.setEmail(prefix + "@bench.com");
+        u.setTelephone(String.format("06%08d", n));
+        u.setMotDePasseHash("hash");
+        UserRole r = new UserRole();
+        r.setUser(u);
+        r.setRole(role);
+        u.getRoles().add(r);
+        return u;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ebooking.backend.bench;
+
+import com.ebooking.backend.model.Disponibilite;
+import com.ebooking.backend.model.Prestataire;
+import com.ebooking.backend.model.RendezVous;
+import com.ebooking.backend.model.ServiceCatalog;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chemin "créneaux du jour" : durée du service lue par réflexion (ancien
+ * {@code extractServiceDuration}, qui échouait et avalait l'exception à chaque appel, pour le
+ * service demandé et pour chaque RDV bloquant) contre la colonne {@code duree_min}.
+ * Le calcul des créneaux lui-même est servi par le moteur en mémoire dans les deux cas.
+ * <p>
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=SlotPath}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotPathBenchmark {
+
+    private static final long PRESTATAIRE_ID = 7L;
+    private static final long SERVICE_ID = 3L;
+    private static final LocalDate DATE = LocalDate.of(2025, 11, 8);
+
+    @Param({"4", "16"})
+    public int bookingsPerDay;
+
+    private AvailabilityEngine engine;
+    private Object legacyService;
+    private List<Object> legacyBookingServices;
+
+    /** Forme de l'ancien modèle : pas d'accesseur de durée. */
+    static final class LegacyService {
+        final Long id;
+        LegacyService(Long id) { this.id = id; }
+    }
+
+    @Setup
+    public void setUp() {
+        DisponibiliteRepository dispoRepo = mock(DisponibiliteRepository.class);
+        RendezVousRepository rdvRepo = mock(RendezVousRepository.class);
+        PrestataireRepository prestataireRepo = mock(PrestataireRepository.class);
+        PrestataireServiceRepository linkRepo = mock(PrestataireServiceRepository.class);
+        ServiceRepository serviceRepo = mock(ServiceRepository.class);
+
+        Prestataire p = Prestataire.builder().id(PRESTATAIRE_ID).build();
+        ServiceCatalog sc = ServiceCatalog.builder().id(SERVICE_ID).nom("Coupe").dureeMin(30).build();
+        Disponibilite d = Disponibilite.builder().prestataire(p).jourSemaine(JourSemaine.SAMEDI)
+                .heureDebut(LocalTime.of(8, 0)).heureFin(LocalTime.of(20, 0)).build();
+        List<RendezVous> bookings = new ArrayList<>();
+        legacyBookingServices = new ArrayList<>();
+        for (int i = 0; i < bookingsPerDay; i++) {
+            bookings.add(RendezVous.builder().prestataire(p).service(sc).date(DATE)
+                    .heure(LocalTime.of(8, 0).plusMinutes(40L * i)).dureeMinutes(30).statut(StatutRdv.CONFIRME).build());
+            legacyBookingServices.add(new LegacyService(SERVICE_ID));
+        }
+        legacyService = new LegacyService(SERVICE_ID);
+
+        when(prestataireRepo.existsById(PRESTATAIRE_ID)).thenReturn(true);
+        when(linkRepo.findServiceIdsByPrestataireId(PRESTATAIRE_ID)).thenReturn(List.of(SERVICE_ID));
+        when(dispoRepo.findByPrestataireId(PRESTATAIRE_ID)).thenReturn(List.of(d));
+        when(rdvRepo.findByPrestataireIdAndDateAndStatutIn(eq(PRESTATAIRE_ID), eq(DATE), anyList())).thenReturn(bookings);
+        when(serviceRepo.findDureeMinById(SERVICE_ID)).thenReturn(Optional.of(30));
+
+        engine = new AvailabilityEngine(dispoRepo, rdvRepo, mock(RendezVousSeriesRepository.class), prestataireRepo, linkRepo, serviceRepo, 62);
+        engine.week(PRESTATAIRE_ID);
+        engine.freeSlots(PRESTATAIRE_ID, SERVICE_ID, DATE, 15, 30, 60);
+    }
+
+    @Benchmark
+    public List<String> reflectiveDuration(Blackhole bh) {
+        Integer requested = legacyDuration(legacyService);
+        for (Object s : legacyBookingServices) bh.consume(legacyDuration(s));
+        int duration = requested != null ? requested : 60;
+        return engine.freeSlots(PRESTATAIRE_ID, SERVICE_ID, DATE, 15, duration, 60);
+    }
+
+    @Benchmark
+    public List<String> columnDuration() {
+        Integer requested = engine.serviceDuration(SERVICE_ID);
+        int duration = requested != null ? requested : 60;
+        return engine.freeSlots(PRESTATAIRE_ID, SERVICE_ID, DATE, 15, duration, 60);
+    }
+
+    private static Integer legacyDuration(Object service) {
+        if (service == null) return null;
+        try {
+            var method = service.getClass().getMethod("getDureeMin");
+            Object val = method.invoke(service);
+            if (val instanceof Integer di) {
+                return di;
+            }
+        } catch (Exception ignored) {
+        }
+        return null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ebooking.backend.config;
+
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.Role;
+import com.ebooking.backend.repository.DisponibiliteRepository;
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Identifiants par séquence + {@code hibernate.jdbc.batch_size} : les INSERT partent par lots. */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class JdbcBatchingIntegrationTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private EntityManager em;
+    @Autowired private EntityManagerFactory emf;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bulkDisponibilites_areInsertedInBatches() {
+        Prestataire p = new Prestataire();
+        p.setUser(userRepository.save(user(List.of(Role.PRO))));
+        p.setSpecialite("Coiffure");
+        p = prestataireRepository.saveAndFlush(p);
+        stats.clear();
+
+        List<Disponibilite> dispos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            dispos.add(Disponibilite.builder().prestataire(p).jourSemaine(JourSemaine.values()[i % 7])
+                    .heureDebut(LocalTime.of(8, 0).plusMinutes(i)).heureFin(LocalTime.of(9, 0).plusMinutes(i)).build());
+        }
+        disponibiliteRepository.saveAll(dispos);
+        em.flush();
+
+        assertThat(stats.getEntityInsertCount()).isEqualTo(120);
+        // 3 lots de 50 au plus + 3 appels à la séquence, au lieu de 120 allers-retours
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void registration_insertsUserThenRolesInOneBatch() {
+        userRepository.save(user(List.of(Role.CLIENT, Role.PRO)));
+        em.flush();
+        em.clear();
+        stats.clear();
+
+        userRepository.save(user(List.of(Role.CLIENT, Role.PRO)));
+        em.flush();
+
+        assertThat(stats.getEntityInsertCount()).isEqualTo(3);
+        // blocs de séquence déjà alloués : un INSERT users + un lot user_roles
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private User user(List<Role> roles) {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        for (Role r : roles) {
+            UserRole role = new UserRole();
+            role.setUser(u);
+            role.setRole(r);
+            u.getRoles().add(role);
+        }
+        return u;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ebooking.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PoolWaitGuardTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void beyondMaxWaiting_failsImmediately_thenAdmitsOnceWaitersAreServed() throws Exception {
+        Connection connection = mock(Connection.class);
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(inv -> {
+            release.await(10, TimeUnit.SECONDS);
+            return connection;
+        });
+        PoolWaitGuard guard = new PoolWaitGuard(pool, 2);
+
+        Future<Connection> first = callers.submit(() -> guard.getConnection());
+        Future<Connection> second = callers.submit(() -> guard.getConnection());
+        while (guard.waiting() < 2) Thread.onSpinWait();
+
+        assertThatThrownBy(guard::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(guard.waiting()).isEqualTo(2);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        assertThat(guard.waiting()).isZero();
+        assertThat(guard.getConnection()).isSameAs(connection);
+    }
+}
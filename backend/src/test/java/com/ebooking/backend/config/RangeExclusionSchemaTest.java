@@ -0,0 +1,34 @@
+package com.ebooking.backend.config;
+
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RangeExclusionSchemaTest {
+
+    private final RangeExclusionSchema schema = RangeExclusionSchema.disabled();
+
+    @Test
+    void write_mapsExclusionViolationTo422() {
+        var violation = new DataIntegrityViolationException("conflict",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+
+        assertThatThrownBy(() -> schema.write(RangeExclusionSchema.Rule.RENDEZ_VOUS, () -> { throw violation; }, "Créneau déjà réservé"))
+                .isInstanceOf(UnprocessableEntityException.class)
+                .hasMessage("Créneau déjà réservé");
+    }
+
+    @Test
+    void write_letsOtherIntegrityErrorsThrough() {
+        var uniqueViolation = new DataIntegrityViolationException("dup", new SQLException("duplicate key", "23505"));
+
+        assertThatThrownBy(() -> schema.write(RangeExclusionSchema.Rule.DISPONIBILITE, () -> { throw uniqueViolation; }, "x"))
+                .isSameAs(uniqueViolation);
+        assertThat(schema.enforces(RangeExclusionSchema.Rule.DISPONIBILITE)).isFalse();
+    }
+}
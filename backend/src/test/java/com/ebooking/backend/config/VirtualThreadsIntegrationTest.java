@@ -0,0 +1,40 @@
+package com.ebooking.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Le mode {@code VIRTUAL_THREADS=true} démarre : exécuteur applicatif virtuel, pool JDBC gardé. */
+@SpringBootTest(properties = {"spring.threads.virtual.enabled=true", "db.pool.max-waiting=50"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class VirtualThreadsIntegrationTest {
+
+    @Autowired private DataSource dataSource;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor applicationTaskExecutor;
+
+    @Test
+    void virtualMode_runsAppTasksOnVirtualThreads_behindThePoolWaitGuard() throws Exception {
+        assertThat(dataSource).isInstanceOf(PoolWaitGuard.class);
+
+        Boolean virtual = CompletableFuture.supplyAsync(() -> {
+            jdbc.queryForObject("SELECT 1", Integer.class);
+            return Thread.currentThread().isVirtual();
+        }, applicationTaskExecutor).get(5, TimeUnit.SECONDS);
+        assertThat(virtual).isTrue();
+        assertThat(((PoolWaitGuard) dataSource).waiting()).isZero();
+    }
+}
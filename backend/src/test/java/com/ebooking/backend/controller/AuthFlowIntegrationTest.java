@@ -0,0 +1,130 @@
+package com.ebooking.backend.controller;
+
+import com.ebooking.backend.dto.auth.LoginRequest;
+import com.ebooking.backend.dto.auth.RegisterRequest;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.model.UserRole;
+import com.ebooking.backend.model.enums.Role;
+import com.ebooking.backend.model.enums.UserStatus;
+import com.ebooking.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.bcrypt.cost=5")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class AuthFlowIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+
+    private final List<String> emails = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        emails.forEach(e -> userRepository.findByEmailIgnoreCase(e).ifPresent(userRepository::delete));
+    }
+
+    @Test
+    void registerThenLogin_runAsynchronously() throws Exception {
+        String email = UUID.randomUUID() + "@test.com";
+        emails.add(email);
+        var register = new RegisterRequest("Ada", "Lovelace", email,
+                UUID.randomUUID().toString().replace("-", "").substring(0, 10), "secret123", false);
+
+        perform("/users/register", register)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email))
+                .andExpect(jsonPath("$.roles[0]").value("CLIENT"));
+        assertThat(userRepository.findByEmailIgnoreCase(email).orElseThrow().getMotDePasseHash()).startsWith("$2a$05$");
+
+        perform("/users/login", new LoginRequest(email, "secret123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+        perform("/users/login", new LoginRequest(email, "wrong"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void login_rehashesPasswordStoredWithAnotherCost() throws Exception {
+        User u = userWithCost4Hash(UserStatus.ACTIF);
+
+        perform("/users/login", new LoginRequest(u.getEmail(), "secret123")).andExpect(status().isOk());
+
+        String hash = null;
+        for (int i = 0; i < 100; i++) {
+            hash = userRepository.findById(u.getId()).orElseThrow().getMotDePasseHash();
+            if (hash.startsWith("$2a$05$")) break;
+            Thread.sleep(50);
+        }
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(new BCryptPasswordEncoder().matches("secret123", hash)).isTrue();
+    }
+
+    @Test
+    void blockedAccount_isRevealedOnlyToTheRightPassword_andNeverRehashed() throws Exception {
+        User u = userWithCost4Hash(UserStatus.BLOQUE);
+        String storedHash = u.getMotDePasseHash();
+
+        // mauvais mot de passe : même réponse qu'un compte inconnu
+        perform("/users/login", new LoginRequest(u.getEmail(), "wrong"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Identifiants invalides"));
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("inconnu-" + UUID.randomUUID() + "@test.com", "wrong"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Identifiants invalides"));
+
+        perform("/users/login", new LoginRequest(u.getEmail(), "secret123"))
+                .andExpect(status().isForbidden());
+        Thread.sleep(200);
+        assertThat(userRepository.findById(u.getId()).orElseThrow().getMotDePasseHash()).isEqualTo(storedHash);
+    }
+
+    private User userWithCost4Hash(UserStatus statut) {
+        User u = new User();
+        u.setPrenom("Grace");
+        u.setNom("Hopper");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash(new BCryptPasswordEncoder(4).encode("secret123"));
+        u.setStatut(statut);
+        UserRole role = new UserRole();
+        role.setUser(u);
+        role.setRole(Role.CLIENT);
+        u.getRoles().add(role);
+        emails.add(u.getEmail());
+        return userRepository.save(u);
+    }
+
+    private org.springframework.test.web.servlet.ResultActions perform(String url, Object body) throws Exception {
+        MvcResult started = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
@@ -0,0 +1,139 @@
+package com.ebooking.backend.controller;
+
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.RendezVousService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/** Sans {@code @Transactional} : les deltas ne partent qu'après un vrai commit. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class SlotStreamIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private RendezVousService rdvService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private ServiceCatalog service;
+    private Prestataire prestataire;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        service = serviceRepository.save(ServiceCatalog.builder().nom("Séance" + UUID.randomUUID()).dureeMin(60).build());
+        client = save(buildUser());
+        Prestataire p = new Prestataire();
+        p.setUser(save(buildUser()));
+        p.setSpecialite("Coaching");
+        prestataire = prestataireRepository.save(p);
+        PrestataireService link = new PrestataireService();
+        link.setPrestataire(prestataire);
+        link.setService(service);
+        prestataireServiceRepository.save(link);
+        Disponibilite d = new Disponibilite();
+        d.setPrestataire(prestataire);
+        d.setJourSemaine(JourSemaine.LUNDI);
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(12, 0));
+        disponibiliteRepository.save(d);
+        LocalDate now = LocalDate.now();
+        monday = now.plusDays((DayOfWeek.MONDAY.getValue() - now.getDayOfWeek().getValue() + 7) % 7 + 7);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()));
+        disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(prestataire.getId()));
+        prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(prestataire.getId()));
+        prestataireRepository.delete(prestataire);
+        serviceRepository.delete(service);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void streamSendsSnapshot_thenOnlyTheSlotsEachCommitChanges() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/disponibilites/" + prestataire.getId() + "/slots/stream")
+                        .param("date", monday.toString())
+                        .param("serviceId", service.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = stream.getResponse();
+        awaitContent(response, "event:snapshot\ndata:[\"09:00\",\"09:30\",\"10:00\",\"10:30\",\"11:00\"]\n\n");
+
+        var rdv = rdvService.create(client.getId(), new RendezVousRequest(service.getId(), prestataire.getId(),
+                monday.toString(), "10:00", null));
+        awaitContent(response, "event:slot-removed\ndata:[\"10:00\",\"10:30\"]\n\n");
+
+        rdvService.create(client.getId(), new RendezVousRequest(service.getId(), prestataire.getId(),
+                monday.plusWeeks(1).toString(), "10:00", null));
+        rdvService.annuler(client.getId(), rdv.id());
+        awaitContent(response, "event:slot-added\ndata:[\"10:00\",\"10:30\"]\n\n");
+        assertThat(response.getContentAsString())
+                .as("la réservation d'une autre date ne produit aucun événement")
+                .containsOnlyOnce("event:slot-removed");
+    }
+
+    @Test
+    void unknownProvider_answersJsonErrorInsteadOfOpeningTheStream() throws Exception {
+        mockMvc.perform(get("/disponibilites/" + Long.MAX_VALUE + "/slots/stream").param("date", monday.toString()))
+                .andExpect(status().is4xxClientError())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Attendu « " + expected + " », reçu : " + response.getContentAsString());
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private User save(User u) {
+        User saved = userRepository.save(u);
+        users.add(saved);
+        return saved;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
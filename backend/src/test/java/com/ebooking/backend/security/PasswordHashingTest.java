@@ -0,0 +1,67 @@
+package com.ebooking.backend.security;
+
+import com.ebooking.backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashing hashing;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (hashing != null) hashing.destroy();
+    }
+
+    @Test
+    void saturatedPool_rejectsImmediatelyWithTooManyRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence raw) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(raw);
+            }
+        };
+        hashing = new PasswordHashing(slow, 4, 1, 2);
+
+        var running = hashing.encode("a");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        var queued1 = hashing.encode("b");
+        var queued2 = hashing.encode("c");
+        assertThat(hashing.queued()).isEqualTo(2);
+
+        assertThatThrownBy(() -> hashing.encode("d")).isInstanceOf(TooManyRequestsException.class);
+        assertThat(hashing.encodeIfIdle("e").get()).isNull();
+
+        release.countDown();
+        assertThat(slow.matches("a", running.get(5, TimeUnit.SECONDS))).isTrue();
+        assertThat(queued1.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(queued2.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void needsRehash_detectsAnyCostChange() {
+        hashing = new PasswordHashing(new BCryptPasswordEncoder(5), 5, 1, 1);
+
+        assertThat(hashing.needsRehash(new BCryptPasswordEncoder(4).encode("x"))).isTrue();
+        assertThat(hashing.needsRehash(new BCryptPasswordEncoder(6).encode("x"))).isTrue();
+        assertThat(hashing.needsRehash(new BCryptPasswordEncoder(5).encode("x"))).isFalse();
+        assertThat(hashing.needsRehash("not-bcrypt")).isFalse();
+    }
+}
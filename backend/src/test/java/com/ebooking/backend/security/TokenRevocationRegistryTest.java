@@ -0,0 +1,152 @@
+package com.ebooking.backend.security;
+
+import com.ebooking.backend.model.TokenRevocation;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.model.UserRole;
+import com.ebooking.backend.model.enums.Role;
+import com.ebooking.backend.model.enums.UserStatus;
+import com.ebooking.backend.repository.TokenRevocationRepository;
+import com.ebooking.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationRegistryTest {
+
+    private static final long LIFETIME = 3600;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-11-08T10:00:00Z"));
+    private UserRepository userRepo;
+    private TokenRevocationRepository revocationRepo;
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = mock(UserRepository.class);
+        when(userRepo.findIdsByStatut(UserStatus.BLOQUE)).thenReturn(List.of(5L, 9L));
+        revocationRepo = mock(TokenRevocationRepository.class);
+        registry = new TokenRevocationRegistry(userRepo, revocationRepo, LIFETIME, clock);
+        registry.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void blockedUsersLoadedAtStartup_haveEveryTokenRevoked() {
+        Instant now = clock.instant();
+        assertThat(registry.isRevoked(5L, now.minusSeconds(10))).isTrue();
+        assertThat(registry.isRevoked(9L, now.plusSeconds(10))).isTrue();
+        assertThat(registry.isRevoked(6L, now)).isFalse();
+    }
+
+    @Test
+    void activation_keepsOlderTokensRevokedButAcceptsNewOnes() {
+        Instant blockedToken = clock.instant().minusSeconds(60);
+        clock.advance(30);
+        registry.revokeIssuedBeforeNow(5L);
+
+        assertThat(registry.isRevoked(5L, blockedToken)).isTrue();
+        assertThat(registry.isRevoked(5L, clock.instant())).isFalse();
+        assertThat(registry.isRevoked(5L, clock.instant().plusSeconds(5))).isFalse();
+    }
+
+    @Test
+    void activationAndDeletion_arePersisted_andSurviveARestart() {
+        Instant oldToken = clock.instant().minusSeconds(60);
+        registry.revokeIssuedBeforeNow(7L);
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(revocationRepo).save(saved.capture());
+        assertThat(saved.getValue().getUserId()).isEqualTo(7L);
+        assertThat(saved.getValue().getRevoquesAvant()).isEqualTo(clock.instant());
+
+        // 5 réactivé puis rebloqué : le blocage l'emporte sur la révocation bornée
+        when(revocationRepo.findByRevoquesAvantAfter(clock.instant().minusSeconds(LIFETIME)))
+                .thenReturn(List.of(saved.getValue(), new TokenRevocation(5L, clock.instant())));
+        TokenRevocationRegistry restarted = new TokenRevocationRegistry(userRepo, revocationRepo, LIFETIME, clock);
+        restarted.afterSingletonsInstantiated();
+
+        verify(revocationRepo, times(2)).deleteExpired(clock.instant().minusSeconds(LIFETIME));
+        assertThat(restarted.isRevoked(7L, oldToken)).isTrue();
+        assertThat(restarted.isRevoked(7L, clock.instant())).isFalse();
+        assertThat(restarted.isRevoked(5L, clock.instant().plusSeconds(10))).isTrue();
+        assertThat(restarted.size()).isEqualTo(3);
+    }
+
+    @Test
+    void boundedEntries_arePurgedOnceEveryCoveredTokenHasExpired() {
+        registry.revokeIssuedBeforeNow(7L);
+        registry.revokeAll(8L);
+        assertThat(registry.size()).isEqualTo(4);
+
+        clock.advance(LIFETIME + 1);
+        registry.revokeAll(11L);
+
+        assertThat(registry.size()).isEqualTo(4);
+        assertThat(registry.isRevoked(7L, Instant.EPOCH)).isFalse();
+        assertThat(registry.isRevoked(8L, clock.instant())).isTrue();
+    }
+
+    @Test
+    void cachedToken_isRefusedAsSoonAsItsUserIsBlocked() {
+        JwtTokenService jwt = new JwtTokenService("test-secret", "ebooking", LIFETIME);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwt, List.of(registry), Clock.systemUTC(), 100);
+        User u = new User();
+        u.setId(12L);
+        u.setEmail("u12@test.com");
+        u.setStatut(UserStatus.ACTIF);
+        UserRole role = new UserRole();
+        role.setRole(Role.CLIENT);
+        u.getRoles().add(role);
+        String token = jwt.generateAccessToken(u);
+        assertThat(cache.authenticate(token)).isPresent();
+
+        registry.revokeAll(12L);
+
+        assertThat(cache.authenticate(token)).isEmpty();
+    }
+
+    @Test
+    void table_matchesHashMapForManyKeys() {
+        Random random = new Random(7);
+        long[] ids = random.longs(5000, 1, 50_000).toArray();
+        LongLongTable table = LongLongTable.of(ids, 1L);
+        Map<Long, Long> reference = new HashMap<>();
+        for (long id : ids) reference.put(id, 1L);
+        for (int i = 0; i < 500; i++) {
+            long id = 1 + random.nextInt(60_000);
+            long value = random.nextLong();
+            table = table.with(id, value, (k, v) -> true);
+            reference.put(id, value);
+        }
+
+        assertThat(table.size()).isEqualTo(reference.size());
+        for (long id = 1; id <= 60_000; id++) {
+            assertThat(table.get(id, -1)).as("%d", id).isEqualTo(reference.getOrDefault(id, -1L));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(long seconds) { now = now.plusSeconds(seconds); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ebooking.backend.security;
+
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.model.UserRole;
+import com.ebooking.backend.model.enums.Role;
+import com.ebooking.backend.model.enums.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private JwtTokenService jwt;
+    private final AtomicReference<Instant> revokedBefore = new AtomicReference<>(Instant.MIN);
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwt = spy(new JwtTokenService("test-secret", "ebooking", 3600));
+        TokenRevocationCheck revocation = (userId, issuedAt) -> userId == 42L && issuedAt.isBefore(revokedBefore.get());
+        cache = new VerifiedTokenCache(jwt, List.of(revocation), clock, 100);
+    }
+
+    @Test
+    void repeatedToken_isVerifiedOnceAndSharesTheSameAuthentication() {
+        String token = jwt.generateAccessToken(user(42L, Role.ADMIN));
+
+        var first = cache.authenticate(token).orElseThrow();
+        for (int i = 0; i < 50; i++) {
+            assertThat(cache.authenticate(token)).containsSame(first);
+        }
+
+        verify(jwt, times(1)).verify(anyString());
+        assertThat(first.getPrincipal()).isEqualTo(42L);
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(cache.cache().stats().hitCount()).isEqualTo(50);
+    }
+
+    @Test
+    void tamperedOrForeignToken_isRejectedAndNotCached() {
+        String token = jwt.generateAccessToken(user(7L, Role.CLIENT));
+        String foreign = new JwtTokenService("other-secret", "ebooking", 3600).generateAccessToken(user(7L, Role.CLIENT));
+
+        assertThat(cache.authenticate(token.substring(0, token.length() - 2) + "xx")).isEmpty();
+        assertThat(cache.authenticate(foreign)).isEmpty();
+        assertThat(cache.authenticate("not-a-jwt")).isEmpty();
+        assertThat(cache.cache().estimatedSize()).isZero();
+    }
+
+    @Test
+    void cachedEntry_stopsAuthenticatingAtTokenExpiry() {
+        String token = jwt.generateAccessToken(user(7L, Role.CLIENT));
+        assertThat(cache.authenticate(token)).isPresent();
+
+        clock.set(clock.instant().plusSeconds(3601));
+
+        assertThat(cache.authenticate(token)).isEmpty();
+    }
+
+    @Test
+    void revocation_isCheckedEvenOnCacheHits() {
+        String token = jwt.generateAccessToken(user(42L, Role.CLIENT));
+        assertThat(cache.authenticate(token)).isPresent();
+
+        revokedBefore.set(Instant.now().plusSeconds(1));
+
+        assertThat(cache.authenticate(token)).isEmpty();
+        verify(jwt, times(1)).verify(anyString());
+    }
+
+    private static User user(Long id, Role role) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail("u" + id + "@test.com");
+        u.setStatut(UserStatus.ACTIF);
+        UserRole r = new UserRole();
+        r.setUser(u);
+        r.setRole(role);
+        u.getRoles().add(r);
+        return u;
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void set(Instant now) { this.now = now; }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
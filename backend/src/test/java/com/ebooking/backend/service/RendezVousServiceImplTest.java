@@ -1,5 +1,6 @@
 package com.ebooking.backend.service;
 
+import com.ebooking.backend.config.RangeExclusionSchema;
 import com.ebooking.backend.dto.rdv.RendezVousRequest;
 import com.ebooking.backend.dto.rdv.RendezVousResponse;
 import com.ebooking.backend.exception.UnprocessableEntityException;
@@ -7,6 +8,9 @@ import com.ebooking.backend.model.*;
 import com.ebooking.backend.model.enums.JourSemaine;
 import com.ebooking.backend.model.enums.StatutRdv;
 import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.booking.BookingAdmission;
+import com.ebooking.backend.service.booking.PendingReaper;
 import com.ebooking.backend.service.impl.RendezVousServiceImpl;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,7 +20,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -38,6 +44,8 @@ class RendezVousServiceImplTest {
     @Mock
     private RendezVousRepository rdvRepository;
     @Mock
+    private RendezVousSeriesRepository seriesRepository;
+    @Mock
     private ServiceRepository serviceRepository;
     @Mock
     private PrestataireRepository prestataireRepository;
@@ -47,6 +55,16 @@ class RendezVousServiceImplTest {
     private DisponibiliteRepository disponibiliteRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private AvailabilityEngine availabilityEngine;
+    @Spy
+    private BookingAdmission bookingAdmission = new BookingAdmission(16, 1000, null);
+    @Spy
+    private RangeExclusionSchema rangeSchema = RangeExclusionSchema.disabled();
+    @Mock
+    private PendingReaper pendingReaper;
+    @Mock
+    private ApplicationEventPublisher events;
 
     @InjectMocks
     private RendezVousServiceImpl service;
@@ -295,7 +313,7 @@ class RendezVousServiceImplTest {
                     .client(client)
                     .statut(StatutRdv.CONFIRME)
                     .build();
-            when(rdvRepository.findById(rdvId)).thenReturn(Optional.of(rdv));
+            when(rdvRepository.findLockedById(rdvId)).thenReturn(Optional.of(rdv));
 
             assertThatThrownBy(() -> service.refuser(prestataire.getUser().getId(), rdvId))
                     .isInstanceOf(UnprocessableEntityException.class)
@@ -313,7 +331,7 @@ class RendezVousServiceImplTest {
                     .client(client)
                     .statut(StatutRdv.EN_ATTENTE)
                     .build();
-            when(rdvRepository.findById(rdvId)).thenReturn(Optional.of(rdv));
+            when(rdvRepository.findLockedById(rdvId)).thenReturn(Optional.of(rdv));
 
             RendezVousResponse response = service.refuser(prestataire.getUser().getId(), rdvId);
 
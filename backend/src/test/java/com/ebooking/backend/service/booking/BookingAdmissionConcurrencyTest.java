@@ -0,0 +1,200 @@
+package com.ebooking.backend.service.booking;
+
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.RendezVousService;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réservations concurrentes réelles (transactions Spring sur H2) : aucune paire de
+ * rendez-vous bloquants ne doit se chevaucher, et les prestataires distincts ne se gênent pas.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class BookingAdmissionConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired private RendezVousService rdvService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Prestataire> prestataires = new ArrayList<>();
+    private ServiceCatalog service;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        service = serviceRepository.save(ServiceCatalog.builder().nom("Coupe" + UUID.randomUUID()).build());
+        client = save(buildUser());
+        monday = next(DayOfWeek.MONDAY);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (Prestataire p : prestataires) {
+            rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(p.getId()));
+            disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(p.getId()));
+            prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(p.getId()));
+            prestataireRepository.delete(p);
+        }
+        serviceRepository.delete(service);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void contendedSlot_isBookedExactlyOnce() throws Exception {
+        Prestataire p = provider();
+        // 10:00, 10:15, 10:30, 10:45 pendant 60 min : toutes les demandes se chevauchent deux à deux
+        List<RendezVousRequest> requests = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            requests.add(request(p, LocalTime.of(10, 0).plusMinutes(15L * (i % 4)), 60));
+        }
+
+        Outcome outcome = race(requests);
+
+        assertThat(outcome.errors).isEmpty();
+        assertThat(outcome.accepted.get()).isEqualTo(1);
+        assertThat(outcome.rejected.get()).isEqualTo(THREADS - 1);
+        assertNoOverlap(p);
+    }
+
+    @Test
+    void randomContention_neverProducesOverlaps_andOtherProvidersStayIndependent() throws Exception {
+        Prestataire busy = provider();
+        Prestataire other = provider();
+        Random random = new Random(42);
+        List<RendezVousRequest> requests = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            requests.add(request(busy, LocalTime.of(9, 0).plusMinutes(15L * random.nextInt(30)), 45));
+        }
+        // Demandes disjointes sur un autre prestataire : toutes doivent passer
+        for (int h = 9; h < 17; h++) {
+            requests.add(request(other, LocalTime.of(h, 0), 60));
+        }
+        Collections.shuffle(requests, random);
+
+        Outcome outcome = race(requests);
+
+        assertThat(outcome.errors).isEmpty();
+        assertNoOverlap(busy);
+        assertThat(rendezVousRepository.findByPrestataireIdAndDateAndStatutIn(other.getId(), monday, AvailabilityEngine.BLOCKING_STATUSES))
+                .hasSize(8);
+    }
+
+    private record Outcome(AtomicInteger accepted, AtomicInteger rejected, Queue<Throwable> errors) {}
+
+    private Outcome race(List<RendezVousRequest> requests) throws Exception {
+        Outcome outcome = new Outcome(new AtomicInteger(), new AtomicInteger(), new ConcurrentLinkedQueue<>());
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (RendezVousRequest req : requests) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        rdvService.create(client.getId(), req);
+                        outcome.accepted().incrementAndGet();
+                    } catch (UnprocessableEntityException e) {
+                        outcome.rejected().incrementAndGet();
+                    } catch (Throwable t) {
+                        outcome.errors().add(t);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        return outcome;
+    }
+
+    private void assertNoOverlap(Prestataire p) {
+        var booked = rendezVousRepository.findByPrestataireIdAndDateAndStatutIn(p.getId(), monday, AvailabilityEngine.BLOCKING_STATUSES);
+        assertThat(booked).isNotEmpty();
+        for (int i = 0; i < booked.size(); i++) {
+            for (int j = i + 1; j < booked.size(); j++) {
+                RendezVous a = booked.get(i);
+                RendezVous b = booked.get(j);
+                LocalTime aEnd = a.getHeure().plusMinutes(a.getDureeMinutes());
+                LocalTime bEnd = b.getHeure().plusMinutes(b.getDureeMinutes());
+                assertThat(!aEnd.isAfter(b.getHeure()) || !bEnd.isAfter(a.getHeure()))
+                        .as("%s-%s chevauche %s-%s", a.getHeure(), aEnd, b.getHeure(), bEnd)
+                        .isTrue();
+            }
+        }
+    }
+
+    private Prestataire provider() {
+        Prestataire p = new Prestataire();
+        p.setUser(save(buildUser()));
+        p.setSpecialite("Coiffure");
+        p = prestataireRepository.save(p);
+        prestataires.add(p);
+        PrestataireService link = new PrestataireService();
+        link.setPrestataire(p);
+        link.setService(service);
+        prestataireServiceRepository.save(link);
+        Disponibilite d = new Disponibilite();
+        d.setPrestataire(p);
+        d.setJourSemaine(JourSemaine.LUNDI);
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(18, 0));
+        disponibiliteRepository.save(d);
+        return p;
+    }
+
+    private RendezVousRequest request(Prestataire p, LocalTime heure, int duree) {
+        return new RendezVousRequest(service.getId(), p.getId(), monday.toString(), heure.toString(), duree);
+    }
+
+    private User save(User u) {
+        u = userRepository.save(u);
+        users.add(u);
+        return u;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+
+    private LocalDate next(DayOfWeek target) {
+        LocalDate now = LocalDate.now();
+        int diff = (target.getValue() - now.getDayOfWeek().getValue() + 7) % 7;
+        if (diff == 0) diff = 7;
+        return now.plusDays(diff);
+    }
+}
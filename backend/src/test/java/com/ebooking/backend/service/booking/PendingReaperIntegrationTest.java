@@ -0,0 +1,239 @@
+package com.ebooking.backend.service.booking;
+
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.dto.rdv.RendezVousResponse;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesRequest;
+import com.ebooking.backend.dto.rdv.RendezVousUpdateRequest;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.RecurrenceSerie;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.RendezVousService;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.notification.Notification;
+import com.ebooking.backend.service.notification.NotificationSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/** Sans {@code @Transactional} : le verrou tenu par un autre thread doit être réel. */
+@SpringBootTest(properties = {"outbox.dispatcher.enabled=true", "outbox.poll-interval=PT0.05S",
+        "booking.pending.ttl=PT48H", "booking.pending.batch-size=2"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class PendingReaperIntegrationTest {
+
+    @TestConfiguration
+    static class Senders {
+        @Bean
+        @Primary
+        RecordingSender recordingSender() {
+            return new RecordingSender();
+        }
+    }
+
+    static class RecordingSender implements NotificationSender {
+        final List<Notification> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(Notification notification) {
+            sent.add(notification);
+        }
+    }
+
+    @Autowired private PendingReaper reaper;
+    @Autowired private RecordingSender sender;
+    @Autowired private AvailabilityEngine availability;
+    @Autowired private RendezVousService rdvService;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager txManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+    @Autowired private RendezVousSeriesRepository seriesRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Long> seriesIds = new ArrayList<>();
+    private ServiceCatalog service;
+    private Prestataire prestataire;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        service = serviceRepository.save(ServiceCatalog.builder().nom("Séance" + UUID.randomUUID()).dureeMin(60).build());
+        client = save(buildUser());
+        Prestataire p = new Prestataire();
+        p.setUser(save(buildUser()));
+        p.setSpecialite("Coaching");
+        prestataire = prestataireRepository.save(p);
+        PrestataireService link = new PrestataireService();
+        link.setPrestataire(prestataire);
+        link.setService(service);
+        prestataireServiceRepository.save(link);
+        Disponibilite d = new Disponibilite();
+        d.setPrestataire(prestataire);
+        d.setJourSemaine(JourSemaine.LUNDI);
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(18, 0));
+        disponibiliteRepository.save(d);
+        LocalDate now = LocalDate.now();
+        monday = now.plusDays((DayOfWeek.MONDAY.getValue() - now.getDayOfWeek().getValue() + 7) % 7 + 7);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()));
+        seriesRepository.deleteAllById(seriesIds);
+        disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(prestataire.getId()));
+        prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(prestataire.getId()));
+        prestataireRepository.delete(prestataire);
+        serviceRepository.delete(service);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void stalePendingRequests_expireInBatches_skippingRowsLockedElsewhere() throws Exception {
+        var first = rdvService.create(client.getId(), item("10:00"));
+        var second = rdvService.create(client.getId(), item("12:00"));
+        var busy = rdvService.create(client.getId(), item("14:00"));
+        var fresh = rdvService.create(client.getId(), item("16:00"));
+        var confirmed = rdvService.create(client.getId(), item("09:00"));
+        rdvService.confirmer(prestataire.getUser().getId(), confirmed.id());
+        backdate(List.of(first.id(), second.id(), busy.id(), confirmed.id()), Duration.ofDays(3));
+        assertThat(freeSlots()).doesNotContain("10:00", "12:00", "14:00");
+
+        // une confirmation en cours tient la ligne : le balayage passe à côté sans l'attendre
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> new TransactionTemplate(txManager).executeWithoutResult(s -> {
+            rendezVousRepository.findLockedById(busy.id());
+            held.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            assertThat(reaper.reap()).isEqualTo(new PendingReaper.Reclaimed(2, 120));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+
+        assertThat(statut(first.id())).isEqualTo(StatutRdv.EXPIRE);
+        assertThat(statut(second.id())).isEqualTo(StatutRdv.EXPIRE);
+        assertThat(statut(busy.id())).isEqualTo(StatutRdv.EN_ATTENTE);
+        assertThat(statut(fresh.id())).isEqualTo(StatutRdv.EN_ATTENTE);
+        assertThat(statut(confirmed.id())).isEqualTo(StatutRdv.CONFIRME);
+        assertThat(freeSlots()).contains("10:00", "12:00").doesNotContain("09:00", "14:00", "16:00");
+
+        assertThat(reaper.reap()).isEqualTo(new PendingReaper.Reclaimed(1, 60));
+        assertThat(statut(busy.id())).isEqualTo(StatutRdv.EXPIRE);
+        assertThat(freeSlots()).contains("14:00");
+        assertThat(reaper.reap()).isEqualTo(new PendingReaper.Reclaimed(0, 0));
+
+        await(() -> expiryNotices().size() == 3);
+        assertThat(expiryNotices()).allSatisfy(n -> assertThat(n.userId()).isEqualTo(client.getId()));
+    }
+
+    @Test
+    void rescheduledBooking_restartsTheClock_andSeriesOccurrencesAreLeftToTheSeries() {
+        var moved = rdvService.create(client.getId(), item("10:00"));
+        rdvService.confirmer(prestataire.getUser().getId(), moved.id());
+        backdate(List.of(moved.id()), Duration.ofDays(3));
+        var series = rdvService.createSeries(client.getId(), new RendezVousSeriesRequest(service.getId(), prestataire.getId(),
+                monday.toString(), "14:00", null, RecurrenceSerie.HEBDOMADAIRE, 2, null));
+        seriesIds.add(series.id());
+        List<Long> occurrences = series.rendezVous().stream().map(RendezVousResponse::id).toList();
+        jdbc.update("UPDATE rendez_vous SET created_at = ? WHERE serie_id = ?",
+                Timestamp.valueOf(reaper.pendingSinceNow().minusDays(3)), series.id());
+
+        // déplacé trois jours après sa création : de nouveau en attente, pour un délai entier
+        rdvService.update(prestataire.getUser().getId(), moved.id(), new RendezVousUpdateRequest(null, null, "12:00"));
+        assertThat(statut(moved.id())).isEqualTo(StatutRdv.EN_ATTENTE);
+
+        assertThat(reaper.reap()).isEqualTo(new PendingReaper.Reclaimed(0, 0));
+        assertThat(statut(moved.id())).isEqualTo(StatutRdv.EN_ATTENTE);
+        assertThat(occurrences).allSatisfy(id -> assertThat(statut(id)).isEqualTo(StatutRdv.EN_ATTENTE));
+
+        backdate(List.of(moved.id()), Duration.ofDays(3));
+        assertThat(reaper.reap()).isEqualTo(new PendingReaper.Reclaimed(1, 60));
+        assertThat(statut(moved.id())).isEqualTo(StatutRdv.EXPIRE);
+    }
+
+    /** Recule la création et l'entrée en attente. */
+    private void backdate(List<Long> ids, Duration age) {
+        Timestamp at = Timestamp.valueOf(reaper.pendingSinceNow().minus(age));
+        for (Long id : ids) {
+            jdbc.update("UPDATE rendez_vous SET created_at = ?, pending_since = ? WHERE id = ?", at, at, id);
+        }
+    }
+
+    private StatutRdv statut(Long id) {
+        return rendezVousRepository.findById(id).orElseThrow().getStatut();
+    }
+
+    private List<String> freeSlots() {
+        return availability.freeSlots(prestataire.getId(), service.getId(), monday, 60, 60, 60);
+    }
+
+    private List<Notification> expiryNotices() {
+        return sender.sent.stream().filter(n -> n.sujet().equals("Demande expirée")
+                && n.userId().equals(client.getId())).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Condition non atteinte");
+            Thread.sleep(20);
+        }
+    }
+
+    private RendezVousRequest item(String heure) {
+        return new RendezVousRequest(service.getId(), prestataire.getId(), monday.toString(), heure, null);
+    }
+
+    private User save(User u) {
+        User saved = userRepository.save(u);
+        users.add(saved);
+        return saved;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
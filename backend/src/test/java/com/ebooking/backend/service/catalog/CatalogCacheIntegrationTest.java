@@ -0,0 +1,89 @@
+package com.ebooking.backend.service.catalog;
+
+import com.ebooking.backend.config.CacheConfig;
+import com.ebooking.backend.dto.service.ServiceRequest;
+import com.ebooking.backend.model.Prestataire;
+import com.ebooking.backend.model.ServiceCatalog;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.repository.ServiceRepository;
+import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.service.PrestataireServiceBiz;
+import com.ebooking.backend.service.ServiceCatalogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class CatalogCacheIntegrationTest {
+
+    @Autowired private PrestataireServiceBiz prestataireService;
+    @Autowired private ServiceCatalogService catalogService;
+    @Autowired private CacheManager cacheManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private ServiceRepository serviceRepository;
+
+    @AfterEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getPublic_isCachedAndEvictedWhenAServiceIsLinked() {
+        User owner = userRepository.save(buildUser());
+        Prestataire p = prestataireRepository.save(Prestataire.builder().user(owner).specialite("Coiffure").build());
+        ServiceCatalog sc = serviceRepository.save(ServiceCatalog.builder().nom("Coupe" + UUID.randomUUID()).build());
+
+        var first = prestataireService.getPublic(p.getId());
+        assertThat(prestataireService.getPublic(p.getId())).isSameAs(first);
+        assertThat(first.services()).isEmpty();
+
+        prestataireService.linkService(p.getId(), sc.getId(), owner.getId());
+
+        assertThat(cacheManager.getCache(CacheConfig.PRESTATAIRE).get(p.getId())).isNull();
+        assertThat(prestataireService.getPublic(p.getId()).services()).extracting("id").containsExactly(sc.getId());
+    }
+
+    @Test
+    void serviceUpdate_evictsOnlyListsThatContainIt() {
+        User owner = userRepository.save(buildUser());
+        Prestataire p = prestataireRepository.save(Prestataire.builder().user(owner).specialite("Coiffure").build());
+        ServiceCatalog linked = serviceRepository.save(ServiceCatalog.builder().nom("Coupe" + UUID.randomUUID()).build());
+        ServiceCatalog other = serviceRepository.save(ServiceCatalog.builder().nom("Soin" + UUID.randomUUID()).build());
+        prestataireService.linkService(p.getId(), linked.getId(), owner.getId());
+
+        prestataireService.listByService(linked.getId());
+        var untouched = prestataireService.listByService(other.getId());
+
+        catalogService.update(linked.getId(), new ServiceRequest("Coupe homme " + UUID.randomUUID(), null, 45));
+
+        assertThat(cacheManager.getCache(CacheConfig.PRESTATAIRES_PAR_SERVICE).get(linked.getId())).isNull();
+        assertThat(prestataireService.listByService(other.getId())).isSameAs(untouched);
+        assertThat(prestataireService.listByService(linked.getId()).get(0).services().get(0).dureeMin()).isEqualTo(45);
+
+        // renommage sans durée : la durée configurée reste
+        catalogService.update(linked.getId(), new ServiceRequest("Coupe femme " + UUID.randomUUID(), null, null));
+        assertThat(serviceRepository.findById(linked.getId()).orElseThrow().getDureeMin()).isEqualTo(45);
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Ada");
+        u.setNom("Lovelace");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
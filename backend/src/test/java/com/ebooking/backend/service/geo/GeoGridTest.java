@@ -0,0 +1,58 @@
+package com.ebooking.backend.service.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoGridTest {
+
+    @Test
+    void nearest_matchesBruteForceAcrossRadiiAndFilters() {
+        Random random = new Random(11);
+        GeoGrid grid = new GeoGrid(0.05);
+        Map<Long, GeoPoint> points = new HashMap<>();
+        for (long id = 1; id <= 5000; id++) {
+            GeoPoint p = new GeoPoint(48.5 + random.nextDouble(), 1.8 + random.nextDouble() * 1.2);
+            points.put(id, p);
+            grid.put(id, p);
+        }
+        // déplacements et retraits : l'ancienne cellule ne doit plus le contenir
+        for (long id = 1; id <= 200; id++) {
+            GeoPoint p = new GeoPoint(48.5 + random.nextDouble(), 1.8 + random.nextDouble() * 1.2);
+            points.put(id, p);
+            grid.put(id, p);
+        }
+        for (long id = 201; id <= 300; id++) {
+            points.remove(id);
+            grid.remove(id);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            GeoPoint center = new GeoPoint(48.4 + random.nextDouble() * 1.2, 1.7 + random.nextDouble() * 1.4);
+            double radius = 1 + random.nextInt(40);
+            int limit = 1 + random.nextInt(30);
+            boolean even = q % 2 == 0;
+
+            List<GeoGrid.Hit> expected = points.entrySet().stream()
+                    .filter(e -> !even || e.getKey() % 2 == 0)
+                    .map(e -> new GeoGrid.Hit(e.getKey(), e.getValue().distanceKm(center.latitude(), center.longitude())))
+                    .filter(h -> h.distanceKm() <= radius)
+                    .sorted(Comparator.comparingDouble(GeoGrid.Hit::distanceKm).thenComparingLong(GeoGrid.Hit::id))
+                    .limit(limit)
+                    .toList();
+
+            assertThat(grid.nearest(center, radius, id -> !even || id % 2 == 0, limit))
+                    .as("centre %s, rayon %s", center, radius)
+                    .containsExactlyElementsOf(expected);
+        }
+        assertThat(grid.size()).isEqualTo(4900);
+    }
+
+    @Test
+    void distance_parisLyon() {
+        GeoPoint paris = new GeoPoint(48.8566, 2.3522);
+        assertThat(paris.distanceKm(45.7640, 4.8357)).isBetween(390.0, 394.0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ebooking.backend.service.geo;
+
+import com.ebooking.backend.dto.prestataire.PrestataireNearbyResponse;
+import com.ebooking.backend.dto.prestataire.PrestataireOnboardingRequest;
+import com.ebooking.backend.dto.prestataire.PrestataireResponse;
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import com.ebooking.backend.model.Disponibilite;
+import com.ebooking.backend.model.ServiceCatalog;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.repository.DisponibiliteRepository;
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.repository.ServiceRepository;
+import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.service.PrestataireServiceBiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class NearbySearchIntegrationTest {
+
+    private static final double PARIS_LAT = 48.8566, PARIS_LON = 2.3522;
+
+    @Autowired private PrestataireServiceBiz prestataireService;
+    @Autowired private OfflineGeocoder geocoder;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+
+    private ServiceCatalog coupe;
+
+    @BeforeEach
+    void setUp() {
+        coupe = serviceRepository.save(ServiceCatalog.builder().nom("Coupe " + UUID.randomUUID()).dureeMin(30).build());
+    }
+
+    @Test
+    void geocoder_prefersPostalCodeThenLastCityName() {
+        assertThat(geocoder.locate("3 rue de Lyon, 75012 Paris")).contains(new GeoPoint(PARIS_LAT, PARIS_LON));
+        assertThat(geocoder.locate("12 avenue de Paris, Versailles")).contains(new GeoPoint(48.8049, 2.1204));
+        assertThat(geocoder.locate("place Bellecour, LYON")).contains(new GeoPoint(45.7640, 4.8357));
+        assertThat(geocoder.locate("Créteil")).isEqualTo(geocoder.locate("creteil"));
+        assertThat(geocoder.locate("Lieu-dit inconnu")).isEmpty();
+    }
+
+    @Test
+    void nearby_ordersByDistanceFiltersByServiceAndRadius() {
+        var paris = onboard("15 rue Oberkampf, 75011 Paris", null, null, List.of(coupe.getId()));
+        var versailles = onboard("Versailles", null, null, List.of(coupe.getId()));
+        var montreuil = onboard(null, 48.8638, 2.4485, List.of(coupe.getId()));
+        onboard("Lyon", null, null, List.of(coupe.getId()));
+        onboard("75011 Paris", null, null, List.of());
+
+        assertThat(paris.latitude()).isEqualTo(PARIS_LAT);
+        List<PrestataireNearbyResponse> near = prestataireService.nearby(PARIS_LAT, PARIS_LON, coupe.getId(), 30.0, null, false);
+
+        assertThat(near).extracting(n -> n.prestataire().id())
+                .containsExactly(paris.id(), montreuil.id(), versailles.id());
+        assertThat(near.get(0).distanceKm()).isZero();
+        assertThat(near.get(2).distanceKm()).isBetween(15.0, 20.0);
+        assertThat(near).allSatisfy(n -> assertThat(n.firstSlot()).isNull());
+
+        assertThat(prestataireService.nearby(PARIS_LAT, PARIS_LON, coupe.getId(), 10.0, 1, false))
+                .extracting(n -> n.prestataire().id()).containsExactly(paris.id());
+    }
+
+    @Test
+    void nearby_withFirstSlot_joinsEachProvidersEarliestFreeSlot() {
+        var open = onboard(null, 10.0, -30.0, List.of(coupe.getId()));
+        var closed = onboard(null, 10.01, -30.0, List.of(coupe.getId()));
+        for (JourSemaine jour : JourSemaine.values()) {
+            disponibiliteRepository.save(Disponibilite.builder().prestataire(prestataireRepository.getReferenceById(open.id()))
+                    .jourSemaine(jour).heureDebut(LocalTime.of(8, 0)).heureFin(LocalTime.of(20, 0)).build());
+        }
+
+        var near = prestataireService.nearby(10.0, -30.0, null, 5.0, null, true);
+
+        assertThat(near).extracting(n -> n.prestataire().id()).containsExactly(open.id(), closed.id());
+        assertThat(near.get(0).firstSlot()).isNotNull();
+        assertThat(near.get(0).firstSlot().prestataireId()).isEqualTo(open.id());
+        assertThat(near.get(1).firstSlot()).isNull();
+    }
+
+    @Test
+    void invalidCoordinates_areRejected() {
+        assertThatThrownBy(() -> prestataireService.nearby(91, 0, null, null, null, false))
+                .isInstanceOf(UnprocessableEntityException.class);
+        assertThatThrownBy(() -> onboard(null, 48.0, null, List.of()))
+                .isInstanceOf(UnprocessableEntityException.class);
+    }
+
+    private PrestataireResponse onboard(String adresse, Double lat, Double lon, List<Long> serviceIds) {
+        User u = new User();
+        u.setPrenom("Ada");
+        u.setNom("Test");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        u = userRepository.save(u);
+        return prestataireService.onboard(u.getId(), new PrestataireOnboardingRequest("Coiffure", adresse, serviceIds, lat, lon));
+    }
+}
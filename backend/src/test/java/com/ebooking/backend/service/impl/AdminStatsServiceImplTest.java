@@ -0,0 +1,136 @@
+package com.ebooking.backend.service.impl;
+
+import com.ebooking.backend.dto.admin.SeriesPointResponse;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.UserStatus;
+import com.ebooking.backend.repository.DisponibiliteRepository;
+import com.ebooking.backend.repository.DailyStatRepository;
+import com.ebooking.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AdminStatsServiceImplTest {
+
+    /** [jour, début, fin, nombre de plages identiques] */
+    private static final List<Object[]> PLAGES = List.of(
+            new Object[]{JourSemaine.LUNDI, LocalTime.of(9, 0), LocalTime.of(12, 0), 3L},
+            new Object[]{JourSemaine.LUNDI, LocalTime.of(14, 0), LocalTime.of(17, 45), 1L},
+            new Object[]{JourSemaine.MERCREDI, LocalTime.of(8, 0), LocalTime.of(8, 20), 2L},
+            new Object[]{JourSemaine.SAMEDI, LocalTime.of(10, 0), LocalTime.of(19, 0), 4L},
+            new Object[]{JourSemaine.DIMANCHE, LocalTime.of(18, 0), LocalTime.of(9, 0), 1L});
+
+    private UserRepository userRepo;
+    private DailyStatRepository statsRepo;
+    private DisponibiliteRepository dispoRepo;
+    private AdminStatsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = mock(UserRepository.class);
+        statsRepo = mock(DailyStatRepository.class);
+        dispoRepo = mock(DisponibiliteRepository.class);
+        when(dispoRepo.countGroupedByJourAndPlage()).thenReturn(PLAGES);
+        service = new AdminStatsServiceImpl(userRepo, statsRepo, dispoRepo);
+    }
+
+    @Test
+    void summary_matchesPerDayComputationWithConstantQueries() {
+        when(userRepo.countGroupedByStatut()).thenReturn(List.of(
+                new Object[]{UserStatus.ACTIF, 12L}, new Object[]{UserStatus.BLOQUE, 3L}));
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        when(statsRepo.sumRdvBetween(from, to)).thenReturn(1500L);
+
+        var summary = service.summary(from, to);
+
+        long expectedSlots = bruteForceSlots(from, to);
+        assertThat(summary.totalUsers()).isEqualTo(15);
+        assertThat(summary.activeUsers()).isEqualTo(12);
+        assertThat(summary.blockedUsers()).isEqualTo(3);
+        assertThat(summary.occupancyRate()).isEqualTo(Math.round(Math.min(100d, 1500 * 100.0 / expectedSlots) * 10.0) / 10.0);
+        verify(dispoRepo, times(1)).countGroupedByJourAndPlage();
+        verify(dispoRepo, never()).findByJourSemaine(any());
+    }
+
+    @Test
+    void countPotentialSlots_equalsDayByDaySumForEveryAlignment() {
+        Map<DayOfWeek, Long> perWeekday = Map.of(
+                DayOfWeek.MONDAY, 7L, DayOfWeek.WEDNESDAY, 1L, DayOfWeek.SATURDAY, 5L, DayOfWeek.SUNDAY, 2L);
+        LocalDate base = LocalDate.of(2025, 3, 3);
+        for (int start = 0; start < 7; start++) {
+            for (int len = -1; len < 40; len++) {
+                LocalDate from = base.plusDays(start);
+                LocalDate to = from.plusDays(len);
+                long expected = 0;
+                for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                    expected += perWeekday.getOrDefault(d.getDayOfWeek(), 0L);
+                }
+                assertThat(AdminStatsServiceImpl.countPotentialSlots(perWeekday, from, to))
+                        .as("%s..%s", from, to).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void occupancySeries_usesGroupedCounts() {
+        LocalDate from = LocalDate.of(2025, 11, 1);
+        LocalDate to = LocalDate.of(2025, 11, 10);
+        List<Object[]> grouped = new ArrayList<>();
+        grouped.add(new Object[]{LocalDate.of(2025, 11, 1), 9L});
+        grouped.add(new Object[]{LocalDate.of(2025, 11, 3), 4L});
+        when(statsRepo.sumRdvGroupedByJour(from, to)).thenReturn(grouped);
+
+        List<SeriesPointResponse> series = service.series("occupancy_rate", from, to, "daily");
+
+        assertThat(series).hasSize(10);
+        for (SeriesPointResponse p : series) {
+            LocalDate d = LocalDate.parse(p.date());
+            long rdv = d.equals(LocalDate.of(2025, 11, 1)) ? 9 : d.equals(LocalDate.of(2025, 11, 3)) ? 4 : 0;
+            long slots = bruteForceSlots(d, d);
+            assertThat(p.value()).as(d.toString()).isEqualTo(Math.round(slots == 0 ? 0 : rdv * 100.0 / slots));
+        }
+        verify(statsRepo, times(1)).sumRdvGroupedByJour(from, to);
+    }
+
+    @Test
+    void weeklyRdvCount_foldsDailyRollupRowsIntoIsoWeeks() {
+        LocalDate from = LocalDate.of(2024, 12, 28);
+        LocalDate to = LocalDate.of(2025, 1, 12);
+        List<Object[]> grouped = new ArrayList<>();
+        grouped.add(new Object[]{LocalDate.of(2024, 12, 28), 2L});
+        grouped.add(new Object[]{LocalDate.of(2024, 12, 30), 5L});
+        grouped.add(new Object[]{LocalDate.of(2025, 1, 5), 1L});
+        grouped.add(new Object[]{LocalDate.of(2025, 1, 6), 3L});
+        when(statsRepo.sumRdvGroupedByJour(from, to)).thenReturn(grouped);
+
+        List<SeriesPointResponse> series = service.series("rdv_count", from, to, "weekly");
+
+        assertThat(series).extracting(SeriesPointResponse::date).containsExactly("2024-52", "2025-01", "2025-02");
+        assertThat(series).extracting(SeriesPointResponse::value).containsExactly(2L, 6L, 3L);
+    }
+
+    /** Algorithme d'origine : une lecture des plages par jour de la période. */
+    private static long bruteForceSlots(LocalDate from, LocalDate to) {
+        long total = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            for (Object[] p : PLAGES) {
+                if (((JourSemaine) p[0]).ordinal() != d.getDayOfWeek().ordinal()) continue;
+                long minutes = Duration.between((LocalTime) p[1], (LocalTime) p[2]).toMinutes();
+                if (minutes > 0) total += (minutes / 30) * (Long) p[3];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ebooking.backend.service.impl;
+
+import com.ebooking.backend.dto.admin.AdminUserItemResponse;
+import com.ebooking.backend.dto.common.CursorPage;
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.model.UserRole;
+import com.ebooking.backend.model.enums.Role;
+import com.ebooking.backend.model.enums.UserStatus;
+import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.service.AdminUserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class AdminUserSearchIntegrationTest {
+
+    @Autowired private AdminUserService service;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager em;
+    @Autowired private EntityManagerFactory emf;
+
+    /** Marqueur propre au test, pour ne voir que ses utilisateurs. */
+    private final String tag = "zq" + UUID.randomUUID().toString().substring(0, 8);
+    private final List<User> users = new ArrayList<>();
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 7; i++) {
+            users.add(user("Client" + i, i % 2 == 0 ? List.of(Role.CLIENT) : List.of(Role.CLIENT, Role.PRO), UserStatus.ACTIF));
+        }
+        users.add(user("Admin", List.of(Role.ADMIN), UserStatus.ACTIF));
+        users.add(user("Bloque", List.of(Role.CLIENT), UserStatus.BLOQUE));
+        em.flush();
+        em.clear();
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void cursorPages_walkEveryMatchOnceNewestFirst_withoutCountQuery() {
+        // ids alloués par blocs : un utilisateur d'id plus petit peut être le plus récent
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < users.size(); i++) {
+            LocalDateTime createdAt = i == 0 ? base.plusDays(1) : i == 1 || i == 2 ? base : base.minusMinutes(i);
+            em.createNativeQuery("UPDATE users SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, createdAt).setParameter(2, users.get(i).getId()).executeUpdate();
+        }
+        em.clear();
+        stats.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var page = service.listPage(tag.toUpperCase(), "ALL", "ALL", "ADMIN", cursor, 3, "createdAt,DESC");
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(3);
+            page.items().forEach(i -> seen.add(i.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        // par page : utilisateurs + rôles du lot, jamais de COUNT ni de chargement par ligne
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2L * pages);
+
+        List<Long> expected = userRepository.findAllById(users.stream().map(User::getId).toList()).stream()
+                .filter(u -> !u.getPrenom().equals("Admin"))
+                .sorted(Comparator.comparing(User::getCreatedAt).thenComparing(User::getId).reversed())
+                .map(User::getId)
+                .toList();
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(seen.get(0)).isEqualTo(users.get(0).getId());
+    }
+
+    @Test
+    void tamperedCursor_isRejected() {
+        assertThatThrownBy(() -> service.listPage(tag, "ALL", "ALL", "ADMIN", CursorPage.encode("hier", 1L), 3, "createdAt,DESC"))
+                .isInstanceOf(UnprocessableEntityException.class);
+    }
+
+    @Test
+    void cursorAscending_andFilters() {
+        var asc = service.listPage(tag, "ACTIF", "PRO", "ADMIN", null, 10, "id,ASC");
+        assertThat(asc.items()).extracting(AdminUserItemResponse::prenom)
+                .containsExactly("Client1", "Client3", "Client5");
+        assertThat(asc.items().get(0).roles()).containsExactlyInAnyOrder("CLIENT", "PRO");
+        assertThat(asc.nextCursor()).isNull();
+
+        var blocked = service.listPage(tag, "BLOQUE", "ALL", "ADMIN", null, 10, null);
+        assertThat(blocked.items()).extracting(AdminUserItemResponse::prenom).containsExactly("Bloque");
+
+        assertThatThrownBy(() -> service.listPage(tag, "ALL", "ALL", "ADMIN", null, 10, "nom,ASC"))
+                .isInstanceOf(UnprocessableEntityException.class);
+    }
+
+    @Test
+    void likeWildcardsInQuery_areMatchedLiterally() {
+        assertThat(service.listPage(tag + "%", "ALL", "ALL", null, null, 50, null).items()).isEmpty();
+        assertThat(service.listPage("_" + tag.substring(1), "ALL", "ALL", null, null, 50, null).items()).isEmpty();
+        assertThat(service.listPage("client3 " + tag, "ALL", "ALL", null, null, 50, null).items()).isEmpty();
+        assertThat(service.listPage("client3." + tag, "ALL", "ALL", null, null, 50, null).items()).hasSize(1);
+    }
+
+    @Test
+    void offsetModes_withAndWithoutTotal() {
+        var page = service.list(tag, "ALL", "ALL", "ADMIN", 0, 5, "createdAt,DESC");
+        assertThat(page.getTotalElements()).isEqualTo(8);
+        assertThat(page.getContent()).hasSize(5);
+
+        stats.clear();
+        var slice = service.listSlice(tag, "ALL", "ALL", "ADMIN", 1, 5, "createdAt,DESC");
+        assertThat(slice.getContent()).hasSize(3);
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private User user(String prenom, List<Role> roles, UserStatus statut) {
+        User u = new User();
+        u.setPrenom(prenom);
+        u.setNom("Test");
+        u.setEmail(prenom.toLowerCase() + "." + tag + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        u.setStatut(statut);
+        for (Role r : roles) {
+            UserRole role = new UserRole();
+            role.setUser(u);
+            role.setRole(r);
+            u.getRoles().add(role);
+        }
+        return userRepository.save(u);
+    }
+}
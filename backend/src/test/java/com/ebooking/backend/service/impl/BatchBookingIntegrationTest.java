@@ -0,0 +1,147 @@
+package com.ebooking.backend.service.impl;
+
+import com.ebooking.backend.dto.rdv.BatchRendezVousRequest;
+import com.ebooking.backend.dto.rdv.BatchRendezVousResponse;
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.RendezVousService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ebooking.backend.dto.rdv.BatchRendezVousResponse.Statut.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class BatchBookingIntegrationTest {
+
+    @Autowired private RendezVousService rdvService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private ServiceCatalog service;
+    private Prestataire prestataire;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        service = serviceRepository.save(ServiceCatalog.builder().nom("Séance" + UUID.randomUUID()).dureeMin(60).build());
+        client = save(buildUser());
+        Prestataire p = new Prestataire();
+        p.setUser(save(buildUser()));
+        p.setSpecialite("Coaching");
+        prestataire = prestataireRepository.save(p);
+        PrestataireService link = new PrestataireService();
+        link.setPrestataire(prestataire);
+        link.setService(service);
+        prestataireServiceRepository.save(link);
+        Disponibilite d = new Disponibilite();
+        d.setPrestataire(prestataire);
+        d.setJourSemaine(JourSemaine.LUNDI);
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(18, 0));
+        disponibiliteRepository.save(d);
+        LocalDate now = LocalDate.now();
+        monday = now.plusDays((DayOfWeek.MONDAY.getValue() - now.getDayOfWeek().getValue() + 7) % 7 + 7);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()));
+        disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(prestataire.getId()));
+        prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(prestataire.getId()));
+        prestataireRepository.delete(prestataire);
+        serviceRepository.delete(service);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void bestEffort_insertsValidItems_andReportsEachRejection() {
+        rdvService.create(client.getId(), item(monday.plusWeeks(3), "14:00"));
+
+        var resp = rdvService.createBatch(client.getId(), new BatchRendezVousRequest(List.of(
+                item(monday, "10:00"),
+                item(monday.plusWeeks(1), "10:00"),
+                item(monday, "10:30"),
+                item(monday.plusDays(1), "10:00"),
+                item(monday.plusWeeks(3), "14:30"),
+                new RendezVousRequest(service.getId(), prestataire.getId(), "demain", "10:00", null)
+        ), BatchRendezVousRequest.Mode.AU_MIEUX));
+
+        assertThat(resp.items()).extracting(BatchRendezVousResponse.Item::statut)
+                .containsExactly(CREE, CREE, REFUSE, REFUSE, REFUSE, REFUSE);
+        assertThat(resp.items()).extracting(BatchRendezVousResponse.Item::erreur).containsExactly(
+                null, null,
+                "Créneau déjà réservé",
+                "Pas de créneau disponible couvrant cet horaire",
+                "Créneau déjà réservé",
+                "Date ou heure invalide");
+        assertThat(resp.crees()).isEqualTo(2);
+        assertThat(resp.refuses()).isEqualTo(4);
+        var first = resp.items().get(0).rendezVous();
+        assertThat(first.id()).isNotNull();
+        assertThat(rendezVousRepository.findById(first.id()).orElseThrow().getHeure()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId())).hasSize(3);
+    }
+
+    @Test
+    void allOrNothing_writesNothingWhenOneItemFails() {
+        List<RendezVousRequest> weekly = new ArrayList<>();
+        for (int w = 0; w < 10; w++) weekly.add(item(monday.plusWeeks(w), "09:00"));
+        weekly.add(item(monday.plusWeeks(4), "09:30"));
+
+        var resp = rdvService.createBatch(client.getId(), new BatchRendezVousRequest(weekly, null));
+
+        assertThat(resp.crees()).isZero();
+        assertThat(resp.refuses()).isEqualTo(1);
+        assertThat(resp.items().get(10).statut()).isEqualTo(REFUSE);
+        assertThat(resp.items().subList(0, 10)).allMatch(i -> i.statut() == NON_ENREGISTRE);
+        assertThat(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId())).isEmpty();
+
+        var ok = rdvService.createBatch(client.getId(), new BatchRendezVousRequest(weekly.subList(0, 10), null));
+
+        assertThat(ok.crees()).isEqualTo(10);
+        assertThat(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()))
+                .extracting(RendezVous::getDate)
+                .containsExactly(weekly.subList(0, 10).stream().map(r -> LocalDate.parse(r.date())).toArray(LocalDate[]::new));
+    }
+
+    private RendezVousRequest item(LocalDate date, String heure) {
+        return new RendezVousRequest(service.getId(), prestataire.getId(), date.toString(), heure, null);
+    }
+
+    private User save(User u) {
+        u = userRepository.save(u);
+        users.add(u);
+        return u;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
@@ -1,13 +1,16 @@
 package com.ebooking.backend.service.impl;
 
+import com.ebooking.backend.config.RangeExclusionSchema;
 import com.ebooking.backend.dto.dispo.DisponibiliteResponse;
 import com.ebooking.backend.exception.UnprocessableEntityException;
 import com.ebooking.backend.model.*;
 import com.ebooking.backend.model.enums.JourSemaine;
 import com.ebooking.backend.model.enums.StatutRdv;
 import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -27,6 +30,7 @@ class DisponibiliteServiceImplTest {
     private ServiceRepository serviceRepo;
     private PrestataireServiceRepository prestataireServiceRepo;
     private RendezVousRepository rdvRepo;
+    private AvailabilityEngine availability;
     private DisponibiliteServiceImpl service;
 
     @BeforeEach
@@ -36,19 +40,20 @@ class DisponibiliteServiceImplTest {
         serviceRepo = mock(ServiceRepository.class);
         prestataireServiceRepo = mock(PrestataireServiceRepository.class);
         rdvRepo = mock(RendezVousRepository.class);
-        service = new DisponibiliteServiceImpl(dispoRepo, prestataireRepo, serviceRepo, prestataireServiceRepo, rdvRepo);
+        availability = new AvailabilityEngine(dispoRepo, rdvRepo, mock(RendezVousSeriesRepository.class), prestataireRepo, prestataireServiceRepo, serviceRepo, 62);
+        service = new DisponibiliteServiceImpl(dispoRepo, prestataireRepo, serviceRepo, prestataireServiceRepo, availability,
+                RangeExclusionSchema.disabled(), mock(ApplicationEventPublisher.class));
     }
 
     @Test
     void slotsForDate_returnsSlotsRespectingDurationAndBookings() {
         Prestataire prestataire = new Prestataire();
         prestataire.setId(7L);
-        when(prestataireRepo.findById(7L)).thenReturn(Optional.of(prestataire));
+        when(prestataireRepo.existsById(7L)).thenReturn(true);
 
         ServiceCatalog serviceCatalog = new ServiceCatalog();
         serviceCatalog.setId(3L);
-        when(serviceRepo.findById(3L)).thenReturn(Optional.of(serviceCatalog));
-        when(prestataireServiceRepo.existsByPrestataireIdAndServiceId(7L, 3L)).thenReturn(true);
+        when(prestataireServiceRepo.findServiceIdsByPrestataireId(7L)).thenReturn(List.of(3L));
 
         Disponibilite d = new Disponibilite();
         d.setHeureDebut(LocalTime.of(9, 0));
@@ -56,7 +61,7 @@ class DisponibiliteServiceImplTest {
         d.setJourSemaine(JourSemaine.SAMEDI);
         d.setPrestataire(prestataire);
         d.setService(serviceCatalog);
-        when(dispoRepo.findByPrestataireIdAndJourSemaine(7L, JourSemaine.SAMEDI)).thenReturn(List.of(d));
+        when(dispoRepo.findByPrestataireId(7L)).thenReturn(List.of(d));
 
         LocalDate date = LocalDate.of(2025, 11, 8);
         RendezVous blocking = RendezVous.builder()
@@ -77,11 +82,32 @@ class DisponibiliteServiceImplTest {
         assertThat(slots).doesNotContain("12:00", "12:30", "13:00", "13:30");
     }
 
+    @Test
+    void slotsForDate_usesCatalogDurationWhenNoneRequested() {
+        Prestataire prestataire = new Prestataire();
+        prestataire.setId(7L);
+        when(prestataireRepo.existsById(7L)).thenReturn(true);
+        when(prestataireServiceRepo.findServiceIdsByPrestataireId(7L)).thenReturn(List.of(3L));
+        when(serviceRepo.findDureeMinById(3L)).thenReturn(Optional.of(90));
+
+        Disponibilite d = new Disponibilite();
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(12, 0));
+        d.setJourSemaine(JourSemaine.SAMEDI);
+        d.setPrestataire(prestataire);
+        when(dispoRepo.findByPrestataireId(7L)).thenReturn(List.of(d));
+        when(rdvRepo.findByPrestataireIdAndDateAndStatutIn(anyLong(), any(), anyList())).thenReturn(List.of());
+
+        assertThat(service.slotsForDate(7L, 3L, "2025-11-08", 30, null)).containsExactly("09:00", "09:30", "10:00", "10:30");
+        assertThat(service.slotsForDate(7L, 3L, "2025-11-15", 30, null)).hasSize(4);
+        verify(serviceRepo, times(1)).findDureeMinById(3L);
+    }
+
     @Test
     void slotsForDate_throwsWhenServiceLinkMissing() {
-        when(prestataireRepo.findById(7L)).thenReturn(Optional.of(new Prestataire()));
-        when(serviceRepo.findById(3L)).thenReturn(Optional.of(new ServiceCatalog()));
-        when(prestataireServiceRepo.existsByPrestataireIdAndServiceId(7L, 3L)).thenReturn(false);
+        when(prestataireRepo.existsById(7L)).thenReturn(true);
+        when(serviceRepo.existsById(3L)).thenReturn(true);
+        when(prestataireServiceRepo.findServiceIdsByPrestataireId(7L)).thenReturn(List.of());
 
         assertThatThrownBy(() -> service.slotsForDate(7L, 3L, "2025-11-08", 30, 60))
                 .isInstanceOf(UnprocessableEntityException.class)
@@ -92,14 +118,14 @@ class DisponibiliteServiceImplTest {
     void slotsForDate_withoutServiceUsesGeneralAvailability() {
         Prestataire prestataire = new Prestataire();
         prestataire.setId(7L);
-        when(prestataireRepo.findById(7L)).thenReturn(Optional.of(prestataire));
+        when(prestataireRepo.existsById(7L)).thenReturn(true);
 
         Disponibilite d = new Disponibilite();
         d.setHeureDebut(LocalTime.of(9, 0));
         d.setHeureFin(LocalTime.of(12, 0));
         d.setJourSemaine(JourSemaine.SAMEDI);
         d.setPrestataire(prestataire);
-        when(dispoRepo.findByPrestataireIdAndJourSemaine(7L, JourSemaine.SAMEDI)).thenReturn(List.of(d));
+        when(dispoRepo.findByPrestataireId(7L)).thenReturn(List.of(d));
         when(rdvRepo.findByPrestataireIdAndDateAndStatutIn(anyLong(), any(), anyList()))
                 .thenReturn(List.of());
 
@@ -108,6 +134,124 @@ class DisponibiliteServiceImplTest {
         assertThat(slots).doesNotContain("11:30"); 
     }
 
+    @Test
+    void slotsForDate_servedFromMemoryUntilInvalidated() {
+        Prestataire prestataire = new Prestataire();
+        prestataire.setId(7L);
+        when(prestataireRepo.existsById(7L)).thenReturn(true);
+
+        Disponibilite d = new Disponibilite();
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(11, 0));
+        d.setJourSemaine(JourSemaine.SAMEDI);
+        d.setPrestataire(prestataire);
+        when(dispoRepo.findByPrestataireId(7L)).thenReturn(List.of(d));
+
+        LocalDate date = LocalDate.of(2025, 11, 8);
+        when(rdvRepo.findByPrestataireIdAndDateAndStatutIn(eq(7L), eq(date), anyList()))
+                .thenReturn(List.of());
+
+        assertThat(service.slotsForDate(7L, null, date.toString(), 30, 60)).containsExactly("09:00", "09:30", "10:00");
+        assertThat(service.slotsForDate(7L, null, date.toString(), 30, 60)).containsExactly("09:00", "09:30", "10:00");
+        verify(dispoRepo, times(1)).findByPrestataireId(7L);
+        verify(rdvRepo, times(1)).findByPrestataireIdAndDateAndStatutIn(eq(7L), eq(date), anyList());
+
+        RendezVous booked = RendezVous.builder()
+                .prestataire(prestataire)
+                .date(date)
+                .heure(LocalTime.of(9, 30))
+                .dureeMinutes(30)
+                .statut(StatutRdv.EN_ATTENTE)
+                .build();
+        when(rdvRepo.findByPrestataireIdAndDateAndStatutIn(eq(7L), eq(date), anyList()))
+                .thenReturn(List.of(booked));
+        availability.invalidateDay(7L, date);
+
+        assertThat(service.slotsForDate(7L, null, date.toString(), 30, 60)).containsExactly("09:00", "10:00");
+        verify(dispoRepo, times(1)).findByPrestataireId(7L);
+    }
+
+    @Test
+    void slotsForRange_loadsBookingsOnceForWholeRange() {
+        Prestataire prestataire = new Prestataire();
+        prestataire.setId(7L);
+        when(prestataireRepo.existsById(7L)).thenReturn(true);
+
+        Disponibilite d = new Disponibilite();
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(10, 0));
+        d.setJourSemaine(JourSemaine.SAMEDI);
+        d.setPrestataire(prestataire);
+        when(dispoRepo.findByPrestataireId(7L)).thenReturn(List.of(d));
+
+        LocalDate saturday = LocalDate.of(2025, 11, 8);
+        LocalDate nextSaturday = saturday.plusWeeks(1);
+        RendezVous booked = RendezVous.builder()
+                .prestataire(prestataire)
+                .date(nextSaturday)
+                .heure(LocalTime.of(9, 0))
+                .dureeMinutes(30)
+                .statut(StatutRdv.CONFIRME)
+                .build();
+        when(rdvRepo.findByPrestataireIdAndDateBetweenAndStatutIn(eq(7L), eq(saturday), eq(nextSaturday), anyList()))
+                .thenReturn(List.of(booked));
+
+        var slots = service.slotsForRange(7L, null, saturday.toString(), nextSaturday.toString(), 30, 30);
+
+        assertThat(slots).hasSize(8);
+        assertThat(slots.get(saturday.toString())).containsExactly("09:00", "09:30");
+        assertThat(slots.get(saturday.plusDays(1).toString())).isEmpty();
+        assertThat(slots.get(nextSaturday.toString())).containsExactly("09:30");
+        verify(rdvRepo, times(1)).findByPrestataireIdAndDateBetweenAndStatutIn(anyLong(), any(), any(), anyList());
+        verify(rdvRepo, never()).findByPrestataireIdAndDateAndStatutIn(anyLong(), any(), anyList());
+    }
+
+    @Test
+    void firstAvailable_mergesProvidersInChronologicalOrder() {
+        Prestataire p7 = new Prestataire();
+        p7.setId(7L);
+        Prestataire p8 = new Prestataire();
+        p8.setId(8L);
+        ServiceCatalog sc = new ServiceCatalog();
+        sc.setId(3L);
+        when(prestataireServiceRepo.findPrestataireIdsByServiceId(3L)).thenReturn(List.of(7L, 8L));
+        when(prestataireServiceRepo.findLinksByPrestataireIdIn(anyCollection()))
+                .thenReturn(List.of(new Object[]{7L, 3L}, new Object[]{8L, 3L}));
+
+        Disponibilite d7 = new Disponibilite();
+        d7.setPrestataire(p7);
+        d7.setJourSemaine(JourSemaine.SAMEDI);
+        d7.setHeureDebut(LocalTime.of(10, 0));
+        d7.setHeureFin(LocalTime.of(12, 0));
+        Disponibilite d8 = new Disponibilite();
+        d8.setPrestataire(p8);
+        d8.setService(sc);
+        d8.setJourSemaine(JourSemaine.SAMEDI);
+        d8.setHeureDebut(LocalTime.of(9, 0));
+        d8.setHeureFin(LocalTime.of(11, 0));
+        when(dispoRepo.findByPrestataireIdIn(anyCollection())).thenReturn(List.of(d7, d8));
+
+        LocalDate saturday = LocalDate.now().plusYears(1).with(java.time.temporal.TemporalAdjusters.next(java.time.DayOfWeek.SATURDAY));
+        RendezVous booked = RendezVous.builder()
+                .prestataire(p8)
+                .date(saturday)
+                .heure(LocalTime.of(9, 0))
+                .dureeMinutes(60)
+                .statut(StatutRdv.CONFIRME)
+                .build();
+        when(rdvRepo.findByPrestataireIdInAndDateBetweenAndStatutIn(anyCollection(), any(), any(), anyList()))
+                .thenReturn(List.of(booked));
+
+        var slots = service.firstAvailable(3L, saturday.minusDays(1).toString(), saturday.plusDays(7).toString(), 60, 60, 4);
+
+        assertThat(slots).extracting(s -> s.prestataireId() + "@" + s.date() + "T" + s.heure()).containsExactly(
+                "7@" + saturday + "T10:00",
+                "8@" + saturday + "T10:00",
+                "7@" + saturday + "T11:00",
+                "8@" + saturday.plusDays(7) + "T09:00");
+        verify(rdvRepo, times(1)).findByPrestataireIdInAndDateBetweenAndStatutIn(anyCollection(), any(), any(), anyList());
+    }
+
     @Test
     void createDisponibilite_rejectsOverlapWithExistingGeneral() {
         Prestataire prestataire = new Prestataire();
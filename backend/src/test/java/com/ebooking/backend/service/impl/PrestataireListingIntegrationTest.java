@@ -0,0 +1,111 @@
+package com.ebooking.backend.service.impl;
+
+import com.ebooking.backend.dto.prestataire.PrestataireResponse;
+import com.ebooking.backend.model.Prestataire;
+import com.ebooking.backend.model.PrestataireService;
+import com.ebooking.backend.model.ServiceCatalog;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.repository.PrestataireRepository;
+import com.ebooking.backend.repository.PrestataireServiceRepository;
+import com.ebooking.backend.repository.ServiceRepository;
+import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.service.PrestataireServiceBiz;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class PrestataireListingIntegrationTest {
+
+    @Autowired private PrestataireServiceBiz prestataireService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireServiceRepository linkRepository;
+    @Autowired private EntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private CacheManager cacheManager;
+
+    private final List<Long> created = new ArrayList<>();
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        ServiceCatalog a = serviceRepository.save(ServiceCatalog.builder().nom("A" + UUID.randomUUID()).build());
+        ServiceCatalog b = serviceRepository.save(ServiceCatalog.builder().nom("B" + UUID.randomUUID()).dureeMin(45).build());
+        for (int i = 0; i < 7; i++) {
+            Prestataire p = prestataireRepository.save(Prestataire.builder().user(userRepository.save(buildUser(i))).specialite("S" + i).build());
+            linkRepository.save(PrestataireService.builder().prestataire(p).service(a).build());
+            linkRepository.save(PrestataireService.builder().prestataire(p).service(b).build());
+            created.add(p.getId());
+        }
+        em.flush();
+        em.clear();
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @AfterEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void listAll_usesTwoStatementsWhateverTheNumberOfProviders() {
+        List<PrestataireResponse> all = prestataireService.listAll();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        var mine = all.stream().filter(r -> created.contains(r.id())).toList();
+        assertThat(mine).hasSize(7);
+        assertThat(mine).allSatisfy(r -> {
+            assertThat(r.prenom()).isEqualTo("Prenom");
+            assertThat(r.services()).hasSize(2);
+            assertThat(r.services().get(1).dureeMin()).isEqualTo(45);
+        });
+    }
+
+    @Test
+    void listPage_walksAllProvidersByKeyset() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            stats.clear();
+            var page = prestataireService.listPage(cursor, 3);
+            assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(3);
+            page.items().forEach(r -> seen.add(r.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null && pages < 100);
+
+        assertThat(seen).isSorted().doesNotHaveDuplicates().containsAll(created);
+    }
+
+    private User buildUser(int i) {
+        User u = new User();
+        u.setPrenom("Prenom");
+        u.setNom("Nom" + i);
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
@@ -1,11 +1,17 @@
 package com.ebooking.backend.service.impl;
 
+import com.ebooking.backend.config.RangeExclusionSchema;
 import com.ebooking.backend.dto.rdv.RendezVousRequest;
 import com.ebooking.backend.exception.UnprocessableEntityException;
 import com.ebooking.backend.model.*;
 import com.ebooking.backend.model.enums.JourSemaine;
 import com.ebooking.backend.model.enums.StatutRdv;
 import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.availability.AvailabilityEngine;
+import com.ebooking.backend.service.booking.BookingAdmission;
+import com.ebooking.backend.service.booking.PendingReaper;
+import com.ebooking.backend.service.booking.RendezVousBatchWriter;
+import com.ebooking.backend.service.series.SeriesMaterializer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -38,7 +44,10 @@ class RendezVousServiceImplTest {
         prestataireServiceRepo = mock(PrestataireServiceRepository.class);
         dispoRepo = mock(DisponibiliteRepository.class);
         userRepo = mock(UserRepository.class);
-        service = new RendezVousServiceImpl(rdvRepo, serviceRepo, prestataireRepo, prestataireServiceRepo, dispoRepo, userRepo);
+        service = new RendezVousServiceImpl(rdvRepo, mock(RendezVousSeriesRepository.class), serviceRepo, prestataireRepo,
+                prestataireServiceRepo, dispoRepo, userRepo, mock(AvailabilityEngine.class), new BookingAdmission(16, 1000, null),
+                RangeExclusionSchema.disabled(), mock(RendezVousBatchWriter.class), mock(SeriesMaterializer.class),
+                mock(PendingReaper.class), event -> {});
     }
 
     @Test
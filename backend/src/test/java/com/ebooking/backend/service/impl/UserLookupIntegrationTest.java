@@ -0,0 +1,95 @@
+package com.ebooking.backend.service.impl;
+
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.model.UserRole;
+import com.ebooking.backend.model.enums.Role;
+import com.ebooking.backend.model.enums.UserStatus;
+import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.service.AuthService;
+import com.ebooking.backend.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class UserLookupIntegrationTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private UserService userService;
+    @Autowired private AuthService authService;
+    @Autowired private EntityManager em;
+    @Autowired private EntityManagerFactory emf;
+
+    private User user;
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setPrenom("Ada");
+        user.setNom("Lovelace");
+        user.setEmail("Ada." + UUID.randomUUID() + "@Test.com");
+        user.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        user.setMotDePasseHash("hash");
+        user.setStatut(UserStatus.ACTIF);
+        for (Role r : List.of(Role.CLIENT, Role.PRO)) {
+            UserRole role = new UserRole();
+            role.setUser(user);
+            role.setRole(r);
+            user.getRoles().add(role);
+        }
+        user = userRepository.save(user);
+        em.flush();
+        em.clear();
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @AfterEach
+    void clearSecurity() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void loginLookup_loadsUserAndRolesInOneStatement_caseInsensitively() {
+        User found = userRepository.findWithRolesByEmailIgnoreCase(user.getEmail().toUpperCase()).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(found.getRoles())).isTrue();
+        assertThat(found.getRoles()).extracting(UserRole::getRole).containsExactlyInAnyOrder(Role.CLIENT, Role.PRO);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(userRepository.existsByEmailIgnoreCase(user.getEmail().toLowerCase())).isTrue();
+    }
+
+    @Test
+    void meAndAdminGetById_needOneStatementEach() {
+        assertThat(authService.me(user.getId()).roles()).containsExactlyInAnyOrder("CLIENT", "PRO");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+
+        em.clear();
+        stats.clear();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                999_999L, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        assertThat(userService.getById(999_999L, user.getId()).roles()).hasSize(2);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,230 @@
+package com.ebooking.backend.service.outbox;
+
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.TypeEvenementRdv;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.RendezVousService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.ebooking.backend.model.enums.TypeEvenementRdv.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+@SpringBootTest(properties = {"outbox.dispatcher.enabled=true", "outbox.poll-interval=PT0.05S"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class OutboxIntegrationTest {
+
+    @TestConfiguration
+    static class Subscribers {
+        @Bean
+        Recorder recorder() {
+            return new Recorder();
+        }
+    }
+
+    static class Recorder {
+        final List<RendezVousLifecycleEvent> received = new CopyOnWriteArrayList<>();
+        final Set<TypeEvenementRdv> failOnce = Collections.synchronizedSet(EnumSet.noneOf(TypeEvenementRdv.class));
+
+        @EventListener
+        public void on(RendezVousLifecycleEvent event) {
+            if (failOnce.remove(event.type())) throw new IllegalStateException("abonné indisponible");
+            received.add(event);
+        }
+    }
+
+    @Autowired private Recorder recorder;
+    @Autowired private RendezVousService rdvService;
+    @Autowired private OutboxEventRepository outboxRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+    @Autowired private TransactionTemplate tx;
+
+    private final List<User> users = new ArrayList<>();
+    private ServiceCatalog service;
+    private Prestataire prestataire;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        recorder.received.clear();
+        service = serviceRepository.save(ServiceCatalog.builder().nom("Séance" + UUID.randomUUID()).dureeMin(60).build());
+        client = save(buildUser());
+        Prestataire p = new Prestataire();
+        p.setUser(save(buildUser()));
+        p.setSpecialite("Coaching");
+        prestataire = prestataireRepository.save(p);
+        PrestataireService link = new PrestataireService();
+        link.setPrestataire(prestataire);
+        link.setService(service);
+        prestataireServiceRepository.save(link);
+        Disponibilite d = new Disponibilite();
+        d.setPrestataire(prestataire);
+        d.setJourSemaine(JourSemaine.LUNDI);
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(18, 0));
+        disponibiliteRepository.save(d);
+        LocalDate now = LocalDate.now();
+        monday = now.plusDays((DayOfWeek.MONDAY.getValue() - now.getDayOfWeek().getValue() + 7) % 7 + 7);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recorder.failOnce.clear();
+        outboxRepository.deleteAll(outboxRows());
+        rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()));
+        disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(prestataire.getId()));
+        prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(prestataire.getId()));
+        prestataireRepository.delete(prestataire);
+        serviceRepository.delete(service);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void lifecycle_isWrittenWithTheChange_thenDeliveredInOrder() throws Exception {
+        var rdv = rdvService.create(client.getId(), item("10:00"));
+        rdvService.confirmer(prestataire.getUser().getId(), rdv.id());
+        rdvService.annuler(client.getId(), rdv.id());
+
+        awaitReceived(3);
+        assertThat(received()).extracting(RendezVousLifecycleEvent::type).containsExactly(CREE, CONFIRME, ANNULE);
+        var cancelled = received().get(2);
+        assertThat(cancelled.rdvId()).isEqualTo(rdv.id());
+        assertThat(cancelled.before().statut().name()).isEqualTo("CONFIRME");
+        assertThat(cancelled.after().statut().name()).isEqualTo("ANNULE");
+        awaitPublished();
+    }
+
+    @Test
+    void failingSubscriber_isRetried_andLaterEventsOfTheProviderWait() throws Exception {
+        recorder.failOnce.add(CONFIRME);
+        var rdv = rdvService.create(client.getId(), item("10:00"));
+        rdvService.confirmer(prestataire.getUser().getId(), rdv.id());
+        rdvService.annuler(client.getId(), rdv.id());
+
+        awaitReceived(3);
+        assertThat(received()).extracting(RendezVousLifecycleEvent::type).containsExactly(CREE, CONFIRME, ANNULE);
+        awaitPublished();
+        var confirmed = outboxRows().stream().filter(o -> o.getType() == CONFIRME).findFirst().orElseThrow();
+        assertThat(confirmed.getTentatives()).isEqualTo(1);
+        assertThat(confirmed.getDerniereErreur()).isEqualTo("abonné indisponible");
+    }
+
+    @Test
+    void interleavedTransactionsOfOneProvider_takeTheirIdsInCommitOrder() throws Exception {
+        var first = rdvService.create(client.getId(), item("10:00"));
+        // autre semaine : les deux transactions ne partagent aucune ligne de daily_stats
+        var second = rdvService.create(client.getId(),
+                new RendezVousRequest(service.getId(), prestataire.getId(), monday.plusWeeks(1).toString(), "12:00", null));
+        awaitReceived(2);
+
+        // T1 confirme le premier et s'arrête juste avant son commit, sa ligne outbox écrite
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread t1 = new Thread(() -> tx.executeWithoutResult(status -> {
+            rdvService.confirmer(prestataire.getUser().getId(), first.id());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    written.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }));
+        t1.start();
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // T2, autre rendez-vous du même prestataire : ne prend son id qu'après le commit de T1
+        CountDownLatch t2Committed = new CountDownLatch(1);
+        Thread t2 = new Thread(() -> {
+            rdvService.annuler(client.getId(), second.id());
+            t2Committed.countDown();
+        });
+        t2.start();
+        assertThat(t2Committed.await(300, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        t1.join();
+        t2.join();
+        assertThat(t2Committed.getCount()).isZero();
+
+        awaitReceived(4);
+        assertThat(received()).extracting(RendezVousLifecycleEvent::type).containsExactly(CREE, CREE, CONFIRME, ANNULE);
+        assertThat(received()).extracting(RendezVousLifecycleEvent::rdvId).endsWith(first.id(), second.id());
+        assertThat(received()).extracting(RendezVousLifecycleEvent::outboxId).isSorted();
+        awaitPublished();
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received().size() < count) {
+            if (System.currentTimeMillis() > deadline) fail("Reçus : " + received());
+            Thread.sleep(20);
+        }
+    }
+
+    private void awaitPublished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxRows().stream().anyMatch(o -> o.getPublieLe() == null)) {
+            if (System.currentTimeMillis() > deadline) fail("Événements non marqués publiés");
+            Thread.sleep(20);
+        }
+    }
+
+    private List<RendezVousLifecycleEvent> received() {
+        return recorder.received.stream().filter(e -> e.prestataireId().equals(prestataire.getId())).toList();
+    }
+
+    private List<OutboxEvent> outboxRows() {
+        return outboxRepository.findAll().stream().filter(o -> o.getPrestataireId().equals(prestataire.getId())).toList();
+    }
+
+    private RendezVousRequest item(String heure) {
+        return new RendezVousRequest(service.getId(), prestataire.getId(), monday.toString(), heure, null);
+    }
+
+    private User save(User u) {
+        User saved = userRepository.save(u);
+        users.add(saved);
+        return saved;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
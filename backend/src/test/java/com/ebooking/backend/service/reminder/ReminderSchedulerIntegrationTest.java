@@ -0,0 +1,161 @@
+package com.ebooking.backend.service.reminder;
+
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.RendezVousService;
+import com.ebooking.backend.service.notification.Notification;
+import com.ebooking.backend.service.notification.NotificationSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+@SpringBootTest(properties = {"outbox.dispatcher.enabled=true", "outbox.poll-interval=PT0.05S",
+        "reminder.enabled=true", "reminder.horizon=P15D", "reminder.hours-before=24"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class ReminderSchedulerIntegrationTest {
+
+    @TestConfiguration
+    static class Senders {
+        @Bean
+        @Primary
+        RecordingSender recordingSender() {
+            return new RecordingSender();
+        }
+    }
+
+    static class RecordingSender implements NotificationSender {
+        final List<Notification> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(Notification notification) {
+            sent.add(notification);
+        }
+    }
+
+    @Autowired private ReminderScheduler scheduler;
+    @Autowired private RecordingSender sender;
+    @Autowired private RendezVousService rdvService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private ServiceCatalog service;
+    private Prestataire prestataire;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        service = serviceRepository.save(ServiceCatalog.builder().nom("Séance" + UUID.randomUUID()).dureeMin(60).build());
+        client = save(buildUser());
+        Prestataire p = new Prestataire();
+        p.setUser(save(buildUser()));
+        p.setSpecialite("Coaching");
+        prestataire = prestataireRepository.save(p);
+        PrestataireService link = new PrestataireService();
+        link.setPrestataire(prestataire);
+        link.setService(service);
+        prestataireServiceRepository.save(link);
+        Disponibilite d = new Disponibilite();
+        d.setPrestataire(prestataire);
+        d.setJourSemaine(JourSemaine.LUNDI);
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(18, 0));
+        disponibiliteRepository.save(d);
+        LocalDate now = LocalDate.now();
+        monday = now.plusDays((DayOfWeek.MONDAY.getValue() - now.getDayOfWeek().getValue() + 7) % 7 + 7);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()));
+        disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(prestataire.getId()));
+        prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(prestataire.getId()));
+        prestataireRepository.delete(prestataire);
+        serviceRepository.delete(service);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void confirmedBooking_isRemindedOnce_andCancelledOnesAreDropped() throws Exception {
+        Long proUserId = prestataire.getUser().getId();
+        var kept = rdvService.create(client.getId(), item("10:00"));
+        var cancelled = rdvService.create(client.getId(), item("14:00"));
+        assertThat(scheduler.scheduledAt(kept.id())).as("en attente : pas de rappel").isEmpty();
+
+        rdvService.confirmer(proUserId, kept.id());
+        rdvService.confirmer(proUserId, cancelled.id());
+        await(() -> scheduler.scheduledAt(kept.id()).isPresent() && scheduler.scheduledAt(cancelled.id()).isPresent());
+        Instant expected = monday.atTime(10, 0).atZone(ZoneId.of("Europe/Paris")).toInstant().minus(Duration.ofHours(24));
+        assertThat(scheduler.scheduledAt(kept.id())).contains(expected);
+
+        rdvService.annuler(client.getId(), cancelled.id());
+        await(() -> scheduler.scheduledAt(cancelled.id()).isEmpty());
+
+        scheduler.tick(expected.plusSeconds(1));
+        assertThat(reminders()).singleElement().satisfies(n -> {
+            assertThat(n.userId()).isEqualTo(client.getId());
+            assertThat(n.message()).contains("10:00");
+        });
+        assertThat(rendezVousRepository.findById(kept.id()).orElseThrow().getRappelEnvoyePour())
+                .isEqualTo(monday.atTime(10, 0));
+
+        // redémarrage simulé : le rechargement ne replanifie pas un rappel déjà envoyé
+        scheduler.reload();
+        assertThat(scheduler.scheduledAt(kept.id())).isEmpty();
+        assertThat(rendezVousRepository.claimReminder(kept.id(), monday.atTime(10, 0))).isZero();
+        assertThat(reminders()).hasSize(1);
+    }
+
+    private List<Notification> reminders() {
+        return sender.sent.stream().filter(n -> n.sujet().equals("Rappel de rendez-vous")).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Condition non atteinte");
+            Thread.sleep(20);
+        }
+    }
+
+    private RendezVousRequest item(String heure) {
+        return new RendezVousRequest(service.getId(), prestataire.getId(), monday.toString(), heure, null);
+    }
+
+    private User save(User u) {
+        User saved = userRepository.save(u);
+        users.add(saved);
+        return saved;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ebooking.backend.service.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-05T08:00:00Z");
+
+    @Test
+    void firesEachKeyOnceAtItsTick_acrossSeveralTurns_andHonoursCancelAndReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(Duration.ofMinutes(1), 8, T0);
+        wheel.schedule("a", T0.plusSeconds(90));          // arrondi à 2 min
+        wheel.schedule("b", T0.plus(Duration.ofMinutes(20))); // même case que 4 min, deux tours plus loin
+        wheel.schedule("c", T0.plus(Duration.ofMinutes(4)));
+        wheel.schedule("d", T0.plus(Duration.ofMinutes(5)));
+        wheel.schedule("c", T0.plus(Duration.ofMinutes(6)));   // remplacée
+        assertThat(wheel.cancel("d")).isTrue();
+
+        assertThat(wheel.advance(T0.plusSeconds(100))).isEmpty();
+        assertThat(wheel.advance(T0.plus(Duration.ofMinutes(2)))).containsExactly("a");
+        assertThat(wheel.advance(T0.plus(Duration.ofMinutes(5)))).isEmpty();
+        assertThat(wheel.advance(T0.plus(Duration.ofMinutes(6)))).containsExactly("c");
+        assertThat(wheel.advance(T0.plus(Duration.ofMinutes(19)))).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(T0.plus(Duration.ofMinutes(20)))).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesFireNextTick_andLongPausesReleaseEverythingDueInOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(Duration.ofMinutes(1), 4, T0);
+        wheel.schedule("late", T0.minus(Duration.ofHours(1)));
+        assertThat(wheel.deadline("late")).contains(T0.minus(Duration.ofHours(1)));
+        assertThat(wheel.advance(T0.plus(Duration.ofMinutes(1)))).containsExactly("late");
+
+        wheel.schedule("x", T0.plus(Duration.ofMinutes(9)));
+        wheel.schedule("y", T0.plus(Duration.ofMinutes(3)));
+        wheel.schedule("z", T0.plus(Duration.ofMinutes(30)));
+        assertThat(wheel.advance(T0.plus(Duration.ofMinutes(12)))).containsExactly("y", "x");
+        assertThat(wheel.deadline("z")).isPresent();
+    }
+}
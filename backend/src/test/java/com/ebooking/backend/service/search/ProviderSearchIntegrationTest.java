@@ -0,0 +1,90 @@
+package com.ebooking.backend.service.search;
+
+import com.ebooking.backend.dto.prestataire.PrestataireOnboardingRequest;
+import com.ebooking.backend.dto.prestataire.PrestataireResponse;
+import com.ebooking.backend.dto.service.ServiceRequest;
+import com.ebooking.backend.model.ServiceCatalog;
+import com.ebooking.backend.model.User;
+import com.ebooking.backend.repository.ServiceRepository;
+import com.ebooking.backend.repository.UserRepository;
+import com.ebooking.backend.service.PrestataireServiceBiz;
+import com.ebooking.backend.service.ServiceCatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class ProviderSearchIntegrationTest {
+
+    @Autowired private PrestataireServiceBiz prestataireService;
+    @Autowired private ServiceCatalogService catalogService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+
+    /** Terme propre au test, pour ne voir que ses fiches. */
+    private final String tag = "zz" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+
+    @Test
+    void onboardedProviders_areSearchableByEveryFieldAndRanked() {
+        ServiceCatalog coupe = serviceRepository.save(ServiceCatalog.builder().nom("Coupe " + tag).build());
+        var specialist = onboard("Grace", tag + " Coiffure", "12 rue de Lyon", List.of());
+        var linked = onboard("Ada", "Esthétique", "Évry", List.of(coupe.getId()));
+
+        assertThat(ids(prestataireService.search(tag, null, 10).items()))
+                .containsExactly(specialist.id(), linked.id());
+        assertThat(ids(prestataireService.search("evry " + tag.substring(0, 6), null, 10).items()))
+                .containsExactly(linked.id());
+        assertThat(ids(prestataireService.search("grace " + tag, null, 10).items()))
+                .containsExactly(specialist.id());
+
+        var first = prestataireService.search(tag, null, 1);
+        assertThat(first.nextCursor()).isNotNull();
+        var second = prestataireService.search(tag, first.nextCursor(), 1);
+        assertThat(ids(second.items())).containsExactly(linked.id());
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void serviceRenameAndLinking_areReflectedInResults() {
+        ServiceCatalog sc = serviceRepository.save(ServiceCatalog.builder().nom("Soin " + UUID.randomUUID()).build());
+        User owner = user("Ada");
+        var p = prestataireService.onboard(owner.getId(), new PrestataireOnboardingRequest("Esthétique", null, List.of(), null, null));
+        assertThat(prestataireService.search(tag, null, 10).items()).isEmpty();
+
+        prestataireService.linkService(p.id(), sc.getId(), owner.getId());
+        catalogService.update(sc.getId(), new ServiceRequest("Massage " + tag, null, 30));
+
+        assertThat(ids(prestataireService.search("massage " + tag, null, 10).items())).containsExactly(p.id());
+
+        prestataireService.unlinkService(p.id(), sc.getId(), owner.getId());
+
+        assertThat(prestataireService.search(tag, null, 10).items()).isEmpty();
+    }
+
+    private PrestataireResponse onboard(String prenom, String specialite, String adresse, List<Long> serviceIds) {
+        return prestataireService.onboard(user(prenom).getId(), new PrestataireOnboardingRequest(specialite, adresse, serviceIds, null, null));
+    }
+
+    private User user(String prenom) {
+        User u = new User();
+        u.setPrenom(prenom);
+        u.setNom("Test");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return userRepository.save(u);
+    }
+
+    private static List<Long> ids(List<PrestataireResponse> items) {
+        return items.stream().map(PrestataireResponse::id).toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ebooking.backend.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderTextIndexTest {
+
+    private final ProviderTextIndex index = new ProviderTextIndex();
+
+    @Test
+    void tokens_foldAccentsAndCaseAndDropSingleLetters() {
+        assertThat(ProviderTextIndex.tokens("Coiffeuse à Évry-Courcouronnes, 3 rue de l'Église"))
+                .containsExactly("coiffeuse", "evry", "courcouronnes", "rue", "de", "eglise");
+    }
+
+    @Test
+    void allTermsMustMatch_asPrefixes_andRankingFavoursWeightAndExactTerms() {
+        index.put(1, List.of(new ProviderTextIndex.Field("Coiffure", 4), new ProviderTextIndex.Field("Paris", 1)));
+        index.put(2, List.of(new ProviderTextIndex.Field("Esthétique", 4), new ProviderTextIndex.Field("Coiffure homme", 3),
+                new ProviderTextIndex.Field("Paris", 1)));
+        index.put(3, List.of(new ProviderTextIndex.Field("Coiffeur", 4), new ProviderTextIndex.Field("Lyon", 1)));
+
+        assertThat(ids(index.search("coif", null, 10))).containsExactly(1L, 3L, 2L);
+        assertThat(ids(index.search("coiffure", null, 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("COIFF paris", null, 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("esthetique pa", null, 10))).containsExactly(2L);
+        assertThat(index.search("coiffure marseille", null, 10)).isEmpty();
+        assertThat(index.search("  - ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void cursorPaging_visitsEveryHitOnceInRankOrder() {
+        for (long id = 1; id <= 25; id++) {
+            index.put(id, List.of(new ProviderTextIndex.Field("Massage", (int) (id % 4) + 1)));
+        }
+        List<ProviderTextIndex.Hit> all = new ArrayList<>();
+        ProviderTextIndex.Hit after = null;
+        List<ProviderTextIndex.Hit> page;
+        do {
+            page = index.search("massage", after, 7);
+            all.addAll(page);
+            if (!page.isEmpty()) after = page.get(page.size() - 1);
+        } while (page.size() == 7);
+
+        assertThat(all).hasSize(25).isSortedAccordingTo(ProviderTextIndex.RANKING);
+        assertThat(ids(all)).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void putReplacesAndRemoveForgets() {
+        index.put(1, List.of(new ProviderTextIndex.Field("Manucure", 4)));
+        index.put(2, List.of(new ProviderTextIndex.Field("Manucure", 4)));
+        index.put(1, List.of(new ProviderTextIndex.Field("Pédicure", 4)));
+        index.remove(2);
+        index.put(3, List.of(new ProviderTextIndex.Field("Manucure", 4)));
+
+        assertThat(ids(index.search("manucure", null, 10))).containsExactly(3L);
+        assertThat(ids(index.search("pedicure", null, 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private static List<Long> ids(List<ProviderTextIndex.Hit> hits) {
+        return hits.stream().map(ProviderTextIndex.Hit::id).toList();
+    }
+}
@@ -0,0 +1,252 @@
+package com.ebooking.backend.service.series;
+
+import com.ebooking.backend.config.RangeExclusionSchema;
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesRequest;
+import com.ebooking.backend.dto.rdv.RendezVousSeriesResponse;
+import com.ebooking.backend.dto.rdv.RendezVousUpdateRequest;
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.model.enums.RecurrenceSerie;
+import com.ebooking.backend.model.enums.StatutRdv;
+import com.ebooking.backend.model.enums.StatutSerie;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.DisponibiliteService;
+import com.ebooking.backend.service.RendezVousService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "series.materialize-ahead-days=14")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class RendezVousSeriesIntegrationTest {
+
+    @TestConfiguration
+    static class Schema {
+        @Bean
+        @Primary
+        ToggledSchema toggledSchema(JdbcTemplate jdbc, EntityManager em) {
+            return new ToggledSchema(jdbc, em);
+        }
+    }
+
+    /** Simule, sur H2, la contrainte d'exclusion PostgreSQL posée sur {@code rendez_vous}. */
+    static class ToggledSchema extends RangeExclusionSchema {
+        volatile boolean rendezVousEnforced;
+
+        ToggledSchema(JdbcTemplate jdbc, EntityManager em) {
+            super(jdbc, em, false);
+        }
+
+        @Override
+        public boolean enforces(Rule rule) {
+            return rule == Rule.RENDEZ_VOUS ? rendezVousEnforced : super.enforces(rule);
+        }
+    }
+
+    @Autowired private RendezVousService rdvService;
+    @Autowired private DisponibiliteService dispoService;
+    @Autowired private SeriesMaterializer materializer;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+    @Autowired private RendezVousSeriesRepository seriesRepository;
+    @Autowired private ToggledSchema schema;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Long> seriesIds = new ArrayList<>();
+    private ServiceCatalog service;
+    private Prestataire prestataire;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        service = serviceRepository.save(ServiceCatalog.builder().nom("Séance" + UUID.randomUUID()).dureeMin(60).build());
+        client = save(buildUser());
+        Prestataire p = new Prestataire();
+        p.setUser(save(buildUser()));
+        p.setSpecialite("Kinésithérapie");
+        prestataire = prestataireRepository.save(p);
+        PrestataireService link = new PrestataireService();
+        link.setPrestataire(prestataire);
+        link.setService(service);
+        prestataireServiceRepository.save(link);
+        Disponibilite d = new Disponibilite();
+        d.setPrestataire(prestataire);
+        d.setJourSemaine(JourSemaine.LUNDI);
+        d.setHeureDebut(LocalTime.of(9, 0));
+        d.setHeureFin(LocalTime.of(18, 0));
+        disponibiliteRepository.save(d);
+        // lundi à venir, entre J+1 et J+7 : la 2e occurrence tombe avant J+14, la 3e après
+        LocalDate now = LocalDate.now();
+        int diff = (DayOfWeek.MONDAY.getValue() - now.getDayOfWeek().getValue() + 7) % 7;
+        monday = now.plusDays(diff == 0 ? 7 : diff);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        schema.rendezVousEnforced = false;
+        rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()));
+        seriesRepository.deleteAllById(seriesIds);
+        disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(prestataire.getId()));
+        prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(prestataire.getId()));
+        prestataireRepository.delete(prestataire);
+        serviceRepository.delete(service);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void farOccurrences_stayVirtual_butBlockSlotsAndBookings() {
+        var series = createSeries(monday, "10:00", 20);
+
+        assertThat(series.nombreOccurrences()).isEqualTo(20);
+        assertThat(series.dateFin()).isEqualTo(monday.plusWeeks(19).toString());
+        assertThat(series.rendezVous()).extracting(r -> r.date())
+                .containsExactly(monday.toString(), monday.plusWeeks(1).toString());
+        assertThat(series.rendezVous()).allMatch(r -> series.id().equals(r.serieId()));
+        assertThat(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId())).hasSize(2);
+
+        LocalDate far = monday.plusWeeks(10);
+        assertThat(dispoService.slotsForDate(prestataire.getId(), service.getId(), far.toString(), 30, 60))
+                .contains("09:00", "11:00")
+                .doesNotContain("10:00", "10:30");
+        assertThatThrownBy(() -> rdvService.create(client.getId(),
+                new RendezVousRequest(service.getId(), prestataire.getId(), far.toString(), "10:30", 60)))
+                .isInstanceOf(UnprocessableEntityException.class)
+                .hasMessage("Créneau déjà réservé");
+        assertThat(rdvService.create(client.getId(),
+                new RendezVousRequest(service.getId(), prestataire.getId(), far.toString(), "11:00", 60)).id()).isNotNull();
+
+        // une série quinzomadaire qui croise la première toutes les deux semaines est refusée en bloc
+        assertThatThrownBy(() -> rdvService.createSeries(client.getId(), new RendezVousSeriesRequest(service.getId(),
+                prestataire.getId(), monday.plusWeeks(4).toString(), "10:30", 60, RecurrenceSerie.QUINZOMADAIRE, 3, null)))
+                .isInstanceOf(UnprocessableEntityException.class)
+                .hasMessageContaining("3 occurrence(s)")
+                .hasMessageContaining(monday.plusWeeks(4).toString());
+    }
+
+    @Test
+    void withTheDatabaseConstraint_pendingOccurrencesStillBlockOneOffBookings() {
+        schema.rendezVousEnforced = true;
+        createSeries(monday, "10:00", 20);
+        LocalDate far = monday.plusWeeks(10);
+
+        // la contrainte ne voit que les lignes : l'occurrence du jour n'est pas encore écrite
+        assertThatThrownBy(() -> rdvService.create(client.getId(),
+                new RendezVousRequest(service.getId(), prestataire.getId(), far.toString(), "10:30", 60)))
+                .isInstanceOf(UnprocessableEntityException.class)
+                .hasMessage("Créneau déjà réservé");
+        var other = rdvService.create(client.getId(),
+                new RendezVousRequest(service.getId(), prestataire.getId(), far.toString(), "12:00", 60));
+        assertThatThrownBy(() -> rdvService.update(prestataire.getUser().getId(), other.id(),
+                new RendezVousUpdateRequest(null, null, "09:30")))
+                .isInstanceOf(UnprocessableEntityException.class)
+                .hasMessage("Créneau déjà réservé");
+    }
+
+    @Test
+    void materializeDue_skipsAnOccurrenceWhoseSlotIsTaken_andWritesTheRest() {
+        // état antérieur au contrôle des séries : un RDV ponctuel sur une occurrence pas encore écrite
+        RendezVous oneOff = rendezVousRepository.save(RendezVous.builder().service(service).prestataire(prestataire)
+                .client(client).date(monday.plusWeeks(1)).heure(LocalTime.of(10, 30)).dureeMinutes(60)
+                .statut(StatutRdv.CONFIRME).build());
+        RendezVousSeries legacy = seriesRepository.save(RendezVousSeries.builder()
+                .service(service).prestataire(prestataire).client(client)
+                .recurrence(RecurrenceSerie.HEBDOMADAIRE).dateDebut(monday).dateFin(monday.plusWeeks(5))
+                .nombreOccurrences(6).heure(LocalTime.of(10, 0)).dureeMinutes(60)
+                .statut(StatutSerie.ACTIVE).materialiseeJusquAu(monday.minusDays(1)).build());
+        seriesIds.add(legacy.getId());
+
+        materializer.materializeDue();
+
+        assertThat(rendezVousRepository.findBySerieIdAndDateGreaterThanEqualAndStatutIn(legacy.getId(), monday,
+                List.of(StatutRdv.EN_ATTENTE))).extracting(RendezVous::getDate).containsExactly(monday);
+        assertThat(seriesRepository.findById(legacy.getId()).orElseThrow().getMaterialiseeJusquAu())
+                .isEqualTo(materializer.horizon());
+        assertThat(rendezVousRepository.findById(oneOff.getId()).orElseThrow().getStatut()).isEqualTo(StatutRdv.CONFIRME);
+    }
+
+    @Test
+    void materializingLater_keepsOccupancy_andCancellingFreesEverything() {
+        var series = createSeries(monday, "14:00", 12);
+        LocalDate far = monday.plusWeeks(8);
+        List<String> before = dispoService.slotsForDate(prestataire.getId(), service.getId(), far.toString(), 30, 60);
+
+        tx.executeWithoutResult(status -> materializer.materialize(
+                seriesRepository.findLockedById(series.id()).orElseThrow(), monday.plusWeeks(52)));
+
+        assertThat(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId())).hasSize(12);
+        assertThat(dispoService.slotsForDate(prestataire.getId(), service.getId(), far.toString(), 30, 60)).isEqualTo(before);
+
+        var cancelled = rdvService.annulerSeries(client.getId(), series.id());
+
+        assertThat(cancelled.statut()).isEqualTo("ANNULEE");
+        assertThat(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()))
+                .allMatch(r -> r.getStatut() == StatutRdv.ANNULE);
+        assertThat(dispoService.slotsForDate(prestataire.getId(), service.getId(), far.toString(), 30, 60)).contains("14:00");
+    }
+
+    @Test
+    void endDateBoundSeries_countsOccurrencesAndRejectsUncoveredTime() {
+        var series = rdvService.createSeries(client.getId(), new RendezVousSeriesRequest(service.getId(), prestataire.getId(),
+                monday.toString(), "16:00", 90, RecurrenceSerie.QUINZOMADAIRE, null, monday.plusWeeks(9).toString()));
+        seriesIds.add(series.id());
+
+        assertThat(series.nombreOccurrences()).isEqualTo(5);
+        assertThat(series.dateFin()).isEqualTo(monday.plusWeeks(8).toString());
+        assertThatThrownBy(() -> rdvService.createSeries(client.getId(), new RendezVousSeriesRequest(service.getId(),
+                prestataire.getId(), monday.toString(), "17:30", 60, RecurrenceSerie.HEBDOMADAIRE, 4, null)))
+                .hasMessage("Pas de créneau disponible couvrant cet horaire");
+        assertThatThrownBy(() -> rdvService.createSeries(client.getId(), new RendezVousSeriesRequest(service.getId(),
+                prestataire.getId(), monday.toString(), "09:00", 60, RecurrenceSerie.HEBDOMADAIRE, 4, monday.plusWeeks(4).toString())))
+                .hasMessage("Indiquer soit un nombre d'occurrences, soit une date de fin");
+    }
+
+    private RendezVousSeriesResponse createSeries(LocalDate first, String heure, int count) {
+        var resp = rdvService.createSeries(client.getId(), new RendezVousSeriesRequest(service.getId(), prestataire.getId(),
+                first.toString(), heure, null, RecurrenceSerie.HEBDOMADAIRE, count, null));
+        seriesIds.add(resp.id());
+        return resp;
+    }
+
+    private User save(User u) {
+        u = userRepository.save(u);
+        users.add(u);
+        return u;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+}
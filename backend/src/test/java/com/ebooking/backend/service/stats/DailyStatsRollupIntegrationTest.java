@@ -0,0 +1,160 @@
+package com.ebooking.backend.service.stats;
+
+import com.ebooking.backend.dto.rdv.RendezVousRequest;
+import com.ebooking.backend.dto.rdv.RendezVousUpdateRequest;
+import com.ebooking.backend.exception.UnprocessableEntityException;
+import com.ebooking.backend.model.*;
+import com.ebooking.backend.model.enums.JourSemaine;
+import com.ebooking.backend.repository.*;
+import com.ebooking.backend.service.AdminStatsService;
+import com.ebooking.backend.service.RendezVousService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Transactions réelles (commit) : après chaque écriture, l'agrégat tenu incrémentalement doit
+ * être identique à celui que produit une reconstruction depuis {@code rendez_vous}.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class DailyStatsRollupIntegrationTest {
+
+    @Autowired private RendezVousService rdvService;
+    @Autowired private AdminStatsService statsService;
+    @Autowired private DailyStatsRollup rollup;
+    @Autowired private DailyStatRepository statsRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ServiceRepository serviceRepository;
+    @Autowired private PrestataireRepository prestataireRepository;
+    @Autowired private PrestataireServiceRepository prestataireServiceRepository;
+    @Autowired private DisponibiliteRepository disponibiliteRepository;
+    @Autowired private RendezVousRepository rendezVousRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private ServiceCatalog coupe;
+    private ServiceCatalog soin;
+    private Prestataire prestataire;
+    private User client;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        coupe = serviceRepository.save(ServiceCatalog.builder().nom("Coupe" + UUID.randomUUID()).dureeMin(30).build());
+        soin = serviceRepository.save(ServiceCatalog.builder().nom("Soin" + UUID.randomUUID()).build());
+        client = save(buildUser());
+        prestataire = prestataireRepository.save(Prestataire.builder().user(save(buildUser())).specialite("Coiffure").build());
+        for (ServiceCatalog sc : List.of(coupe, soin)) {
+            prestataireServiceRepository.save(PrestataireService.builder().prestataire(prestataire).service(sc).build());
+        }
+        for (JourSemaine jour : List.of(JourSemaine.LUNDI, JourSemaine.MARDI)) {
+            disponibiliteRepository.save(Disponibilite.builder().prestataire(prestataire).jourSemaine(jour)
+                    .heureDebut(LocalTime.of(9, 0)).heureFin(LocalTime.of(18, 0)).build());
+        }
+        monday = next(DayOfWeek.MONDAY);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        statsRepository.deleteAll(statsRepository.findByPrestataireIdOrderByJourAscServiceIdAscStatutAsc(prestataire.getId()));
+        rendezVousRepository.deleteAll(rendezVousRepository.findByPrestataireIdOrderByDateAscHeureAsc(prestataire.getId()));
+        disponibiliteRepository.deleteAll(disponibiliteRepository.findByPrestataireId(prestataire.getId()));
+        prestataireServiceRepository.deleteAll(prestataireServiceRepository.findByPrestataireId(prestataire.getId()));
+        prestataireRepository.delete(prestataire);
+        serviceRepository.deleteAll(List.of(coupe, soin));
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void incrementalRollup_matchesRebuildAfterEveryKindOfWrite() {
+        Long ownerId = prestataire.getUser().getId();
+        var a = rdvService.create(client.getId(), request(coupe, monday, "09:00", null));
+        var b = rdvService.create(client.getId(), request(coupe, monday, "10:00", 45));
+        var c = rdvService.create(client.getId(), request(soin, monday, "11:00", null));
+        assertMatchesRebuild();
+        assertThat(statsService.summary(monday, monday).totalRdv()).isEqualTo(3);
+
+        rdvService.confirmer(ownerId, a.id());
+        rdvService.refuser(ownerId, b.id());
+        assertMatchesRebuild();
+
+        rdvService.update(ownerId, a.id(), new RendezVousUpdateRequest(soin.getId(), monday.plusDays(1).toString(), "14:00"));
+        rdvService.annuler(client.getId(), c.id());
+        assertMatchesRebuild();
+
+        // rejeté (chevauchement) : la transaction est annulée, l'agrégat ne bouge pas
+        assertThatThrownBy(() -> rdvService.create(client.getId(), request(coupe, monday.plusDays(1), "14:15", null)))
+                .isInstanceOf(UnprocessableEntityException.class);
+        assertMatchesRebuild();
+
+        assertThat(statsService.summary(monday, monday.plusDays(1)).totalRdv()).isEqualTo(3);
+        assertThat(statsService.series("rdv_count", monday, monday.plusDays(1), "daily"))
+                .extracting("date", "value")
+                .containsExactly(tuple(monday.toString(), 2L),
+                        tuple(monday.plusDays(1).toString(), 1L));
+    }
+
+    @Test
+    void rebuild_restoresDriftedRows() {
+        rdvService.create(client.getId(), request(coupe, monday, "09:00", null));
+        List<String> expected = rows();
+        statsRepository.deleteAll(statsRepository.findByPrestataireIdOrderByJourAscServiceIdAscStatutAsc(prestataire.getId()));
+
+        rollup.rebuild(monday, monday);
+
+        assertThat(rows()).isEqualTo(expected);
+    }
+
+    private void assertMatchesRebuild() {
+        List<String> incremental = rows();
+        rollup.rebuild(monday.minusDays(1), monday.plusDays(7));
+        assertThat(incremental).isEqualTo(rows());
+    }
+
+    /** Lignes non nulles du prestataire, sous forme comparable. */
+    private List<String> rows() {
+        return statsRepository.findByPrestataireIdOrderByJourAscServiceIdAscStatutAsc(prestataire.getId()).stream()
+                .filter(s -> s.getNbRdv() != 0 || s.getMinutesReservees() != 0)
+                .map(s -> s.getJour() + "/" + s.getServiceId() + "/" + s.getStatut() + "=" + s.getNbRdv() + "x" + s.getMinutesReservees())
+                .toList();
+    }
+
+    private RendezVousRequest request(ServiceCatalog sc, LocalDate date, String heure, Integer duree) {
+        return new RendezVousRequest(sc.getId(), prestataire.getId(), date.toString(), heure, duree);
+    }
+
+    private User save(User u) {
+        u = userRepository.save(u);
+        users.add(u);
+        return u;
+    }
+
+    private User buildUser() {
+        User u = new User();
+        u.setPrenom("Jane");
+        u.setNom("Doe");
+        u.setEmail(UUID.randomUUID() + "@test.com");
+        u.setTelephone(UUID.randomUUID().toString().replace("-", "").substring(0, 10));
+        u.setMotDePasseHash("hash");
+        return u;
+    }
+
+    private LocalDate next(DayOfWeek target) {
+        LocalDate now = LocalDate.now();
+        int diff = (target.getValue() - now.getDayOfWeek().getValue() + 7) % 7;
+        if (diff == 0) diff = 7;
+        return now.plusDays(diff);
+    }
+}
@@ -33,4 +33,11 @@ export class DisponibiliteApi {
     if (dureeMin != null) params = params.set('dureeMin', String(dureeMin));
     return this.http.get<string[]>(`${this.base}/disponibilites/${prestataireId}/slots`, { params });
   }
+  /** Créneaux de plusieurs jours en un appel : { 'YYYY-MM-DD': ['09:00', ...] } */
+  slotsForRange(prestataireId: string|number, fromISO: string, toISO: string, serviceId?: string|number|null, dureeMin?: number|null) {
+    let params = new HttpParams().set('from', fromISO).set('to', toISO);
+    if (serviceId != null) params = params.set('serviceId', String(serviceId));
+    if (dureeMin != null) params = params.set('dureeMin', String(dureeMin));
+    return this.http.get<Record<string, string[]>>(`${this.base}/disponibilites/${prestataireId}/slots/range`, { params });
+  }
 }
@@ -27,6 +27,13 @@ export class PrestataireApi {
     return this.http.get<any[]>(`${this.base}/prestataires`);
   }
 
+  /** Liste paginée (curseur opaque renvoyé par la page précédente) */
+  listPage(limit = 50, cursor?: string|null) {
+    let params = new HttpParams().set('limit', String(limit));
+    if (cursor) params = params.set('cursor', cursor);
+    return this.http.get<{ items: any[]; nextCursor: string|null }>(`${this.base}/prestataires`, { params });
+  }
+
   listByServiceSlug(serviceSlug: string) {
     return this.http.get<any[]>(`${this.base}/prestataires`, { params: { serviceSlug } });
   }
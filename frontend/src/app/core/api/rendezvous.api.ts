@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 
-export type RdvStatut = 'EN_ATTENTE'|'CONFIRME'|'ANNULE'|'REFUSE';
+export type RdvStatut = 'EN_ATTENTE'|'CONFIRME'|'ANNULE'|'REFUSE'|'EXPIRE';
 
 export type Rdv = {
   id: string|number;
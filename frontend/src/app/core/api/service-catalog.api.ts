@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 
-export type ServiceItem = { id: string|number; nom: string; description?: string; };
+export type ServiceItem = { id: string|number; nom: string; description?: string; dureeMin?: number|null; };
 
 @Injectable({ providedIn: 'root' })
 export class ServiceCatalogApi {
@@ -183,6 +183,7 @@ export class UserDetailPage implements OnInit {
       case 'CONFIRME':   return 'bg-emerald-100 text-emerald-900';
       case 'ANNULE':     return 'bg-gray-200 text-gray-700';
       case 'REFUSE':     return 'bg-rose-100 text-rose-900';
+      case 'EXPIRE':     return 'bg-gray-200 text-gray-700';
       default:           return '';
     }
   }
@@ -191,6 +192,7 @@ export class UserDetailPage implements OnInit {
          : (s as string) === 'CONFIRME'   ? 'Confirmé'
          : (s as string) === 'ANNULE'     ? 'Annulé'
          : (s as string) === 'REFUSE'     ? 'Refusé'
+         : (s as string) === 'EXPIRE'     ? 'Expiré'
          : (s as string);
   }
   private toDateTime(r: RowVM): Date {
@@ -168,6 +168,7 @@ export class MonComptePage implements OnInit {
     case 'CONFIRME':   return 'bg-emerald-100 text-emerald-900';
     case 'ANNULE':     return 'bg-gray-200 text-gray-700';
     case 'REFUSE':     return 'bg-rose-100 text-rose-900';
+    case 'EXPIRE':     return 'bg-gray-200 text-gray-700';
     default:           return '';
   }
 }
@@ -178,6 +179,7 @@ labelStatut(s: Rdv['statut'] | string) {
        : v === 'CONFIRME'   ? 'Confirmé'
        : v === 'ANNULE'     ? 'Annulé'
        : v === 'REFUSE'     ? 'Refusé'
+       : v === 'EXPIRE'     ? 'Expiré'
        : v;
 }
 
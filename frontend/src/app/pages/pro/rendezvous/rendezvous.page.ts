@@ -143,6 +143,7 @@ export class RendezvousPage implements OnInit {
       case 'CONFIRME':   return 'bg-emerald-100 text-emerald-900';
       case 'ANNULE':     return 'bg-gray-200 text-gray-700';
       case 'REFUSE':     return 'bg-rose-100 text-rose-900';
+      case 'EXPIRE':     return 'bg-gray-200 text-gray-700';
       default:           return '';
     }
   }
@@ -151,6 +152,7 @@ export class RendezvousPage implements OnInit {
          : s === 'CONFIRME'   ? 'Confirmé'
          : s === 'ANNULE'     ? 'Annulé'
          : s === 'REFUSE'     ? 'Refusé'
+         : s === 'EXPIRE'     ? 'Expiré'
          : s;
   }
 }